@@ -0,0 +1,8 @@
+-- One-off migration for databases whose transfer_idempotency_records predate key expiry.
+-- Run it against PostgreSQL before starting a build with app.transactions.idempotency.retention-seconds,
+-- since ddl-auto cannot add a NOT NULL column to a table that already has rows. Existing keys get the
+-- default 24 hour retention from their creation time; older ones are picked up by the next purge.
+ALTER TABLE transfer_idempotency_records ADD COLUMN IF NOT EXISTS expires_at timestamp(6) with time zone;
+UPDATE transfer_idempotency_records SET expires_at = created_at + interval '1 day' WHERE expires_at IS NULL;
+ALTER TABLE transfer_idempotency_records ALTER COLUMN expires_at SET NOT NULL;
+CREATE INDEX IF NOT EXISTS idx_transfer_idempotency_expires_at ON transfer_idempotency_records (expires_at);
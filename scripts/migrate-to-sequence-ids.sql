@@ -0,0 +1,27 @@
+-- One-off migration for databases created while entity ids were IDENTITY columns.
+-- Run it against PostgreSQL before starting a build that uses novabank_id_seq, so the sequence
+-- starts above every id already handed out. The existing identity defaults stay in place and are
+-- simply no longer used. Tables that do not exist yet are skipped.
+DO $$
+DECLARE
+    tbl text;
+    max_id bigint;
+    next_id bigint := 1;
+BEGIN
+    FOREACH tbl IN ARRAY ARRAY['users', 'accounts', 'account_balance_buckets', 'account_holds', 'transactions',
+                               'ledger_entries', 'transfer_idempotency_records', 'audit_logs', 'fraud_logs',
+                               'outbox_events']
+    LOOP
+        IF to_regclass(tbl) IS NOT NULL THEN
+            EXECUTE format('SELECT COALESCE(MAX(id), 0) FROM %I', tbl) INTO max_id;
+            next_id := GREATEST(next_id, max_id + 1);
+        END IF;
+    END LOOP;
+
+    IF to_regclass('novabank_id_seq') IS NULL THEN
+        EXECUTE format('CREATE SEQUENCE novabank_id_seq START WITH %s INCREMENT BY 50', next_id);
+    ELSE
+        -- Already created by ddl-auto: move it past the existing ids and any block it handed out.
+        PERFORM setval('novabank_id_seq', GREATEST(next_id, (SELECT last_value + 50 FROM novabank_id_seq)), false);
+    END IF;
+END $$;
@@ -0,0 +1,55 @@
+-- Compares inserting 10M random (v4) and time-ordered (v7) references into a table shaped like
+-- transactions.reference: varchar(36) with a unique index. Run with psql against a scratch database:
+--
+--   psql -d scratch -f scripts/reference-index-benchmark.sql
+--
+-- and compare the insert timings and index sizes it prints. gen_random_uuid() needs PostgreSQL 13+.
+\timing on
+
+DROP TABLE IF EXISTS ref_bench_v4;
+DROP TABLE IF EXISTS ref_bench_v7;
+CREATE TABLE ref_bench_v4 (id bigint PRIMARY KEY, reference varchar(36) NOT NULL UNIQUE);
+CREATE TABLE ref_bench_v7 (id bigint PRIMARY KEY, reference varchar(36) NOT NULL UNIQUE);
+
+-- Same layout as TransactionRecord.newReference(): millisecond timestamp, version 7, random tail.
+CREATE OR REPLACE FUNCTION pg_temp.uuid_v7() RETURNS uuid AS $$
+    SELECT encode(
+               set_bit(set_bit(
+                   overlay(uuid_send(gen_random_uuid())
+                           PLACING substring(int8send((extract(epoch FROM clock_timestamp()) * 1000)::bigint) FROM 3)
+                           FROM 1 FOR 6),
+                   52, 1), 53, 1),
+               'hex')::uuid;
+$$ LANGUAGE sql VOLATILE;
+
+-- Inserted in chunks of 100k, the way a steady stream of transfers would arrive.
+DO $$
+BEGIN
+    FOR chunk IN 0..99 LOOP
+        INSERT INTO ref_bench_v4
+        SELECT g, gen_random_uuid()::text FROM generate_series(chunk * 100000 + 1, (chunk + 1) * 100000) g;
+        COMMIT;
+    END LOOP;
+END $$;
+
+DO $$
+BEGIN
+    FOR chunk IN 0..99 LOOP
+        INSERT INTO ref_bench_v7
+        SELECT g, pg_temp.uuid_v7()::text FROM generate_series(chunk * 100000 + 1, (chunk + 1) * 100000) g;
+        COMMIT;
+    END LOOP;
+END $$;
+
+SELECT relname AS index_name, pg_size_pretty(pg_relation_size(oid)) AS size
+FROM pg_class
+WHERE relname IN ('ref_bench_v4_reference_key', 'ref_bench_v7_reference_key');
+
+-- Point lookups of recent references, the common case for retries and statements.
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT id FROM ref_bench_v4 WHERE reference IN (SELECT reference FROM ref_bench_v4 ORDER BY id DESC LIMIT 1000);
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT id FROM ref_bench_v7 WHERE reference IN (SELECT reference FROM ref_bench_v7 ORDER BY id DESC LIMIT 1000);
+
+DROP TABLE ref_bench_v4;
+DROP TABLE ref_bench_v7;
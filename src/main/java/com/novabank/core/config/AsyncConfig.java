@@ -0,0 +1,33 @@
+package com.novabank.core.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Executor for the audit and fraud event handlers, which run after the publishing transaction commits. Webhooks
+ * do not use it; their outbox rows are written before commit. When the queue is full the publishing thread runs
+ * the handler itself, still after commit; the handlers open their own transaction, so nothing is dropped.
+ */
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+
+    public static final String DOMAIN_EVENT_EXECUTOR = "domainEventExecutor";
+
+    @Bean(name = DOMAIN_EVENT_EXECUTOR)
+    public ThreadPoolTaskExecutor domainEventExecutor(EventProperties eventProperties) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("domain-events-");
+        executor.setCorePoolSize(eventProperties.getThreads());
+        executor.setMaxPoolSize(eventProperties.getThreads());
+        executor.setQueueCapacity(eventProperties.getQueueCapacity());
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        return executor;
+    }
+}
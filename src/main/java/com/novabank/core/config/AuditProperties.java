@@ -0,0 +1,25 @@
+package com.novabank.core.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "app.audit")
+@Getter
+@Setter
+public class AuditProperties {
+    private WriteBehind writeBehind = new WriteBehind();
+
+    @Getter
+    @Setter
+    public static class WriteBehind {
+        // Queue audit entries and persist them in batches instead of one insert per entry.
+        private boolean enabled = false;
+        // Entries beyond this are written synchronously by the caller.
+        private int queueCapacity = 10000;
+        private int batchSize = 100;
+        private long flushIntervalMs = 200;
+    }
+}
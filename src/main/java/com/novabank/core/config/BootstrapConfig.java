@@ -3,6 +3,7 @@ package com.novabank.core.config;
 import com.novabank.core.model.Role;
 import com.novabank.core.model.User;
 import com.novabank.core.repository.UserRepository;
+import com.novabank.core.service.LedgerService;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -10,6 +11,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 @Configuration
@@ -20,6 +22,7 @@ public class BootstrapConfig {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final LedgerService ledgerService;
 
     @Value("${app.bootstrap.admin.username:admin}")
     private String adminUsername;
@@ -44,4 +47,20 @@ public class BootstrapConfig {
             }
         };
     }
+
+    // Balances from before ledger_entries existed get their opening entries once; later runs find nothing to do.
+    @Bean
+    CommandLineRunner openLegacyLedgerBalances() {
+        return args -> {
+            try {
+                int opened = ledgerService.openLegacyBalances();
+                if (opened > 0) {
+                    log.info("Posted opening ledger entries for {} pre-ledger balances", opened);
+                }
+            } catch (DataIntegrityViolationException ex) {
+                // Another instance opened them at the same time; the unique ledger sequence kept one copy.
+                log.info("Opening ledger entries already posted by another instance");
+            }
+        };
+    }
 }
@@ -0,0 +1,15 @@
+package com.novabank.core.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "app.events")
+@Getter
+@Setter
+public class EventProperties {
+    private int threads = 4;
+    private int queueCapacity = 10000;
+}
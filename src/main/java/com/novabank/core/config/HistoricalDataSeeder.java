@@ -2,6 +2,7 @@ package com.novabank.core.config;
 
 import com.novabank.core.model.*;
 import com.novabank.core.repository.*;
+import com.novabank.core.service.LedgerService;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -10,6 +11,7 @@ import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.security.SecureRandom;
@@ -30,6 +32,8 @@ public class HistoricalDataSeeder {
     private final AuditLogRepository auditLogRepository;
     private final FraudLogRepository fraudLogRepository;
     private final PasswordEncoder passwordEncoder;
+    private final LedgerService ledgerService;
+    private final TransactionTemplate transactionTemplate;
 
     @Value("${app.bootstrap.historical.enabled:false}")
     private boolean enabled;
@@ -66,14 +70,17 @@ public class HistoricalDataSeeder {
             ZonedDateTime zNow = now.atZone(ZoneOffset.UTC);
             ZonedDateTime zStart = zNow.minusMonths(Math.max(1, monthsToSeed)).withHour(9).withMinute(0).withSecond(0).withNano(0);
 
-            // 1) Ensure users exist (create if missing)
-            List<User> users = ensureUsers(usersToSeed, zStart.toInstant());
+            // One transaction keeps the seeded accounts managed, so repeated balance updates see their own versions.
+            transactionTemplate.executeWithoutResult(status -> {
+                // 1) Ensure users exist (create if missing)
+                List<User> users = ensureUsers(usersToSeed, zStart.toInstant());
 
-            // 2) Ensure accounts (2 per user)
-            Map<User, List<Account>> userAccounts = ensureAccounts(users, zStart.toInstant());
+                // 2) Ensure accounts (2 per user)
+                Map<User, List<Account>> userAccounts = ensureAccounts(users, zStart.toInstant());
 
-            // 3) Generate weekly transactions across the period
-            generateTransactionsAndLogs(zStart, zNow, userAccounts);
+                // 3) Generate weekly transactions across the period
+                generateTransactionsAndLogs(zStart, zNow, userAccounts);
+            });
 
             // 4) Add seeding marker
             AuditLog marker = new AuditLog();
@@ -195,10 +202,11 @@ public class HistoricalDataSeeder {
     }
 
     private void createDeposit(User user, Account to, BigDecimal amount, Instant when, String note) {
+        TransactionRecord tx = new TransactionRecord();
         to.setBalance(to.getBalance().add(amount));
+        ledgerService.postDeposit(tx.getReference(), to, amount, when);
         accountRepository.save(to);
 
-        TransactionRecord tx = new TransactionRecord();
         tx.setType(TransactionRecord.Type.DEPOSIT);
         tx.setToAccount(to);
         tx.setAmount(amount);
@@ -234,10 +242,11 @@ public class HistoricalDataSeeder {
 
     private void createWithdrawal(User user, Account from, BigDecimal amount, Instant when, String note) {
         if (from.getBalance().compareTo(amount) < 0) return;
+        TransactionRecord tx = new TransactionRecord();
         from.setBalance(from.getBalance().subtract(amount));
+        ledgerService.postWithdrawal(tx.getReference(), from, amount, when);
         accountRepository.save(from);
 
-        TransactionRecord tx = new TransactionRecord();
         tx.setType(TransactionRecord.Type.WITHDRAWAL);
         tx.setFromAccount(from);
         tx.setAmount(amount);
@@ -272,12 +281,13 @@ public class HistoricalDataSeeder {
 
     private void createTransfer(User actor, Account from, Account to, BigDecimal amount, Instant when, String note) {
         if (from.getBalance().compareTo(amount) < 0) return;
+        TransactionRecord tx = new TransactionRecord();
         from.setBalance(from.getBalance().subtract(amount));
         to.setBalance(to.getBalance().add(amount));
+        ledgerService.postTransfer(tx.getReference(), from, to, amount, when);
         accountRepository.save(from);
         accountRepository.save(to);
 
-        TransactionRecord tx = new TransactionRecord();
         tx.setType(TransactionRecord.Type.TRANSFER);
         tx.setFromAccount(from);
         tx.setToAccount(to);
@@ -0,0 +1,94 @@
+package com.novabank.core.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "app.transactions")
+@Getter
+@Setter
+public class TransactionProperties {
+
+    public enum LockMode {
+        // Conditional UPDATE ... WHERE balance >= :amount statements; no entity is loaded on the happy path.
+        ATOMIC,
+        // Plain reads; conflicting writers are detected through Account.version and retried.
+        OPTIMISTIC,
+        // SELECT ... FOR UPDATE on every account involved, acquired in account-number order.
+        PESSIMISTIC
+    }
+
+    private LockMode lockMode = LockMode.ATOMIC;
+    private Retry retry = new Retry();
+    private Batch batch = new Batch();
+    private GroupCommit groupCommit = new GroupCommit();
+    private Engine engine = new Engine();
+    private HotAccounts hotAccounts = new HotAccounts();
+    private Holds holds = new Holds();
+    private Idempotency idempotency = new Idempotency();
+
+    @Getter
+    @Setter
+    public static class Retry {
+        private int maxAttempts = 5;
+        private long initialBackoffMs = 5;
+        private long maxBackoffMs = 200;
+    }
+
+    @Getter
+    @Setter
+    public static class Batch {
+        private int maxItems = 1000;
+        private int chunkSize = 200;
+    }
+
+    @Getter
+    @Setter
+    public static class GroupCommit {
+        private boolean enabled = false;
+        private int maxBatchSize = 64;
+        private long maxWaitMicros = 500;
+        private int queueCapacity = 10000;
+    }
+
+    @Getter
+    @Setter
+    public static class Engine {
+        private boolean enabled = false;
+        private int shards = 4;
+        private long flushIntervalMs = 50;
+        private int flushBatchSize = 500;
+        private int maxPendingPostings = 100000;
+        private int flushAttempts = 3;
+    }
+
+    @Getter
+    @Setter
+    public static class HotAccounts {
+        private int defaultBuckets = 8;
+        private int maxBuckets = 64;
+    }
+
+    @Getter
+    @Setter
+    public static class Holds {
+        private long defaultTtlSeconds = 604800;
+        private long maxTtlSeconds = 2592000;
+        private long expiryIntervalMs = 60000;
+        private int expiryBatchSize = 500;
+    }
+
+    @Getter
+    @Setter
+    public static class Idempotency {
+        // In-process cache of committed keys in front of transfer_idempotency_records; 0 TTL turns it off.
+        private int cacheMaxEntries = 10000;
+        private long cacheTtlSeconds = 600;
+        // How long a key is honoured; afterwards it behaves like a new key and its row is purged.
+        private long retentionSeconds = 86400;
+        private long purgeIntervalMs = 300000;
+        private int purgeBatchSize = 1000;
+    }
+}
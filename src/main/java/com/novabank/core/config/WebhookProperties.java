@@ -5,6 +5,11 @@ import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
 @Component
 @ConfigurationProperties(prefix = "app.notifications.webhook")
 @Getter
@@ -15,4 +20,63 @@ public class WebhookProperties {
     private String apiKey;
     private long connectTimeoutMs = 2000;
     private long readTimeoutMs = 3000;
+    // Deliveries outstanding at once on the shared client; the dispatcher waits for a slot beyond this.
+    private int maxInFlight = 32;
+    private int clientThreads = 4;
+    private Outbox outbox = new Outbox();
+    private CircuitBreaker circuitBreaker = new CircuitBreaker();
+    private Batching batching = new Batching();
+    // Named receivers. The url and api-key above, when set, act as an extra subscriber named "default" for all events.
+    private List<Subscriber> subscribers = new ArrayList<>();
+
+    public enum OverflowPolicy { DROP, PARK }
+
+    @Getter
+    @Setter
+    public static class Outbox {
+        private long pollIntervalMs = 1000;
+        private int batchSize = 50;
+        private int maxAttempts = 10;
+        private long initialBackoffMs = 1000;
+        private long maxBackoffMs = 600000;
+        // How long a claimed event stays invisible to other dispatchers while it is being delivered.
+        private long leaseMs = 60000;
+    }
+
+    @Getter
+    @Setter
+    public static class CircuitBreaker {
+        // Number of recent calls the failure and slow-call rates are computed over.
+        private int windowSize = 20;
+        private int minimumCalls = 10;
+        private double failureRateThreshold = 50;
+        private long slowCallDurationMs = 2000;
+        private double slowCallRateThreshold = 80;
+        private long openDurationMs = 30000;
+        private int halfOpenCalls = 3;
+        // Bulkhead: concurrent deliveries allowed to one endpoint.
+        private int maxConcurrent = 16;
+    }
+
+    @Getter
+    @Setter
+    public static class Batching {
+        // Send due events as JSON arrays instead of one POST per event.
+        private boolean enabled = false;
+        private int maxBatchSize = 100;
+        private long maxLingerMs = 200;
+    }
+
+    @Getter
+    @Setter
+    public static class Subscriber {
+        private String name;
+        private String url;
+        private String apiKey;
+        // Event types sent to this subscriber; empty means every type.
+        private Set<String> eventTypes = new HashSet<>();
+        // Pending events allowed before the overflow policy applies to new ones.
+        private int queueCapacity = 10000;
+        private OverflowPolicy overflow = OverflowPolicy.PARK;
+    }
 }
@@ -1,9 +1,13 @@
 package com.novabank.core.controller;
 
 import com.novabank.core.dto.account.AccountResponse;
+import com.novabank.core.dto.account.HoldCaptureRequest;
+import com.novabank.core.dto.account.HoldRequest;
+import com.novabank.core.dto.account.HoldResponse;
 import com.novabank.core.dto.transaction.DepositWithdrawRequest;
 import com.novabank.core.model.User;
 import com.novabank.core.service.AccountService;
+import com.novabank.core.service.HoldService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -26,6 +30,7 @@ import java.util.List;
 public class AccountController {
 
     private final AccountService accountService;
+    private final HoldService holdService;
 
     @Operation(summary = "List current user accounts")
     @ApiResponses({
@@ -88,4 +93,80 @@ public class AccountController {
                                                     @Valid @RequestBody DepositWithdrawRequest request) {
         return ResponseEntity.ok(accountService.withdraw(user, request.getAccountNumber(), request.getAmount(), request.getNote()));
     }
+
+    @Operation(summary = "List active holds on an account owned by the current user")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Active holds listed",
+                    content = @Content(schema = @Schema(implementation = com.novabank.core.dto.account.HoldResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Account not found",
+                    content = @Content(schema = @Schema(implementation = com.novabank.core.dto.common.ErrorResponse.class))),
+            @ApiResponse(responseCode = "403", description = "Forbidden: not your account",
+                    content = @Content(schema = @Schema(implementation = com.novabank.core.dto.common.ErrorResponse.class))),
+            @ApiResponse(responseCode = "401", description = "Unauthorized",
+                    content = @Content(schema = @Schema(implementation = com.novabank.core.dto.common.ErrorResponse.class)))
+    })
+    @GetMapping("/{accountNumber}/holds")
+    @SecurityRequirement(name = "bearerAuth")
+    public ResponseEntity<List<HoldResponse>> listHolds(@AuthenticationPrincipal User user,
+                                                        @PathVariable("accountNumber") String accountNumber) {
+        return ResponseEntity.ok(holdService.listActiveHolds(user, accountNumber));
+    }
+
+    @Operation(summary = "Reserve funds on an account owned by the current user until they are captured, released or expire")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Hold placed",
+                    content = @Content(schema = @Schema(implementation = com.novabank.core.dto.account.HoldResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Validation error or insufficient funds",
+                    content = @Content(schema = @Schema(implementation = com.novabank.core.dto.common.ErrorResponse.class))),
+            @ApiResponse(responseCode = "403", description = "Forbidden: not your account",
+                    content = @Content(schema = @Schema(implementation = com.novabank.core.dto.common.ErrorResponse.class))),
+            @ApiResponse(responseCode = "401", description = "Unauthorized",
+                    content = @Content(schema = @Schema(implementation = com.novabank.core.dto.common.ErrorResponse.class)))
+    })
+    @PostMapping("/{accountNumber}/holds")
+    @SecurityRequirement(name = "bearerAuth")
+    public ResponseEntity<HoldResponse> placeHold(@AuthenticationPrincipal User user,
+                                                  @PathVariable("accountNumber") String accountNumber,
+                                                  @Valid @RequestBody HoldRequest request) {
+        return ResponseEntity.ok(holdService.placeHold(user, accountNumber, request));
+    }
+
+    @Operation(summary = "Capture all or part of an active hold; any remainder is released")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Hold captured",
+                    content = @Content(schema = @Schema(implementation = com.novabank.core.dto.account.HoldResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Hold not active, expired or invalid amount",
+                    content = @Content(schema = @Schema(implementation = com.novabank.core.dto.common.ErrorResponse.class))),
+            @ApiResponse(responseCode = "403", description = "Forbidden: not your account",
+                    content = @Content(schema = @Schema(implementation = com.novabank.core.dto.common.ErrorResponse.class))),
+            @ApiResponse(responseCode = "401", description = "Unauthorized",
+                    content = @Content(schema = @Schema(implementation = com.novabank.core.dto.common.ErrorResponse.class)))
+    })
+    @PostMapping("/{accountNumber}/holds/{reference}/capture")
+    @SecurityRequirement(name = "bearerAuth")
+    public ResponseEntity<HoldResponse> captureHold(@AuthenticationPrincipal User user,
+                                                    @PathVariable("accountNumber") String accountNumber,
+                                                    @PathVariable("reference") String reference,
+                                                    @Valid @RequestBody(required = false) HoldCaptureRequest request) {
+        return ResponseEntity.ok(holdService.capture(user, accountNumber, reference, request == null ? null : request.getAmount()));
+    }
+
+    @Operation(summary = "Release an active hold without moving any funds")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Hold released",
+                    content = @Content(schema = @Schema(implementation = com.novabank.core.dto.account.HoldResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Hold not active",
+                    content = @Content(schema = @Schema(implementation = com.novabank.core.dto.common.ErrorResponse.class))),
+            @ApiResponse(responseCode = "403", description = "Forbidden: not your account",
+                    content = @Content(schema = @Schema(implementation = com.novabank.core.dto.common.ErrorResponse.class))),
+            @ApiResponse(responseCode = "401", description = "Unauthorized",
+                    content = @Content(schema = @Schema(implementation = com.novabank.core.dto.common.ErrorResponse.class)))
+    })
+    @PostMapping("/{accountNumber}/holds/{reference}/release")
+    @SecurityRequirement(name = "bearerAuth")
+    public ResponseEntity<HoldResponse> releaseHold(@AuthenticationPrincipal User user,
+                                                    @PathVariable("accountNumber") String accountNumber,
+                                                    @PathVariable("reference") String reference) {
+        return ResponseEntity.ok(holdService.release(user, accountNumber, reference));
+    }
 }
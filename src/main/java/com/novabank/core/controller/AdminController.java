@@ -3,14 +3,22 @@ package com.novabank.core.controller;
 import com.novabank.core.dto.account.AccountResponse;
 import com.novabank.core.dto.admin.AccountStatusUpdateRequest;
 import com.novabank.core.dto.admin.AdminAccountResponse;
+import com.novabank.core.dto.admin.HotAccountUpdateRequest;
+import com.novabank.core.dto.admin.LedgerReconciliationResponse;
 import com.novabank.core.model.Account;
 import com.novabank.core.model.AuditLog;
 import com.novabank.core.model.FraudLog;
+import com.novabank.core.model.OutboxEvent;
 import com.novabank.core.model.User;
 import com.novabank.core.repository.AccountRepository;
 import com.novabank.core.repository.AuditLogRepository;
 import com.novabank.core.repository.FraudLogRepository;
+import com.novabank.core.repository.OutboxEventRepository;
 import com.novabank.core.service.AccountService;
+import com.novabank.core.service.HotAccountService;
+import com.novabank.core.service.LedgerService;
+import com.novabank.core.service.UserService;
+import com.novabank.core.service.WebhookDispatcher;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -28,11 +36,15 @@ import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.math.BigDecimal;
+import java.util.Map;
+
 @RestController
 @RequestMapping("/api/admin")
 @RequiredArgsConstructor
@@ -43,6 +55,11 @@ public class AdminController {
     private final AuditLogRepository auditLogRepository;
     private final FraudLogRepository fraudLogRepository;
     private final AccountService accountService;
+    private final HotAccountService hotAccountService;
+    private final LedgerService ledgerService;
+    private final OutboxEventRepository outboxEventRepository;
+    private final WebhookDispatcher webhookDispatcher;
+    private final UserService userService;
 
     @Operation(summary = "List accounts for administration (ADMIN)")
     @ApiResponses({
@@ -76,10 +93,12 @@ public class AdminController {
             result = accountRepository.findAll(pageable);
         }
 
+        Map<String, BigDecimal> balances = hotAccountService.totalBalances(result.getContent());
         Page<AdminAccountResponse> body = result.map(a -> new AdminAccountResponse(
                 a.getAccountNumber(),
-                a.getBalance(),
+                balances.get(a.getAccountNumber()),
                 a.isActive(),
+                a.getBalanceBuckets(),
                 a.getUser().getUsername(),
                 a.getCreatedAt()
         ));
@@ -114,6 +133,52 @@ public class AdminController {
         return ResponseEntity.ok(response);
     }
 
+    @Operation(summary = "Mark an account hot (balance split across buckets) or cold, rebalancing its buckets (ADMIN)")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Hot-account mode updated",
+                    content = @Content(schema = @Schema(implementation = com.novabank.core.dto.account.AccountResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Validation or bad request error",
+                    content = @Content(schema = @Schema(implementation = com.novabank.core.dto.common.ErrorResponse.class))),
+            @ApiResponse(responseCode = "403", description = "Forbidden",
+                    content = @Content(schema = @Schema(implementation = com.novabank.core.dto.common.ErrorResponse.class))),
+            @ApiResponse(responseCode = "401", description = "Unauthorized",
+                    content = @Content(schema = @Schema(implementation = com.novabank.core.dto.common.ErrorResponse.class)))
+    })
+    @PatchMapping("/accounts/{accountNumber}/hot")
+    @PreAuthorize("hasRole('ADMIN')")
+    @SecurityRequirement(name = "bearerAuth")
+    public ResponseEntity<AccountResponse> updateHotMode(
+            @AuthenticationPrincipal User actor,
+            @PathVariable("accountNumber") String accountNumber,
+            @Valid @RequestBody HotAccountUpdateRequest request
+    ) {
+        AccountResponse response = hotAccountService.updateHotMode(
+                actor,
+                accountNumber,
+                request.getHot(),
+                request.getBuckets()
+        );
+        return ResponseEntity.ok(response);
+    }
+
+    @Operation(summary = "Reconcile an account's balance against its latest ledger entries (ADMIN/AUDITOR)")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Reconciliation result returned",
+                    content = @Content(schema = @Schema(implementation = com.novabank.core.dto.admin.LedgerReconciliationResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Validation or bad request error",
+                    content = @Content(schema = @Schema(implementation = com.novabank.core.dto.common.ErrorResponse.class))),
+            @ApiResponse(responseCode = "403", description = "Forbidden",
+                    content = @Content(schema = @Schema(implementation = com.novabank.core.dto.common.ErrorResponse.class))),
+            @ApiResponse(responseCode = "401", description = "Unauthorized",
+                    content = @Content(schema = @Schema(implementation = com.novabank.core.dto.common.ErrorResponse.class)))
+    })
+    @GetMapping("/accounts/{accountNumber}/reconciliation")
+    @PreAuthorize("hasAnyRole('ADMIN','AUDITOR')")
+    @SecurityRequirement(name = "bearerAuth")
+    public ResponseEntity<LedgerReconciliationResponse> reconcile(@PathVariable("accountNumber") String accountNumber) {
+        return ResponseEntity.ok(ledgerService.reconcile(accountNumber));
+    }
+
     @Operation(summary = "List audit logs (ADMIN/AUDITOR)")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Audit logs returned",
@@ -147,4 +212,81 @@ public class AdminController {
                                                     @RequestParam(name = "size", defaultValue = "20") int size) {
         return ResponseEntity.ok(fraudLogRepository.findAll(PageRequest.of(page, size)));
     }
+
+    @Operation(summary = "List webhook outbox events, optionally by status (ADMIN)")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Outbox events returned",
+                    content = @Content(schema = @Schema(implementation = com.novabank.core.model.OutboxEvent.class))),
+            @ApiResponse(responseCode = "403", description = "Forbidden",
+                    content = @Content(schema = @Schema(implementation = com.novabank.core.dto.common.ErrorResponse.class))),
+            @ApiResponse(responseCode = "401", description = "Unauthorized",
+                    content = @Content(schema = @Schema(implementation = com.novabank.core.dto.common.ErrorResponse.class)))
+    })
+    @GetMapping("/outbox")
+    @PreAuthorize("hasRole('ADMIN')")
+    @SecurityRequirement(name = "bearerAuth")
+    public ResponseEntity<Page<OutboxEvent>> outboxEvents(@RequestParam(name = "page", defaultValue = "0") int page,
+                                                          @RequestParam(name = "size", defaultValue = "20") int size,
+                                                          @RequestParam(name = "status", required = false) OutboxEvent.Status status) {
+        var pageable = PageRequest.of(page, size);
+        return ResponseEntity.ok(status == null
+                ? outboxEventRepository.findAll(pageable)
+                : outboxEventRepository.findByStatus(status, pageable));
+    }
+
+    @Operation(summary = "Queue a dead webhook outbox event for delivery again (ADMIN)")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Event queued",
+                    content = @Content(schema = @Schema(implementation = com.novabank.core.model.OutboxEvent.class))),
+            @ApiResponse(responseCode = "400", description = "Event not found or not dead",
+                    content = @Content(schema = @Schema(implementation = com.novabank.core.dto.common.ErrorResponse.class))),
+            @ApiResponse(responseCode = "403", description = "Forbidden",
+                    content = @Content(schema = @Schema(implementation = com.novabank.core.dto.common.ErrorResponse.class))),
+            @ApiResponse(responseCode = "401", description = "Unauthorized",
+                    content = @Content(schema = @Schema(implementation = com.novabank.core.dto.common.ErrorResponse.class)))
+    })
+    @PostMapping("/outbox/{id}/replay")
+    @PreAuthorize("hasRole('ADMIN')")
+    @SecurityRequirement(name = "bearerAuth")
+    public ResponseEntity<OutboxEvent> replayOutboxEvent(@PathVariable("id") Long id) {
+        return ResponseEntity.ok(webhookDispatcher.replay(id));
+    }
+
+    @Operation(summary = "Revoke every token issued to a user so far (ADMIN)")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Tokens revoked; returns the new cut-off"),
+            @ApiResponse(responseCode = "400", description = "User not found",
+                    content = @Content(schema = @Schema(implementation = com.novabank.core.dto.common.ErrorResponse.class))),
+            @ApiResponse(responseCode = "403", description = "Forbidden",
+                    content = @Content(schema = @Schema(implementation = com.novabank.core.dto.common.ErrorResponse.class))),
+            @ApiResponse(responseCode = "401", description = "Unauthorized",
+                    content = @Content(schema = @Schema(implementation = com.novabank.core.dto.common.ErrorResponse.class)))
+    })
+    @PostMapping("/users/{username}/revoke-tokens")
+    @PreAuthorize("hasRole('ADMIN')")
+    @SecurityRequirement(name = "bearerAuth")
+    public ResponseEntity<Map<String, String>> revokeTokens(@AuthenticationPrincipal User actor,
+                                                            @PathVariable("username") String username) {
+        return ResponseEntity.ok(Map.of(
+                "username", username,
+                "tokensNotBefore", userService.revokeTokens(actor, username).toString()));
+    }
+
+    @Operation(summary = "Revoke a single token by its id (jti) (ADMIN)")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Token revoked; returns how long it stays on the revocation list"),
+            @ApiResponse(responseCode = "403", description = "Forbidden",
+                    content = @Content(schema = @Schema(implementation = com.novabank.core.dto.common.ErrorResponse.class))),
+            @ApiResponse(responseCode = "401", description = "Unauthorized",
+                    content = @Content(schema = @Schema(implementation = com.novabank.core.dto.common.ErrorResponse.class)))
+    })
+    @PostMapping("/tokens/{tokenId}/revoke")
+    @PreAuthorize("hasRole('ADMIN')")
+    @SecurityRequirement(name = "bearerAuth")
+    public ResponseEntity<Map<String, String>> revokeToken(@AuthenticationPrincipal User actor,
+                                                           @PathVariable("tokenId") String tokenId) {
+        return ResponseEntity.ok(Map.of(
+                "tokenId", tokenId,
+                "revokedUntil", userService.revokeToken(actor, tokenId).toString()));
+    }
 }
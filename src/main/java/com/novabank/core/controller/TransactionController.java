@@ -1,5 +1,7 @@
 package com.novabank.core.controller;
 
+import com.novabank.core.dto.transaction.BatchTransferRequest;
+import com.novabank.core.dto.transaction.BatchTransferResponse;
 import com.novabank.core.dto.transaction.TransactionResponse;
 import com.novabank.core.dto.transaction.TransactionSummaryResponse;
 import com.novabank.core.dto.transaction.TransferRequest;
@@ -126,4 +128,22 @@ public class TransactionController {
         String ref = transactionService.transfer(user, request, idempotencyKey);
         return ResponseEntity.ok(Map.of("reference", ref));
     }
+
+    @Operation(summary = "Apply many transfers in one call",
+            description = "Each item may carry its own idempotencyKey. Items are validated in bulk and applied in chunked "
+                    + "database transactions; a failing item does not affect the others. The response reports a result per item.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Batch processed, see per-item results",
+                    content = @Content(schema = @Schema(implementation = com.novabank.core.dto.transaction.BatchTransferResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Validation error or batch too large",
+                    content = @Content(schema = @Schema(implementation = com.novabank.core.dto.common.ErrorResponse.class))),
+            @ApiResponse(responseCode = "401", description = "Unauthorized",
+                    content = @Content(schema = @Schema(implementation = com.novabank.core.dto.common.ErrorResponse.class)))
+    })
+    @PostMapping("/transfers/batch")
+    @SecurityRequirement(name = "bearerAuth")
+    public ResponseEntity<BatchTransferResponse> transferBatch(@AuthenticationPrincipal User user,
+                                                               @Valid @RequestBody BatchTransferRequest request) {
+        return ResponseEntity.ok(transactionService.transferBatch(user, request.getTransfers()));
+    }
 }
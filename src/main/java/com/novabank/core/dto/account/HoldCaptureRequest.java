@@ -0,0 +1,13 @@
+package com.novabank.core.dto.account;
+
+import jakarta.validation.constraints.DecimalMin;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+public class HoldCaptureRequest {
+    // Defaults to the full hold; a smaller amount captures part of it and releases the rest.
+    @DecimalMin(value = "0.01")
+    private BigDecimal amount;
+}
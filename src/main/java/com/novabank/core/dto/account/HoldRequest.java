@@ -0,0 +1,26 @@
+package com.novabank.core.dto.account;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+public class HoldRequest {
+    @NotNull
+    @DecimalMin(value = "0.01")
+    private BigDecimal amount;
+
+    // Account credited on capture; without one, capture is a withdrawal.
+    private String toAccount;
+
+    // Defaults to app.transactions.holds.default-ttl-seconds.
+    @Min(value = 1, message = "Expiry must be at least 1 second")
+    private Long expiresInSeconds;
+
+    @Size(max = 200, message = "Note must be at most 200 characters")
+    private String note;
+}
@@ -0,0 +1,26 @@
+package com.novabank.core.dto.account;
+
+import com.novabank.core.model.AccountHold;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+@Data
+@AllArgsConstructor
+public class HoldResponse {
+    private String reference;
+    private String accountNumber;
+    private String toAccount;
+    private BigDecimal amount;
+    private BigDecimal capturedAmount;
+    private AccountHold.Status status;
+    private Instant expiresAt;
+    private String transactionReference;
+
+    public static HoldResponse of(AccountHold hold) {
+        return new HoldResponse(hold.getReference(), hold.getAccountNumber(), hold.getToAccountNumber(), hold.getAmount(),
+                hold.getCapturedAmount(), hold.getStatus(), hold.getExpiresAt(), hold.getTransactionReference());
+    }
+}
@@ -12,6 +12,7 @@ public class AdminAccountResponse {
     private String accountNumber;
     private BigDecimal balance;
     private boolean active;
+    private int balanceBuckets;
     private String ownerUsername;
     private Instant createdAt;
 }
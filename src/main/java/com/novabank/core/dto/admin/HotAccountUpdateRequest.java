@@ -0,0 +1,16 @@
+package com.novabank.core.dto.admin;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+@Data
+public class HotAccountUpdateRequest {
+
+    @NotNull
+    private Boolean hot;
+
+    // Defaults to app.transactions.hot-accounts.default-buckets; ignored when hot is false.
+    @Min(value = 2, message = "Buckets must be at least 2")
+    private Integer buckets;
+}
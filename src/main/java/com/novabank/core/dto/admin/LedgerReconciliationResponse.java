@@ -0,0 +1,16 @@
+package com.novabank.core.dto.admin;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+@AllArgsConstructor
+public class LedgerReconciliationResponse {
+    private String accountNumber;
+    private BigDecimal balance;
+    private BigDecimal ledgerBalance;
+    private long lastSequence;
+    private boolean consistent;
+}
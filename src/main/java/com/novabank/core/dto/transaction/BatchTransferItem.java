@@ -0,0 +1,12 @@
+package com.novabank.core.dto.transaction;
+
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class BatchTransferItem extends TransferRequest {
+    @Size(max = 100, message = "Idempotency key must be at most 100 characters")
+    private String idempotencyKey;
+}
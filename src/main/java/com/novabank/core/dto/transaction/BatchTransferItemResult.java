@@ -0,0 +1,30 @@
+package com.novabank.core.dto.transaction;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class BatchTransferItemResult {
+
+    public enum Status { COMPLETED, REPLAYED, FAILED }
+
+    private int index;
+    private String idempotencyKey;
+    private Status status;
+    private String reference;
+    private String errorCode;
+    private String errorMessage;
+
+    public static BatchTransferItemResult completed(int index, String idempotencyKey, String reference) {
+        return new BatchTransferItemResult(index, idempotencyKey, Status.COMPLETED, reference, null, null);
+    }
+
+    public static BatchTransferItemResult replayed(int index, String idempotencyKey, String reference) {
+        return new BatchTransferItemResult(index, idempotencyKey, Status.REPLAYED, reference, null, null);
+    }
+
+    public static BatchTransferItemResult failed(int index, String idempotencyKey, String errorCode, String errorMessage) {
+        return new BatchTransferItemResult(index, idempotencyKey, Status.FAILED, null, errorCode, errorMessage);
+    }
+}
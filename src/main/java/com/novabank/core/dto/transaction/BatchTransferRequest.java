@@ -0,0 +1,13 @@
+package com.novabank.core.dto.transaction;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BatchTransferRequest {
+    @NotEmpty
+    private List<@Valid BatchTransferItem> transfers;
+}
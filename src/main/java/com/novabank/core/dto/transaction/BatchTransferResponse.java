@@ -0,0 +1,15 @@
+package com.novabank.core.dto.transaction;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class BatchTransferResponse {
+    private int total;
+    private int succeeded;
+    private int failed;
+    private List<BatchTransferItemResult> results;
+}
@@ -14,6 +14,8 @@ public class TransactionSummaryResponse {
     private String scopeAccountNumber;
     private String startDate;
     private String endDate;
+    private BigDecimal openingBalance;
+    private BigDecimal closingBalance;
     private long transactionCount;
     private long internalTransferCount;
     private BigDecimal totalCredits;
@@ -0,0 +1,8 @@
+package com.novabank.core.event;
+
+import java.math.BigDecimal;
+
+/** An account was frozen ({@code active == false}) or reactivated. */
+public record AccountStatusChanged(String actor, String accountNumber, String owner, boolean active, String reason,
+                                   BigDecimal balance) {
+}
@@ -0,0 +1,66 @@
+package com.novabank.core.event;
+
+import com.novabank.core.config.AsyncConfig;
+import com.novabank.core.model.TransactionRecord;
+import com.novabank.core.service.AuditService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+@RequiredArgsConstructor
+public class AuditEventHandler {
+    private final AuditService auditService;
+
+    // Each handler writes in a transaction of its own: when the executor is saturated it runs on the publishing
+    // thread inside afterCommit, where joining the finished transaction would silently discard the write.
+
+    @Async(AsyncConfig.DOMAIN_EVENT_EXECUTOR)
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void on(TransferCompleted event) {
+        auditService.log(event.actor(), "TRANSFER", event.fromAccount(), event.reference(),
+                "Transfer to " + event.toAccount() + " amount " + event.amount());
+    }
+
+    @Async(AsyncConfig.DOMAIN_EVENT_EXECUTOR)
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void on(FundsPosted event) {
+        if (event.type() == TransactionRecord.Type.DEPOSIT) {
+            auditService.log(event.actor(), "DEPOSIT", event.accountNumber(), event.reference(), "Deposit " + event.amount());
+        } else {
+            auditService.log(event.actor(), "WITHDRAW", event.accountNumber(), event.reference(), "Withdraw " + event.amount());
+        }
+    }
+
+    @Async(AsyncConfig.DOMAIN_EVENT_EXECUTOR)
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void on(AccountStatusChanged event) {
+        String status = event.active() ? "active" : "inactive";
+        String details = event.reason() == null || event.reason().isBlank()
+                ? "Account status updated to " + status
+                : "Account status updated to " + status + ": " + event.reason();
+        auditService.log(event.actor(), event.active() ? "ACCOUNT_ACTIVATE" : "ACCOUNT_FREEZE", event.accountNumber(), null, details);
+    }
+
+    @Async(AsyncConfig.DOMAIN_EVENT_EXECUTOR)
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void on(HoldChanged event) {
+        switch (event.status()) {
+            case ACTIVE -> auditService.log(event.actor(), "HOLD_PLACE", event.accountNumber(), event.holdReference(),
+                    "Hold " + event.amount());
+            case CAPTURED -> auditService.log(event.actor(), "HOLD_CAPTURE", event.accountNumber(), event.transactionReference(),
+                    "Captured " + event.amount() + " of hold " + event.holdReference());
+            case RELEASED -> auditService.log(event.actor(), "HOLD_RELEASE", event.accountNumber(), event.holdReference(),
+                    "Released hold " + event.amount());
+            case EXPIRED -> auditService.log(event.actor(), "HOLD_EXPIRE", event.accountNumber(), event.holdReference(),
+                    "Hold " + event.amount() + " expired");
+        }
+    }
+}
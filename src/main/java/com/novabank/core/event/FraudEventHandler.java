@@ -0,0 +1,45 @@
+package com.novabank.core.event;
+
+import com.novabank.core.config.AsyncConfig;
+import com.novabank.core.model.TransactionRecord;
+import com.novabank.core.service.FraudService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+@RequiredArgsConstructor
+public class FraudEventHandler {
+    private final FraudService fraudService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Runs on the publishing thread inside the transfer's transaction, so the LARGE_TRANSFER outbox row
+    // commits (or rolls back) with the transfer itself.
+    @EventListener
+    public void flagLargeTransfer(TransferCompleted event) {
+        if (fraudService.isLargeTransaction(event.amount())) {
+            eventPublisher.publishEvent(new LargeTransactionFlagged("LARGE_TRANSFER", event.actor(), event.fromAccount(),
+                    event.toAccount(), event.amount(), event.reference(), event.note()));
+        }
+    }
+
+    @Async(AsyncConfig.DOMAIN_EVENT_EXECUTOR)
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void on(TransferCompleted event) {
+        fraudService.checkAndLogLargeTransaction(event.actor(), event.fromAccount(), event.amount(), "LARGE_TRANSFER");
+    }
+
+    @Async(AsyncConfig.DOMAIN_EVENT_EXECUTOR)
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void on(FundsPosted event) {
+        fraudService.checkAndLogLargeTransaction(event.actor(), event.accountNumber(), event.amount(),
+                event.type() == TransactionRecord.Type.DEPOSIT ? "LARGE_DEPOSIT" : "LARGE_WITHDRAWAL");
+    }
+}
@@ -0,0 +1,10 @@
+package com.novabank.core.event;
+
+import com.novabank.core.model.TransactionRecord;
+
+import java.math.BigDecimal;
+
+/** A deposit or withdrawal was applied to one account. */
+public record FundsPosted(String actor, TransactionRecord.Type type, String accountNumber, BigDecimal amount,
+                          String reference) {
+}
@@ -0,0 +1,13 @@
+package com.novabank.core.event;
+
+import com.novabank.core.model.AccountHold;
+
+import java.math.BigDecimal;
+
+/**
+ * A hold was placed ({@code ACTIVE}) or settled. For a capture, {@code amount} is the captured amount and
+ * {@code transactionReference} the resulting transaction; otherwise it is the held amount and the reference is null.
+ */
+public record HoldChanged(String actor, String accountNumber, String holdReference, AccountHold.Status status,
+                          BigDecimal amount, String transactionReference) {
+}
@@ -0,0 +1,11 @@
+package com.novabank.core.event;
+
+import java.math.BigDecimal;
+
+/**
+ * Raised inside the transfer's transaction for transfers that crossed the large-amount threshold, so the
+ * webhook's outbox row commits with the transfer itself.
+ */
+public record LargeTransactionFlagged(String eventType, String actor, String fromAccount, String toAccount,
+                                      BigDecimal amount, String reference, String note) {
+}
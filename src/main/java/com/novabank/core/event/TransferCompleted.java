@@ -0,0 +1,8 @@
+package com.novabank.core.event;
+
+import java.math.BigDecimal;
+
+/** A transfer was applied; published inside its transaction and delivered once it commits. */
+public record TransferCompleted(String actor, String fromAccount, String toAccount, BigDecimal amount,
+                                String reference, String note) {
+}
@@ -0,0 +1,5 @@
+package com.novabank.core.event;
+
+/** A user's role, enabled flag, password or token cut-off changed; cached copies of the user are stale. */
+public record UserSecurityChanged(Long userId, String username) {
+}
@@ -0,0 +1,46 @@
+package com.novabank.core.event;
+
+import com.novabank.core.service.WebhookService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Writes webhook events to the outbox before the publishing transaction commits, so the event is stored
+ * if and only if the change it reports is.
+ */
+@Component
+@RequiredArgsConstructor
+public class WebhookEventHandler {
+    private final WebhookService webhookService;
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void on(LargeTransactionFlagged event) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("actor", event.actor());
+        payload.put("fromAccount", event.fromAccount());
+        payload.put("toAccount", event.toAccount());
+        payload.put("amount", event.amount());
+        payload.put("reference", event.reference());
+        payload.put("note", event.note() == null ? "" : event.note());
+        webhookService.notifyEvent(event.eventType(), payload);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void on(AccountStatusChanged event) {
+        if (event.active()) {
+            return;
+        }
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("actor", event.actor());
+        payload.put("accountNumber", event.accountNumber());
+        payload.put("owner", event.owner());
+        payload.put("reason", event.reason() == null ? "" : event.reason());
+        payload.put("balance", event.balance());
+        webhookService.notifyEvent("ACCOUNT_FROZEN", payload);
+    }
+}
@@ -0,0 +1,8 @@
+package com.novabank.core.exception;
+
+/** The server is shedding load; the client should retry after a short pause. Mapped to 429. */
+public class TooManyRequestsException extends RuntimeException {
+    public TooManyRequestsException(String message) {
+        super(message);
+    }
+}
@@ -5,6 +5,7 @@ import jakarta.validation.constraints.NotNull;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.math.BigDecimal;
 
@@ -30,4 +31,25 @@ public class Account extends BaseEntity {
 
     @Column(nullable = false)
     private boolean active = true;
+
+    // Sum of the account's active holds; debits may only use balance - heldAmount.
+    @NotNull
+    @ColumnDefault("0")
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal heldAmount = BigDecimal.ZERO;
+
+    // Number of sub-balance buckets credits are spread over; 0 means the account is not hot.
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private int balanceBuckets;
+
+    // Sequence of the latest ledger entry posted against this row.
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private long ledgerSequence;
+
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private long version;
 }
@@ -0,0 +1,49 @@
+package com.novabank.core.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.math.BigDecimal;
+
+/**
+ * One sub-balance of a hot account. The account's balance is its own row plus the sum of its buckets;
+ * credits land on a random bucket so concurrent deposits do not queue on the accounts row.
+ */
+@Entity
+@Table(
+        name = "account_balance_buckets",
+        uniqueConstraints = {
+                @UniqueConstraint(
+                        name = "uk_account_balance_bucket",
+                        columnNames = {"accountNumber", "bucketIndex"}
+                )
+        }
+)
+@Getter
+@Setter
+@NoArgsConstructor
+public class AccountBalanceBucket extends BaseEntity {
+
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    @JoinColumn(name = "account_id", nullable = false)
+    private Account account;
+
+    // Denormalized from the account so the credit statement needs no join.
+    @Column(nullable = false, length = 30)
+    private String accountNumber;
+
+    @Column(nullable = false)
+    private int bucketIndex;
+
+    @NotNull
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal balance = BigDecimal.ZERO;
+
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private long ledgerSequence;
+}
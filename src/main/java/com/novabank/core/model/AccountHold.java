@@ -0,0 +1,61 @@
+package com.novabank.core.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Funds reserved on an account until they are captured, released or expire. While a hold is active its
+ * amount is counted in {@link Account#getHeldAmount()}, so debits only see the available balance.
+ */
+@Entity
+@Table(name = "account_holds", indexes = {
+        @Index(name = "idx_hold_status_expiry", columnList = "status, expiresAt"),
+        @Index(name = "idx_hold_account", columnList = "accountNumber")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class AccountHold extends BaseEntity {
+
+    public enum Status { ACTIVE, CAPTURED, RELEASED, EXPIRED }
+
+    @Column(nullable = false, unique = true, length = 36)
+    private String reference = TransactionRecord.newReference();
+
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    @JoinColumn(name = "account_id", nullable = false)
+    private Account account;
+
+    // Denormalized from the account so the balance statements need no join.
+    @Column(nullable = false, length = 30)
+    private String accountNumber;
+
+    // Where captured funds go; null captures as a withdrawal.
+    @Column(length = 30)
+    private String toAccountNumber;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal amount;
+
+    @Column(precision = 19, scale = 2)
+    private BigDecimal capturedAmount;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private Status status = Status.ACTIVE;
+
+    @Column(nullable = false)
+    private Instant expiresAt;
+
+    // Reference of the transaction written on capture.
+    @Column(length = 36)
+    private String transactionReference;
+
+    @Column(length = 255)
+    private String note;
+}
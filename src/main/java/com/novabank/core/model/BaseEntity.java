@@ -5,6 +5,7 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.MappedSuperclass;
+import jakarta.persistence.SequenceGenerator;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -15,8 +16,11 @@ import java.time.Instant;
 @MappedSuperclass
 @EntityListeners(AuditingEntityListener.class)
 public abstract class BaseEntity {
+    // Ids come from one pooled sequence (pooled-lo, 50 per round trip). Unlike IDENTITY this lets Hibernate
+    // batch inserts; existing databases need scripts/migrate-to-sequence-ids.sql once.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "novabank_id")
+    @SequenceGenerator(name = "novabank_id", sequenceName = "novabank_id_seq", allocationSize = 50)
     private Long id;
 
     @CreatedDate
@@ -36,4 +40,7 @@ public abstract class BaseEntity {
     // @LastModifiedDate on persist; otherwise it will populate current time.
     public void setCreatedAt(Instant createdAt) { this.createdAt = createdAt; }
     public void setUpdatedAt(Instant updatedAt) { this.updatedAt = updatedAt; }
+
+    // Only for detached copies rebuilt from a trusted source, such as a principal from token claims.
+    protected void setId(Long id) { this.id = id; }
 }
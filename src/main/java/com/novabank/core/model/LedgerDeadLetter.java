@@ -0,0 +1,51 @@
+package com.novabank.core.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * A ledger engine posting that could not be persisted, even on its own. The engine already applied it to its
+ * in-memory balances, so each row is a difference between the engine and the accounts table that an operator
+ * has to resolve.
+ */
+@Entity
+@Table(name = "ledger_dead_letters")
+@Getter
+@Setter
+@NoArgsConstructor
+public class LedgerDeadLetter extends BaseEntity {
+
+    @Column(nullable = false, length = 36)
+    private String reference;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private TransactionRecord.Type type;
+
+    @Column(length = 30)
+    private String fromAccount;
+
+    @Column(length = 30)
+    private String toAccount;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal amount;
+
+    @Column(length = 255)
+    private String note;
+
+    @Column(nullable = false)
+    private Instant occurredAt;
+
+    @Column(length = 1000)
+    private String error;
+}
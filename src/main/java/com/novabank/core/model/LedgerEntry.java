@@ -0,0 +1,62 @@
+package com.novabank.core.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * One leg of a double-entry posting. Every balance change writes a debit and a credit sharing a reference;
+ * legs against an account carry the balance of that (sub-)ledger after the posting and its sequence number,
+ * so balances at any point in time are read from the latest entry rather than recomputed.
+ */
+@Entity
+@Table(
+        name = "ledger_entries",
+        uniqueConstraints = {
+                @UniqueConstraint(
+                        name = "uk_ledger_entry_sequence",
+                        columnNames = {"accountNumber", "subLedger", "sequence"}
+                )
+        },
+        indexes = {
+                @Index(name = "idx_ledger_account_time", columnList = "accountNumber, subLedger, occurredAt"),
+                @Index(name = "idx_ledger_reference", columnList = "reference")
+        }
+)
+@Getter
+@Setter
+@NoArgsConstructor
+public class LedgerEntry extends BaseEntity {
+
+    public enum Direction { DEBIT, CREDIT }
+
+    // Null for the external settlement side of deposits and withdrawals, which keeps no running balance.
+    @Column(length = 30)
+    private String accountNumber;
+
+    // 0 is the account row itself; n > 0 is balance bucket n - 1 of a hot account.
+    @Column(nullable = false)
+    private int subLedger;
+
+    private Long sequence;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 6)
+    private Direction direction;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal amount;
+
+    @Column(precision = 19, scale = 2)
+    private BigDecimal balanceAfter;
+
+    @Column(nullable = false, length = 36)
+    private String reference;
+
+    @Column(nullable = false)
+    private Instant occurredAt;
+}
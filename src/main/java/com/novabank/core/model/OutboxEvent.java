@@ -0,0 +1,56 @@
+package com.novabank.core.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * A webhook delivery to one subscriber, written in the same transaction as the change it reports. The dispatcher claims due
+ * PENDING rows by pushing {@code nextAttemptAt} forward, so a crashed delivery is simply retried later.
+ */
+@Entity
+@Table(name = "outbox_events", indexes = {
+        @Index(name = "idx_outbox_status_due", columnList = "subscriber, status, nextAttemptAt"),
+        @Index(name = "idx_outbox_ordering_key", columnList = "orderingKey, status")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class OutboxEvent extends BaseEntity {
+
+    // PARKED events were recorded while the subscriber's queue was full and become PENDING as it drains.
+    public enum Status { PENDING, PARKED, DELIVERED, DEAD }
+
+    // Name of the webhook subscriber this copy of the event is for.
+    @Column(nullable = false, length = 50)
+    private String subscriber;
+
+    @Column(nullable = false, length = 100)
+    private String eventType;
+
+    // The account the event is about; events sharing a key are delivered in the order they were recorded.
+    @Column(length = 64)
+    private String orderingKey;
+
+    // The complete JSON envelope, serialized when the event was recorded.
+    @Column(nullable = false, columnDefinition = "text")
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private Status status = Status.PENDING;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(nullable = false)
+    private Instant nextAttemptAt;
+
+    private Instant deliveredAt;
+
+    @Column(length = 255)
+    private String lastError;
+}
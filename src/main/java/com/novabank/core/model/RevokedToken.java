@@ -0,0 +1,36 @@
+package com.novabank.core.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * A token revoked before its expiry, by logout or by an admin. Rows are only needed until the token would have
+ * expired anyway; every instance loads the live ones into its in-memory revocation list.
+ */
+@Entity
+@Table(name = "revoked_tokens", indexes = {
+        @Index(name = "idx_revoked_tokens_expires_at", columnList = "expiresAt"),
+        @Index(name = "idx_revoked_tokens_created_at", columnList = "createdAt")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class RevokedToken extends BaseEntity {
+
+    // The token's jti claim.
+    @Column(nullable = false, unique = true, length = 36)
+    private String tokenId;
+
+    @Column(length = 50)
+    private String username;
+
+    @Column(nullable = false)
+    private Instant expiresAt;
+}
@@ -2,12 +2,15 @@ package com.novabank.core.model;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import jakarta.persistence.UniqueConstraint;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+import java.time.Instant;
+
 @Entity
 @Table(
         name = "transfer_idempotency_records",
@@ -16,6 +19,9 @@ import lombok.Setter;
                         name = "uk_transfer_idempotency_actor_key",
                         columnNames = {"actorUsername", "idempotencyKey"}
                 )
+        },
+        indexes = {
+                @Index(name = "idx_transfer_idempotency_expires_at", columnList = "expiresAt")
         }
 )
 @Getter
@@ -34,4 +40,8 @@ public class TransferIdempotencyRecord extends BaseEntity {
 
     @Column(nullable = false, length = 36)
     private String transferReference;
+
+    // After this the key is free again; the purge job deletes the row in chunks.
+    @Column(nullable = false)
+    private Instant expiresAt;
 }
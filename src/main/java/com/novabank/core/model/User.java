@@ -11,6 +11,7 @@ import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
+import java.time.Instant;
 import java.util.Collection;
 import java.util.List;
 
@@ -45,6 +46,22 @@ public class User extends BaseEntity implements UserDetails {
     @Column(nullable = false)
     private boolean enabled = true;
 
+    // Tokens issued before this instant are no longer accepted; null means no revocation so far.
+    private Instant tokensNotBefore;
+
+    /**
+     * A principal rebuilt from token claims, without a database read. Only the id, username, role and enabled
+     * flag are set; code that needs any other column must load the user by id, and this copy must never be saved.
+     */
+    public static User fromToken(Long id, String username, Role role, boolean enabled) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername(username);
+        user.setRole(role);
+        user.setEnabled(enabled);
+        return user;
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
@@ -0,0 +1,76 @@
+package com.novabank.core.repository;
+
+import com.novabank.core.model.AccountBalanceBucket;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import jakarta.persistence.LockModeType;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface AccountBalanceBucketRepository extends JpaRepository<AccountBalanceBucket, Long> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b from AccountBalanceBucket b where b.accountNumber = :accountNumber order by b.bucketIndex")
+    List<AccountBalanceBucket> findByAccountNumberForUpdate(@Param("accountNumber") String accountNumber);
+
+    long countByAccountNumber(String accountNumber);
+
+    List<AccountBalanceBucket> findByAccountNumberOrderByBucketIndex(String accountNumber);
+
+    Optional<BucketSnapshot> findSnapshotByAccountNumberAndBucketIndex(String accountNumber, int bucketIndex);
+
+    @Query("select b from AccountBalanceBucket b where b.ledgerSequence = 0 and b.balance <> 0 and not exists "
+            + "(select e.id from LedgerEntry e where e.accountNumber = b.accountNumber and e.subLedger = b.bucketIndex + 1)")
+    List<AccountBalanceBucket> findWithUnopenedLedger();
+
+    @Query("select coalesce(sum(b.balance), 0) from AccountBalanceBucket b where b.accountNumber = :accountNumber")
+    BigDecimal sumBalance(@Param("accountNumber") String accountNumber);
+
+    @Query("select b.accountNumber as accountNumber, sum(b.balance) as total from AccountBalanceBucket b "
+            + "where b.accountNumber in :accountNumbers group by b.accountNumber")
+    List<BucketTotal> sumBalances(@Param("accountNumbers") Collection<String> accountNumbers);
+
+    // Credits update only the bucket row. Callers hold a shared lock on the account row (see HotAccountService),
+    // so the account cannot go cold or be resized between this check and the bucket update.
+
+    @Modifying
+    @Query("update AccountBalanceBucket b set b.balance = b.balance + :amount, "
+            + "b.ledgerSequence = b.ledgerSequence + 1, b.updatedAt = :now "
+            + "where b.accountNumber = :accountNumber and b.bucketIndex = :bucketIndex "
+            + "and exists (select a.id from Account a where a.accountNumber = :accountNumber "
+            + "and a.active = true and a.balanceBuckets > :bucketIndex)")
+    int credit(@Param("accountNumber") String accountNumber,
+               @Param("bucketIndex") int bucketIndex,
+               @Param("amount") BigDecimal amount,
+               @Param("now") Instant now);
+
+    @Modifying
+    @Query("update AccountBalanceBucket b set b.balance = b.balance + :amount, "
+            + "b.ledgerSequence = b.ledgerSequence + 1, b.updatedAt = :now "
+            + "where b.accountNumber = :accountNumber and b.bucketIndex = :bucketIndex "
+            + "and exists (select a.id from Account a where a.accountNumber = :accountNumber "
+            + "and a.user.id = :ownerId and a.active = true and a.balanceBuckets > :bucketIndex)")
+    int creditOwned(@Param("accountNumber") String accountNumber,
+                    @Param("bucketIndex") int bucketIndex,
+                    @Param("ownerId") Long ownerId,
+                    @Param("amount") BigDecimal amount,
+                    @Param("now") Instant now);
+
+    interface BucketSnapshot {
+        BigDecimal getBalance();
+        long getLedgerSequence();
+    }
+
+    interface BucketTotal {
+        String getAccountNumber();
+        BigDecimal getTotal();
+    }
+}
@@ -0,0 +1,30 @@
+package com.novabank.core.repository;
+
+import com.novabank.core.model.AccountHold;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+public interface AccountHoldRepository extends JpaRepository<AccountHold, Long> {
+    Optional<AccountHold> findByReference(String reference);
+
+    List<AccountHold> findByAccountNumberAndStatusOrderByExpiresAt(String accountNumber, AccountHold.Status status);
+
+    @Query("select h.id from AccountHold h where h.status = com.novabank.core.model.AccountHold.Status.ACTIVE "
+            + "and h.expiresAt <= :now order by h.expiresAt")
+    List<Long> findExpiredIds(@Param("now") Instant now, Pageable page);
+
+    // Moves an active hold to a final status; 0 means another capture, release or expiry got there first.
+    @Modifying
+    @Query("update AccountHold h set h.status = :status, h.updatedAt = :now "
+            + "where h.id = :id and h.status = com.novabank.core.model.AccountHold.Status.ACTIVE")
+    int finish(@Param("id") Long id,
+               @Param("status") AccountHold.Status status,
+               @Param("now") Instant now);
+}
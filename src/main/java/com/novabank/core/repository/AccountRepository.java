@@ -5,13 +5,107 @@ import com.novabank.core.model.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import jakarta.persistence.LockModeType;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface AccountRepository extends JpaRepository<Account, Long> {
     List<Account> findByUser(User user);
     Optional<Account> findByAccountNumber(String accountNumber);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select a from Account a where a.accountNumber = :accountNumber")
+    Optional<Account> findByAccountNumberForUpdate(@Param("accountNumber") String accountNumber);
+
+    // Shared lock (FOR SHARE on PostgreSQL): concurrent bucket credits proceed together, but not alongside a resize.
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("select a from Account a where a.accountNumber = :accountNumber")
+    Optional<Account> findByAccountNumberForShare(@Param("accountNumber") String accountNumber);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select a from Account a where a.accountNumber in :accountNumbers order by a.accountNumber")
+    List<Account> findAllByAccountNumberInForUpdate(@Param("accountNumbers") Collection<String> accountNumbers);
+
+    Optional<AccountSnapshot> findSnapshotByAccountNumber(String accountNumber);
+
+    List<AccountSnapshot> findSnapshotsByAccountNumberIn(Collection<String> accountNumbers);
+
+    // Conditional single-statement balance mutations; each returns the number of rows changed (0 or 1).
+
+    @Modifying
+    @Query("update Account a set a.balance = a.balance - :amount, a.ledgerSequence = a.ledgerSequence + 1, "
+            + "a.version = a.version + 1, a.updatedAt = :now where a.accountNumber = :accountNumber and a.user.id = :ownerId and a.active = true and a.balance - a.heldAmount >= :amount")
+    int debit(@Param("accountNumber") String accountNumber,
+              @Param("ownerId") Long ownerId,
+              @Param("amount") BigDecimal amount,
+              @Param("now") Instant now);
+
+    @Modifying
+    @Query("update Account a set a.balance = a.balance + :amount, a.ledgerSequence = a.ledgerSequence + 1, "
+            + "a.version = a.version + 1, a.updatedAt = :now where a.accountNumber = :accountNumber and a.active = true")
+    int credit(@Param("accountNumber") String accountNumber,
+               @Param("amount") BigDecimal amount,
+               @Param("now") Instant now);
+
+    @Modifying
+    @Query("update Account a set a.balance = a.balance + :amount, a.ledgerSequence = a.ledgerSequence + 1, "
+            + "a.version = a.version + 1, a.updatedAt = :now where a.accountNumber = :accountNumber and a.user.id = :ownerId and a.active = true")
+    int creditOwned(@Param("accountNumber") String accountNumber,
+                    @Param("ownerId") Long ownerId,
+                    @Param("amount") BigDecimal amount,
+                    @Param("now") Instant now);
+
+    @Modifying
+    @Query("update Account a set a.balance = a.balance + :delta, a.ledgerSequence = :ledgerSequence, "
+            + "a.version = a.version + 1, a.updatedAt = :now where a.accountNumber = :accountNumber")
+    int adjustBalance(@Param("accountNumber") String accountNumber,
+                      @Param("delta") BigDecimal delta,
+                      @Param("ledgerSequence") long ledgerSequence,
+                      @Param("now") Instant now);
+
+    // Holds: reserving only raises heldAmount; capture lowers both, so the held funds can no longer be debited twice.
+
+    @Modifying
+    @Query("update Account a set a.heldAmount = a.heldAmount + :amount, a.version = a.version + 1, a.updatedAt = :now "
+            + "where a.accountNumber = :accountNumber and a.user.id = :ownerId and a.active = true "
+            + "and a.balance - a.heldAmount >= :amount")
+    int hold(@Param("accountNumber") String accountNumber,
+             @Param("ownerId") Long ownerId,
+             @Param("amount") BigDecimal amount,
+             @Param("now") Instant now);
+
+    @Modifying
+    @Query("update Account a set a.heldAmount = a.heldAmount - :amount, a.version = a.version + 1, a.updatedAt = :now "
+            + "where a.accountNumber = :accountNumber and a.heldAmount >= :amount")
+    int releaseHold(@Param("accountNumber") String accountNumber,
+                    @Param("amount") BigDecimal amount,
+                    @Param("now") Instant now);
+
+    @Modifying
+    @Query("update Account a set a.balance = a.balance - :amount, a.heldAmount = a.heldAmount - :held, "
+            + "a.ledgerSequence = a.ledgerSequence + 1, a.version = a.version + 1, a.updatedAt = :now "
+            + "where a.accountNumber = :accountNumber and a.active = true and a.heldAmount >= :held")
+    int captureHold(@Param("accountNumber") String accountNumber,
+                    @Param("held") BigDecimal held,
+                    @Param("amount") BigDecimal amount,
+                    @Param("now") Instant now);
+
+    List<Account> findByBalanceBucketsGreaterThan(int balanceBuckets);
+
+    // Rows holding a balance from before the ledger: never posted to, and without an opening entry.
+    @Query("select a from Account a where a.ledgerSequence = 0 and a.balance <> 0 and not exists "
+            + "(select e.id from LedgerEntry e where e.accountNumber = a.accountNumber and e.subLedger = 0)")
+    List<Account> findWithUnopenedLedger();
+
     boolean existsByAccountNumber(String accountNumber);
     Page<Account> findByActive(boolean active, Pageable pageable);
     Page<Account> findByUser_UsernameContainingIgnoreCase(String username, Pageable pageable);
@@ -0,0 +1,12 @@
+package com.novabank.core.repository;
+
+import java.math.BigDecimal;
+
+// Read-only projection used by the atomic balance paths to avoid hydrating Account entities.
+public interface AccountSnapshot {
+    Long getId();
+    String getAccountNumber();
+    BigDecimal getBalance();
+    int getBalanceBuckets();
+    long getLedgerSequence();
+}
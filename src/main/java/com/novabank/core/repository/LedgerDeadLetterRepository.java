@@ -0,0 +1,10 @@
+package com.novabank.core.repository;
+
+import com.novabank.core.model.LedgerDeadLetter;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Optional;
+
+public interface LedgerDeadLetterRepository extends JpaRepository<LedgerDeadLetter, Long> {
+    Optional<LedgerDeadLetter> findByReference(String reference);
+}
@@ -0,0 +1,26 @@
+package com.novabank.core.repository;
+
+import com.novabank.core.model.LedgerEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+public interface LedgerEntryRepository extends JpaRepository<LedgerEntry, Long> {
+    Optional<LedgerEntry> findFirstByAccountNumberAndSubLedgerAndOccurredAtBeforeOrderByOccurredAtDescSequenceDesc(
+            String accountNumber, int subLedger, Instant before);
+
+    Optional<LedgerEntry> findFirstByAccountNumberAndSubLedgerOrderBySequenceDesc(String accountNumber, int subLedger);
+
+    List<LedgerEntry> findByReferenceOrderById(String reference);
+
+    // First postings of (sub-)ledgers that already held a balance before them and still lack an opening entry.
+    @Query("select e from LedgerEntry e where e.accountNumber is not null and e.sequence = 1 "
+            + "and e.balanceAfter <> (case when e.direction = com.novabank.core.model.LedgerEntry.Direction.CREDIT "
+            + "then e.amount else -e.amount end) "
+            + "and not exists (select o.id from LedgerEntry o where o.accountNumber = e.accountNumber "
+            + "and o.subLedger = e.subLedger and o.sequence = 0)")
+    List<LedgerEntry> findFirstPostingsWithoutOpening();
+}
@@ -0,0 +1,46 @@
+package com.novabank.core.repository;
+
+import com.novabank.core.model.OutboxEvent;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // Lock timeout -2 is Hibernate's SKIP LOCKED: concurrent dispatchers each claim a disjoint batch.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select e from OutboxEvent e where e.subscriber = :subscriber "
+            + "and e.status = com.novabank.core.model.OutboxEvent.Status.PENDING "
+            + "and e.nextAttemptAt <= :now order by e.nextAttemptAt")
+    List<OutboxEvent> findDueForUpdate(@Param("subscriber") String subscriber, @Param("now") Instant now, Pageable page);
+
+    // Oldest by createdAt, id breaking ties: pooled ids are handed out in per-node blocks, so across nodes they
+    // do not follow recording order.
+    @Query("select e.id from OutboxEvent e where e.subscriber = :subscriber "
+            + "and e.status = com.novabank.core.model.OutboxEvent.Status.PENDING "
+            + "and e.orderingKey in :keys and not exists (select o.id from OutboxEvent o where o.subscriber = e.subscriber "
+            + "and o.status = com.novabank.core.model.OutboxEvent.Status.PENDING and o.orderingKey = e.orderingKey "
+            + "and (o.createdAt < e.createdAt or (o.createdAt = e.createdAt and o.id < e.id)))")
+    List<Long> findOldestPendingIds(@Param("subscriber") String subscriber, @Param("keys") Collection<String> keys);
+
+    long countBySubscriberAndStatus(String subscriber, OutboxEvent.Status status);
+
+    @Query("select min(e.createdAt) from OutboxEvent e where e.subscriber = :subscriber "
+            + "and e.status = com.novabank.core.model.OutboxEvent.Status.PENDING")
+    Instant findOldestPendingCreatedAt(@Param("subscriber") String subscriber);
+
+    List<OutboxEvent> findBySubscriberAndStatusOrderByCreatedAtAscIdAsc(String subscriber, OutboxEvent.Status status, Pageable pageable);
+
+    Page<OutboxEvent> findByStatus(OutboxEvent.Status status, Pageable pageable);
+}
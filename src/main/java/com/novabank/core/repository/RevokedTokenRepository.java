@@ -0,0 +1,27 @@
+package com.novabank.core.repository;
+
+import com.novabank.core.model.RevokedToken;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, Long> {
+    boolean existsByTokenId(String tokenId);
+
+    List<RevokedToken> findByExpiresAtAfter(Instant now);
+
+    List<RevokedToken> findByCreatedAtGreaterThanEqualAndExpiresAtAfter(Instant since, Instant now);
+
+    @Query("select r.id from RevokedToken r where r.expiresAt <= :now order by r.expiresAt")
+    List<Long> findExpiredIds(@Param("now") Instant now, Pageable page);
+
+    @Modifying
+    @Query("delete from RevokedToken r where r.id in :ids and r.expiresAt <= :now")
+    int deleteExpired(@Param("ids") Collection<Long> ids, @Param("now") Instant now);
+}
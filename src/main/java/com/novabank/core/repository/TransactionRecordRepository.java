@@ -5,11 +5,20 @@ import com.novabank.core.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
 import java.util.List;
 
 public interface TransactionRecordRepository extends JpaRepository<TransactionRecord, Long> {
     List<TransactionRecord> findByFromAccount_UserOrToAccount_User(User fromUser, User toUser);
 
     Page<TransactionRecord> findByFromAccount_UserOrToAccount_User(User fromUser, User toUser, Pageable pageable);
+
+    // Latest transaction of the account that was recorded before the ledger existed, i.e. has no ledger entries.
+    @Query("select max(t.occurredAt) from TransactionRecord t left join t.fromAccount f left join t.toAccount o "
+            + "where (f.accountNumber = :accountNumber or o.accountNumber = :accountNumber) "
+            + "and not exists (select e.id from LedgerEntry e where e.reference = t.reference)")
+    Instant findLastUnledgeredActivity(@Param("accountNumber") String accountNumber);
 }
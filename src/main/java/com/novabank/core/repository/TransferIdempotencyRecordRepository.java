@@ -1,10 +1,27 @@
 package com.novabank.core.repository;
 
 import com.novabank.core.model.TransferIdempotencyRecord;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface TransferIdempotencyRecordRepository extends JpaRepository<TransferIdempotencyRecord, Long> {
     Optional<TransferIdempotencyRecord> findByActorUsernameAndIdempotencyKey(String actorUsername, String idempotencyKey);
+
+    List<TransferIdempotencyRecord> findByActorUsernameAndIdempotencyKeyIn(String actorUsername, Collection<String> idempotencyKeys);
+
+    @Query("select r.id from TransferIdempotencyRecord r where r.expiresAt <= :now order by r.expiresAt")
+    List<Long> findExpiredIds(@Param("now") Instant now, Pageable page);
+
+    // Re-checks the expiry so a row is never removed on the strength of a stale read.
+    @Modifying
+    @Query("delete from TransferIdempotencyRecord r where r.id in :ids and r.expiresAt <= :now")
+    int deleteExpired(@Param("ids") Collection<Long> ids, @Param("now") Instant now);
 }
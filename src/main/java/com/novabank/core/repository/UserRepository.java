@@ -2,11 +2,17 @@ package com.novabank.core.repository;
 
 import com.novabank.core.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
     boolean existsByUsername(String username);
     boolean existsByEmail(String email);
+
+    @Query("select u.tokensNotBefore from User u where u.id = :id")
+    Optional<Instant> findTokensNotBeforeById(@Param("id") Long id);
 }
@@ -0,0 +1,70 @@
+package com.novabank.core.security;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter over token ids, sized for {@code expectedEntries} at the given false-positive rate. Lookups
+ * hash the string's chars in place and read the bit array without locks, so they allocate nothing. Bits
+ * cannot be cleared; the owner builds a fresh filter when entries expire.
+ */
+final class BloomFilter {
+
+    private final AtomicLongArray words;
+    private final long bits;
+    private final int hashes;
+
+    BloomFilter(int expectedEntries, double falsePositiveRate) {
+        int n = Math.max(1, expectedEntries);
+        double p = Math.min(0.5, Math.max(1e-9, falsePositiveRate));
+        long m = (long) Math.ceil(-n * Math.log(p) / (Math.log(2) * Math.log(2)));
+        this.words = new AtomicLongArray((int) Math.max(1, (m + 63) / 64));
+        this.bits = (long) words.length() * 64;
+        this.hashes = (int) Math.max(1, Math.min(16, Math.round((double) bits / n * Math.log(2))));
+    }
+
+    /** Callers serialize writes; concurrent reads are fine. */
+    void add(String key) {
+        long h1 = hash1(key);
+        long h2 = hash2(key);
+        for (int i = 0; i < hashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bits);
+            int word = (int) (bit >>> 6);
+            words.set(word, words.get(word) | (1L << bit));
+        }
+    }
+
+    boolean mightContain(String key) {
+        long h1 = hash1(key);
+        long h2 = hash2(key);
+        for (int i = 0; i < hashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bits);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    long sizeInBytes() {
+        return bits / 8;
+    }
+
+    // FNV-1a over the chars.
+    private static long hash1(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            h = (h ^ key.charAt(i)) * 0x100000001b3L;
+        }
+        return h;
+    }
+
+    // An independent multiply-xorshift mix, forced odd so the probe sequence covers the array.
+    private static long hash2(String key) {
+        long h = 0x9e3779b97f4a7c15L;
+        for (int i = 0; i < key.length(); i++) {
+            h = (h ^ key.charAt(i)) * 0xbf58476d1ce4e5b9L;
+            h ^= h >>> 31;
+        }
+        return h | 1;
+    }
+}
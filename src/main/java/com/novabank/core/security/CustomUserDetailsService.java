@@ -1,21 +1,143 @@
 package com.novabank.core.security;
 
+import com.novabank.core.event.UserSecurityChanged;
+import com.novabank.core.model.User;
 import com.novabank.core.repository.UserRepository;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
 
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loads users for authentication through a small cache: at most {@code security.user-cache.max-entries} users,
+ * least recently used first out, each kept for {@code ttl-seconds} (0 turns the cache off). A change to a
+ * user's role, enabled flag, password or token cut-off evicts the entry once it commits; on other instances
+ * the old copy lives until its TTL runs out. Cached users are shared between requests and must not be modified.
+ */
 @Service
-@RequiredArgsConstructor
 public class CustomUserDetailsService implements UserDetailsService {
 
+    private record Entry(User user, long expiresAtNanos) {
+    }
+
     private final UserRepository userRepository;
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final Map<String, Entry> entries;
+    // Guarded by entries. A lookup caches what it read only if the user was not invalidated after its read began,
+    // so a slow read never puts back a copy an eviction has just removed. Stamps are only needed while lookups
+    // are in flight and are dropped once none is.
+    private final Map<String, Long> invalidatedAt = new HashMap<>();
+    private long invalidations;
+    private int lookupsInFlight;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictedForSize;
+    private final Counter expired;
+    private final Counter invalidated;
+
+    public CustomUserDetailsService(UserRepository userRepository, MeterRegistry meterRegistry,
+                                    @Value("${security.user-cache.ttl-seconds:60}") long ttlSeconds,
+                                    @Value("${security.user-cache.max-entries:10000}") int maxEntries) {
+        this.userRepository = userRepository;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(Math.max(0, ttlSeconds));
+        this.maxEntries = Math.max(1, maxEntries);
+        this.hits = meterRegistry.counter("novabank.user_details.cache", "result", "hit");
+        this.misses = meterRegistry.counter("novabank.user_details.cache", "result", "miss");
+        this.evictedForSize = meterRegistry.counter("novabank.user_details.cache.evictions", "cause", "size");
+        this.expired = meterRegistry.counter("novabank.user_details.cache.evictions", "cause", "expired");
+        this.invalidated = meterRegistry.counter("novabank.user_details.cache.evictions", "cause", "invalidated");
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > CustomUserDetailsService.this.maxEntries) {
+                    evictedForSize.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+        Gauge.builder("novabank.user_details.cache.size", this, CustomUserDetailsService::size)
+                .description("Users held in the authentication cache")
+                .register(meterRegistry);
+        Gauge.builder("novabank.user_details.cache.hit_ratio", this, CustomUserDetailsService::hitRatio)
+                .description("Share of user lookups answered from the cache since startup")
+                .register(meterRegistry);
+    }
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        return userRepository.findByUsername(username)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
+        if (ttlNanos > 0) {
+            synchronized (entries) {
+                Entry entry = entries.get(username);
+                if (entry != null) {
+                    if (entry.expiresAtNanos() - System.nanoTime() > 0) {
+                        hits.increment();
+                        return entry.user();
+                    }
+                    entries.remove(username);
+                    expired.increment();
+                }
+            }
+        }
+        misses.increment();
+        if (ttlNanos == 0) {
+            return userRepository.findByUsername(username)
+                    .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
+        }
+        long readFrom;
+        synchronized (entries) {
+            readFrom = invalidations;
+            lookupsInFlight++;
+        }
+        User user = null;
+        try {
+            user = userRepository.findByUsername(username)
+                    .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
+            return user;
+        } finally {
+            synchronized (entries) {
+                if (user != null && invalidatedAt.getOrDefault(username, readFrom) <= readFrom) {
+                    entries.put(username, new Entry(user, System.nanoTime() + ttlNanos));
+                }
+                if (--lookupsInFlight == 0) {
+                    invalidatedAt.clear();
+                }
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void on(UserSecurityChanged event) {
+        synchronized (entries) {
+            invalidations++;
+            if (lookupsInFlight > 0) {
+                invalidatedAt.put(event.username(), invalidations);
+            }
+            if (entries.remove(event.username()) != null) {
+                invalidated.increment();
+            }
+        }
+    }
+
+    private double size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private double hitRatio() {
+        double lookups = hits.count() + misses.count();
+        return lookups == 0 ? 0 : hits.count() / lookups;
     }
 }
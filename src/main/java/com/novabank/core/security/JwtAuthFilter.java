@@ -1,9 +1,13 @@
 package com.novabank.core.security;
 
+import com.novabank.core.model.Role;
+import com.novabank.core.model.User;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -16,15 +20,30 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 
+/**
+ * Authenticates bearer tokens. With {@code security.jwt.principal-source=database} (the default) the principal
+ * is the user row loaded by username; with {@code claims} it is rebuilt from the token itself and the only
+ * lookup is the cached per-user {@code tokensNotBefore}. Tokens issued before the id claim existed always take
+ * the database path. Either way a token whose {@code jti} is on the revocation list is ignored.
+ */
 @Component
 public class JwtAuthFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final TokenNotBeforeCache tokenNotBeforeCache;
+    private final TokenRevocationList tokenRevocationList;
+    private final boolean claimsPrincipal;
 
-    public JwtAuthFilter(JwtService jwtService, UserDetailsService userDetailsService) {
+    public JwtAuthFilter(JwtService jwtService, UserDetailsService userDetailsService,
+                         TokenNotBeforeCache tokenNotBeforeCache,
+                         TokenRevocationList tokenRevocationList,
+                         @Value("${security.jwt.principal-source:database}") String principalSource) {
         this.jwtService = jwtService;
         this.userDetailsService = userDetailsService;
+        this.tokenNotBeforeCache = tokenNotBeforeCache;
+        this.tokenRevocationList = tokenRevocationList;
+        this.claimsPrincipal = "claims".equalsIgnoreCase(principalSource);
     }
 
     @Override
@@ -32,22 +51,28 @@ public class JwtAuthFilter extends OncePerRequestFilter {
                                     @NonNull HttpServletResponse response,
                                     @NonNull FilterChain filterChain) throws ServletException, IOException {
         final String authHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
-        final String jwt;
-        final String username;
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             filterChain.doFilter(request, response);
             return;
         }
-        jwt = authHeader.substring(7);
+        final VerifiedToken token;
         try {
-            username = jwtService.extractUsername(jwt);
-        } catch (Exception ex) {
+            // One parse checks the signature and the expiry together.
+            token = jwtService.verify(authHeader.substring(7));
+        } catch (JwtException ex) {
             filterChain.doFilter(request, response);
             return;
         }
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
-            if (jwtService.isTokenValid(jwt, userDetails)) {
+        // In memory, and allocation-free unless the Bloom filter reports a possible match.
+        if (token.tokenId() != null && tokenRevocationList.isRevoked(token.tokenId())) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (SecurityContextHolder.getContext().getAuthentication() == null) {
+            UserDetails userDetails = claimsPrincipal && token.userId() != null
+                    ? principalFromClaims(token)
+                    : principalFromDatabase(token);
+            if (userDetails != null) {
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                         userDetails, null, userDetails.getAuthorities()
                 );
@@ -57,4 +82,27 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         }
         filterChain.doFilter(request, response);
     }
+
+    private UserDetails principalFromClaims(VerifiedToken token) {
+        if (!token.enabled() || token.role() == null || !token.role().startsWith("ROLE_")
+                || tokenNotBeforeCache.isRevoked(token.userId(), token.issuedAt())) {
+            return null;
+        }
+        Role role;
+        try {
+            role = Role.valueOf(token.role().substring("ROLE_".length()));
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+        return User.fromToken(token.userId(), token.username(), role, true);
+    }
+
+    private UserDetails principalFromDatabase(VerifiedToken token) {
+        UserDetails userDetails = userDetailsService.loadUserByUsername(token.username());
+        if (userDetails instanceof User user
+                && TokenNotBeforeCache.issuedBefore(token.issuedAt(), user.getTokensNotBefore())) {
+            return null;
+        }
+        return userDetails.isEnabled() ? userDetails : null;
+    }
 }
@@ -1,6 +1,9 @@
 package com.novabank.core.security;
 
+import com.novabank.core.model.User;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
@@ -11,12 +14,17 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 import java.security.Key;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Date;
 import java.util.Map;
-import java.util.function.Function;
+import java.util.UUID;
 
 @Service
 public class JwtService {
+    static final String ROLE_CLAIM = "role";
+    static final String USER_ID_CLAIM = "uid";
+    static final String ENABLED_CLAIM = "enabled";
 
     @Value("${security.jwt.secret:ZmFrZXNlY3JldGZvcmtleWJhc2U2NA==}")
     private String secret;
@@ -24,34 +32,68 @@ public class JwtService {
     @Value("${security.jwt.expiration-ms:86400000}")
     private long jwtExpirationMs;
 
+    // Built once; the parser is immutable and safe to share between request threads.
+    private Key signingKey;
+    private JwtParser parser;
+
     @PostConstruct
-    void validateSecret() {
+    void init() {
+        byte[] keyBytes;
         try {
-            byte[] keyBytes = Decoders.BASE64.decode(secret);
-            if (keyBytes.length < 32) {
-                throw new IllegalStateException("security.jwt.secret must decode to at least 32 bytes for HS256");
-            }
+            keyBytes = Decoders.BASE64.decode(secret);
         } catch (IllegalArgumentException ex) {
             throw new IllegalStateException("security.jwt.secret must be valid Base64", ex);
         }
+        if (keyBytes.length < 32) {
+            throw new IllegalStateException("security.jwt.secret must decode to at least 32 bytes for HS256");
+        }
+        signingKey = Keys.hmacShaKeyFor(keyBytes);
+        parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
     }
 
-    public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
+    /**
+     * Checks the signature and expiry of a token in one parse and returns its claims.
+     *
+     * @throws JwtException if the token is malformed, forged or expired
+     */
+    public VerifiedToken verify(String token) {
+        Claims claims;
+        try {
+            claims = parser.parseClaimsJws(token).getBody();
+        } catch (IllegalArgumentException ex) {
+            throw new JwtException("Empty token", ex);
+        }
+        if (claims.getSubject() == null || claims.getExpiration() == null) {
+            throw new JwtException("Token has no subject or expiry");
+        }
+        Number userId = claims.get(USER_ID_CLAIM, Number.class);
+        Boolean enabled = claims.get(ENABLED_CLAIM, Boolean.class);
+        Date issuedAt = claims.getIssuedAt();
+        return new VerifiedToken(
+                claims.getId(),
+                userId == null ? null : userId.longValue(),
+                claims.getSubject(),
+                claims.get(ROLE_CLAIM, String.class),
+                enabled == null || enabled,
+                issuedAt == null ? Instant.EPOCH : issuedAt.toInstant(),
+                claims.getExpiration().toInstant());
     }
 
-    public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
+    /** The longest a token stays valid; nothing issued now outlives this. */
+    public Duration tokenLifetime() {
+        return Duration.ofMillis(jwtExpirationMs);
     }
 
-    public String generateToken(UserDetails userDetails) {
-        return buildToken(Map.of("role", userDetails.getAuthorities().iterator().next().getAuthority()), userDetails);
+    public String extractUsername(String token) {
+        return verify(token).username();
     }
 
-    public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+    // Enough to rebuild the principal without a database read when security.jwt.principal-source=claims.
+    public String generateToken(User user) {
+        return buildToken(Map.of(
+                ROLE_CLAIM, user.getAuthorities().iterator().next().getAuthority(),
+                USER_ID_CLAIM, user.getId(),
+                ENABLED_CLAIM, user.isEnabled()), user);
     }
 
     private String buildToken(Map<String, Object> extraClaims, UserDetails userDetails) {
@@ -59,31 +101,11 @@ public class JwtService {
         Date expiry = new Date(now.getTime() + jwtExpirationMs);
         return Jwts.builder()
                 .setClaims(extraClaims)
+                .setId(UUID.randomUUID().toString())
                 .setSubject(userDetails.getUsername())
                 .setIssuedAt(now)
                 .setExpiration(expiry)
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
-
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
-
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
-    }
-
-    private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-    }
-
-    private Key getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secret);
-        return Keys.hmacShaKeyFor(keyBytes);
-    }
 }
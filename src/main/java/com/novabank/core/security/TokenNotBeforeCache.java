@@ -0,0 +1,85 @@
+package com.novabank.core.security;
+
+import com.novabank.core.event.UserSecurityChanged;
+import com.novabank.core.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Each user's {@code tokensNotBefore}, so a claims-only principal can still be revoked. Entries are read from
+ * the users table on first use and kept for {@code not-before-cache-ttl-ms}, which bounds how long another
+ * node may keep accepting a token revoked elsewhere; a revocation made on this node evicts the entry on commit.
+ */
+@Component
+public class TokenNotBeforeCache {
+
+    private record Entry(Instant notBefore, long expiresAtNanos) {
+    }
+
+    private final UserRepository userRepository;
+    private final long ttlNanos;
+    private final Map<Long, Entry> entries;
+
+    public TokenNotBeforeCache(UserRepository userRepository,
+                               @Value("${security.jwt.not-before-cache-ttl-ms:30000}") long ttlMs,
+                               @Value("${security.jwt.not-before-cache-max-entries:10000}") int maxEntries) {
+        this.userRepository = userRepository;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, ttlMs));
+        int bound = Math.max(1, maxEntries);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                return size() > bound;
+            }
+        };
+    }
+
+    /** Whether a token issued at {@code issuedAt} to the user has been revoked since. */
+    public boolean isRevoked(Long userId, Instant issuedAt) {
+        return issuedBefore(issuedAt, notBefore(userId));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void on(UserSecurityChanged event) {
+        synchronized (entries) {
+            entries.remove(event.userId());
+        }
+    }
+
+    static boolean issuedBefore(Instant issuedAt, Instant notBefore) {
+        return notBefore != null && issuedAt.isBefore(notBefore);
+    }
+
+    private Instant notBefore(Long userId) {
+        synchronized (entries) {
+            Entry entry = entries.get(userId);
+            if (entry != null && entry.expiresAtNanos() - System.nanoTime() > 0) {
+                return entry.notBefore();
+            }
+        }
+        // Loaded outside the lock; two threads missing together just both read the same row.
+        Instant notBefore = userRepository.findTokensNotBeforeById(userId).orElse(null);
+        if (ttlNanos > 0) {
+            notBefore = put(userId, notBefore);
+        }
+        return notBefore;
+    }
+
+    // The timestamp only ever moves forward, so a slow read never replaces a newer revocation.
+    private Instant put(Long userId, Instant notBefore) {
+        synchronized (entries) {
+            Entry current = entries.get(userId);
+            if (current != null && issuedBefore(notBefore == null ? Instant.EPOCH : notBefore, current.notBefore())) {
+                notBefore = current.notBefore();
+            }
+            entries.put(userId, new Entry(notBefore, System.nanoTime() + ttlNanos));
+            return notBefore;
+        }
+    }
+}
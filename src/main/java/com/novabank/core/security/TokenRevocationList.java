@@ -0,0 +1,162 @@
+package com.novabank.core.security;
+
+import com.novabank.core.model.RevokedToken;
+import com.novabank.core.repository.RevokedTokenRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Revoked token ids ({@code jti}), checked on every authenticated request without touching the database.
+ * A Bloom filter answers first; only its rare positives consult the exact id set, so a token that was never
+ * revoked costs a few hash probes and no allocation. Revocations are stored in {@code revoked_tokens} and
+ * loaded at startup. A background sweep every {@code sweep-interval-ms} picks up revocations made on other
+ * instances, forgets ids whose token has expired (rebuilding the filter), and deletes their rows in chunks.
+ */
+@Component
+public class TokenRevocationList {
+    private static final Logger log = LoggerFactory.getLogger(TokenRevocationList.class);
+
+    // Overlap between sweeps, so a revocation committed slightly out of clock order is not missed.
+    private static final Duration SYNC_OVERLAP = Duration.ofMinutes(1);
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int expectedEntries;
+    private final double falsePositiveRate;
+    private final long sweepIntervalMs;
+    private final int purgeBatchSize;
+
+    private final Map<String, Instant> revoked = new ConcurrentHashMap<>();
+    private volatile BloomFilter filter;
+    private volatile Instant syncedUpTo = Instant.EPOCH;
+    private ScheduledExecutorService sweeper;
+
+    public TokenRevocationList(RevokedTokenRepository revokedTokenRepository,
+                               TransactionTemplate transactionTemplate,
+                               MeterRegistry meterRegistry,
+                               @Value("${security.revocation.expected-entries:100000}") int expectedEntries,
+                               @Value("${security.revocation.false-positive-rate:0.001}") double falsePositiveRate,
+                               @Value("${security.revocation.sweep-interval-ms:60000}") long sweepIntervalMs,
+                               @Value("${security.revocation.purge-batch-size:1000}") int purgeBatchSize) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.expectedEntries = expectedEntries;
+        this.falsePositiveRate = falsePositiveRate;
+        this.sweepIntervalMs = Math.max(1, sweepIntervalMs);
+        this.purgeBatchSize = Math.max(1, purgeBatchSize);
+        this.filter = new BloomFilter(expectedEntries, falsePositiveRate);
+        Gauge.builder("novabank.token_revocation.entries", revoked, Map::size)
+                .description("Revoked tokens that have not expired yet")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        sync();
+        sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "token-revocation-sweep");
+            t.setDaemon(true);
+            return t;
+        });
+        sweeper.scheduleWithFixedDelay(this::sweepQuietly, sweepIntervalMs, sweepIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        sweeper.shutdownNow();
+    }
+
+    public boolean isRevoked(String tokenId) {
+        return filter.mightContain(tokenId) && revoked.containsKey(tokenId);
+    }
+
+    /** Revokes one token until {@code expiresAt}, when it would stop being accepted anyway. */
+    public void revoke(String tokenId, String username, Instant expiresAt) {
+        if (!expiresAt.isAfter(Instant.now()) || isRevoked(tokenId)) {
+            return;
+        }
+        RevokedToken row = new RevokedToken();
+        row.setTokenId(tokenId);
+        row.setUsername(username);
+        row.setExpiresAt(expiresAt);
+        try {
+            revokedTokenRepository.save(row);
+        } catch (DataIntegrityViolationException ex) {
+            // Revoked concurrently, here or on another instance; the row is there either way.
+        }
+        remember(tokenId, expiresAt);
+    }
+
+    /** Picks up new revocations, forgets expired ones and purges their rows; returns the number of rows purged. */
+    public int sweep() {
+        sync();
+        Instant now = Instant.now();
+        if (revoked.values().removeIf(expiresAt -> !expiresAt.isAfter(now))) {
+            rebuildFilter();
+        }
+        int purged = 0;
+        while (true) {
+            List<Long> ids = revokedTokenRepository.findExpiredIds(now, PageRequest.of(0, purgeBatchSize));
+            if (ids.isEmpty()) {
+                return purged;
+            }
+            Integer deleted = transactionTemplate.execute(status -> revokedTokenRepository.deleteExpired(ids, now));
+            purged += deleted == null ? 0 : deleted;
+            if (ids.size() < purgeBatchSize) {
+                return purged;
+            }
+        }
+    }
+
+    private void sync() {
+        Instant now = Instant.now();
+        Instant since = syncedUpTo.equals(Instant.EPOCH) ? Instant.EPOCH : syncedUpTo.minus(SYNC_OVERLAP);
+        List<RevokedToken> rows = since.equals(Instant.EPOCH)
+                ? revokedTokenRepository.findByExpiresAtAfter(now)
+                : revokedTokenRepository.findByCreatedAtGreaterThanEqualAndExpiresAtAfter(since, now);
+        rows.forEach(r -> remember(r.getTokenId(), r.getExpiresAt()));
+        syncedUpTo = now;
+    }
+
+    private synchronized void remember(String tokenId, Instant expiresAt) {
+        if (revoked.putIfAbsent(tokenId, expiresAt) == null) {
+            filter.add(tokenId);
+        }
+    }
+
+    // A filter sized for the current entries; ids that expired are no longer in it.
+    private synchronized void rebuildFilter() {
+        BloomFilter fresh = new BloomFilter(Math.max(expectedEntries, revoked.size() * 2), falsePositiveRate);
+        revoked.keySet().forEach(fresh::add);
+        filter = fresh;
+    }
+
+    private void sweepQuietly() {
+        try {
+            int purged = sweep();
+            if (purged > 0) {
+                log.info("Purged {} expired token revocations", purged);
+            }
+        } catch (RuntimeException ex) {
+            log.error("Token revocation sweep failed: {}", ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.novabank.core.security;
+
+import java.time.Instant;
+
+/**
+ * What a signature-checked, unexpired token says about its bearer. Tokens issued before the user id and
+ * enabled claims were added carry a null {@code userId}, and those issued before token ids a null {@code tokenId}.
+ */
+public record VerifiedToken(String tokenId, Long userId, String username, String role, boolean enabled,
+                            Instant issuedAt, Instant expiresAt) {
+}
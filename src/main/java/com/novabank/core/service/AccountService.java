@@ -1,18 +1,24 @@
 package com.novabank.core.service;
 
+import com.novabank.core.config.TransactionProperties;
 import com.novabank.core.dto.account.AccountResponse;
+import com.novabank.core.event.AccountStatusChanged;
+import com.novabank.core.event.FundsPosted;
 import com.novabank.core.model.Account;
 import com.novabank.core.model.TransactionRecord;
 import com.novabank.core.model.User;
 import com.novabank.core.repository.AccountRepository;
+import com.novabank.core.repository.AccountSnapshot;
 import com.novabank.core.repository.TransactionRecordRepository;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.security.SecureRandom;
-import java.util.LinkedHashMap;
+import java.time.Instant;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
@@ -24,14 +30,21 @@ public class AccountService {
     private final AccountRepository accountRepository;
     private final TransactionRecordRepository txRepository;
     private final AuditService auditService;
-    private final FraudService fraudService;
-    private final WebhookService webhookService;
+    private final TransactionProperties transactionProperties;
+    private final LedgerEngine ledgerEngine;
+    private final HotAccountService hotAccountService;
+    private final LedgerService ledgerService;
+    private final ApplicationEventPublisher eventPublisher;
 
     private final Random random = new SecureRandom();
 
     public List<AccountResponse> listAccounts(User user) {
-        return accountRepository.findByUser(user).stream()
-                .map(a -> new AccountResponse(a.getAccountNumber(), a.getBalance(), a.isActive()))
+        List<Account> accounts = accountRepository.findByUser(user);
+        Map<String, BigDecimal> totals = hotAccountService.totalBalances(accounts);
+        return accounts.stream()
+                .map(a -> new AccountResponse(a.getAccountNumber(),
+                        ledgerEngine.balanceOf(a.getAccountNumber()).orElse(totals.get(a.getAccountNumber())),
+                        a.isActive()))
                 .collect(Collectors.toList());
     }
 
@@ -48,75 +61,153 @@ public class AccountService {
     }
 
     @Transactional
+    @RetryOnOptimisticLock
     public AccountResponse deposit(User user, String accountNumber, BigDecimal amount, String note) {
-        Account account = accountRepository.findByAccountNumber(accountNumber)
-                .orElseThrow(() -> new IllegalArgumentException("Account not found"));
-        requireOwner(user, account);
-        requireActive(account);
-        account.setBalance(account.getBalance().add(amount));
-        accountRepository.save(account);
+        requirePositive(amount);
+        if (ledgerEngine.isEnabled()) {
+            LedgerEngine.Receipt receipt = ledgerEngine.deposit(user, accountNumber, amount, note);
+            eventPublisher.publishEvent(new FundsPosted(user.getUsername(), TransactionRecord.Type.DEPOSIT, accountNumber,
+                    amount, receipt.reference()));
+            return new AccountResponse(accountNumber, receipt.balance(), true);
+        }
+        Posting posting;
+        if (isAtomic()) {
+            Instant now = Instant.now();
+            LedgerLeg bucket = hotAccountService.creditOwned(accountNumber, user.getId(), amount, now);
+            if (bucket == null && accountRepository.creditOwned(accountNumber, user.getId(), amount, now) == 0) {
+                throw rejectAtomicPosting(user, accountNumber, amount, false);
+            }
+            posting = postingFor(accountNumber, bucket);
+        } else {
+            Account account = loadAccountForUpdate(accountNumber);
+            requireOwner(user, account);
+            requireActive(account);
+            account.setBalance(account.getBalance().add(amount));
+            LedgerLeg leg = ledgerService.advance(account);
+            accountRepository.save(account);
+            posting = new Posting(account, hotAccountService.totalBalance(account), leg);
+        }
 
         TransactionRecord tx = new TransactionRecord();
         tx.setType(TransactionRecord.Type.DEPOSIT);
-        tx.setToAccount(account);
+        tx.setToAccount(posting.account());
         tx.setAmount(amount);
         tx.setNote(note);
         txRepository.save(tx);
+        ledgerService.postDeposit(tx.getReference(), posting.leg(), amount, tx.getOccurredAt());
 
-        auditService.log(user.getUsername(), "DEPOSIT", accountNumber, tx.getReference(), "Deposit " + amount);
-        fraudService.checkAndLogLargeTransaction(user.getUsername(), accountNumber, amount, "LARGE_DEPOSIT");
-        return new AccountResponse(account.getAccountNumber(), account.getBalance(), account.isActive());
+        eventPublisher.publishEvent(new FundsPosted(user.getUsername(), TransactionRecord.Type.DEPOSIT, accountNumber,
+                amount, tx.getReference()));
+        return new AccountResponse(accountNumber, posting.balance(), true);
     }
 
     @Transactional
+    @RetryOnOptimisticLock
     public AccountResponse withdraw(User user, String accountNumber, BigDecimal amount, String note) {
-        Account account = accountRepository.findByAccountNumber(accountNumber)
-                .orElseThrow(() -> new IllegalArgumentException("Account not found"));
-        requireOwner(user, account);
-        requireActive(account);
-        if (account.getBalance().compareTo(amount) < 0) {
-            throw new IllegalArgumentException("Insufficient funds");
+        requirePositive(amount);
+        if (ledgerEngine.isEnabled()) {
+            LedgerEngine.Receipt receipt = ledgerEngine.withdraw(user, accountNumber, amount, note);
+            eventPublisher.publishEvent(new FundsPosted(user.getUsername(), TransactionRecord.Type.WITHDRAWAL, accountNumber,
+                    amount, receipt.reference()));
+            return new AccountResponse(accountNumber, receipt.balance(), true);
+        }
+        Posting posting;
+        if (isAtomic()) {
+            if (!debitAtomically(user, accountNumber, amount)) {
+                throw rejectAtomicPosting(user, accountNumber, amount, true);
+            }
+            posting = postingFor(accountNumber, null);
+        } else {
+            Account account = loadAccountForUpdate(accountNumber);
+            requireOwner(user, account);
+            requireActive(account);
+            hotAccountService.sweep(account);
+            if (account.getBalance().subtract(account.getHeldAmount()).compareTo(amount) < 0) {
+                throw new IllegalArgumentException("Insufficient funds");
+            }
+            account.setBalance(account.getBalance().subtract(amount));
+            LedgerLeg leg = ledgerService.advance(account);
+            accountRepository.save(account);
+            posting = new Posting(account, hotAccountService.totalBalance(account), leg);
         }
-        account.setBalance(account.getBalance().subtract(amount));
-        accountRepository.save(account);
 
         TransactionRecord tx = new TransactionRecord();
         tx.setType(TransactionRecord.Type.WITHDRAWAL);
-        tx.setFromAccount(account);
+        tx.setFromAccount(posting.account());
         tx.setAmount(amount);
         tx.setNote(note);
         txRepository.save(tx);
+        ledgerService.postWithdrawal(tx.getReference(), posting.leg(), amount, tx.getOccurredAt());
 
-        auditService.log(user.getUsername(), "WITHDRAW", accountNumber, tx.getReference(), "Withdraw " + amount);
-        fraudService.checkAndLogLargeTransaction(user.getUsername(), accountNumber, amount, "LARGE_WITHDRAWAL");
-        return new AccountResponse(account.getAccountNumber(), account.getBalance(), account.isActive());
+        eventPublisher.publishEvent(new FundsPosted(user.getUsername(), TransactionRecord.Type.WITHDRAWAL, accountNumber,
+                amount, tx.getReference()));
+        return new AccountResponse(accountNumber, posting.balance(), true);
     }
 
     @Transactional
+    @RetryOnOptimisticLock
     public AccountResponse updateAccountStatus(User actor, String accountNumber, boolean active, String reason) {
         Account account = accountRepository.findByAccountNumber(accountNumber)
                 .orElseThrow(() -> new IllegalArgumentException("Account not found"));
 
         account.setActive(active);
         accountRepository.save(account);
+        ledgerEngine.updateActive(accountNumber, active);
+        BigDecimal balance = currentBalance(account);
+
+        // Audit (both directions) and the ACCOUNT_FROZEN webhook follow from the event.
+        eventPublisher.publishEvent(new AccountStatusChanged(actor.getUsername(), accountNumber, account.getUser().getUsername(),
+                active, reason, balance));
+
+        return new AccountResponse(account.getAccountNumber(), balance, account.isActive());
+    }
+
+    // With the ledger engine the in-memory balance leads the row until the next flush.
+    private BigDecimal currentBalance(Account account) {
+        return ledgerEngine.balanceOf(account.getAccountNumber()).orElseGet(() -> hotAccountService.totalBalance(account));
+    }
 
-        String action = active ? "ACCOUNT_ACTIVATE" : "ACCOUNT_FREEZE";
-        String details = (reason == null || reason.isBlank())
-                ? "Account status updated to " + (active ? "active" : "inactive")
-                : "Account status updated to " + (active ? "active" : "inactive") + ": " + reason;
-        auditService.log(actor.getUsername(), action, accountNumber, null, details);
-
-        if (!active) {
-            Map<String, Object> payload = new LinkedHashMap<>();
-            payload.put("actor", actor.getUsername());
-            payload.put("accountNumber", accountNumber);
-            payload.put("owner", account.getUser().getUsername());
-            payload.put("reason", reason == null ? "" : reason);
-            payload.put("balance", account.getBalance());
-            webhookService.notifyEvent("ACCOUNT_FROZEN", payload);
+    // A hot account may hold the funds in its buckets; sweep them into the row and try once more.
+    private boolean debitAtomically(User user, String accountNumber, BigDecimal amount) {
+        if (accountRepository.debit(accountNumber, user.getId(), amount, Instant.now()) == 1) {
+            return true;
         }
+        return hotAccountService.isHot(accountNumber)
+                && hotAccountService.sweep(accountNumber)
+                && accountRepository.debit(accountNumber, user.getId(), amount, Instant.now()) == 1;
+    }
 
-        return new AccountResponse(account.getAccountNumber(), account.getBalance(), account.isActive());
+    private boolean isAtomic() {
+        return transactionProperties.getLockMode() == TransactionProperties.LockMode.ATOMIC;
+    }
+
+    // Read after the conditional UPDATE, which still holds the row, so the snapshot is the posting's own result.
+    private Posting postingFor(String accountNumber, LedgerLeg bucketLeg) {
+        AccountSnapshot snapshot = accountRepository.findSnapshotByAccountNumber(accountNumber)
+                .orElseThrow(() -> new IllegalArgumentException("Account not found"));
+        LedgerLeg leg = bucketLeg != null ? bucketLeg
+                : new LedgerLeg(accountNumber, 0, snapshot.getLedgerSequence(), snapshot.getBalance());
+        return new Posting(accountRepository.getReferenceById(snapshot.getId()),
+                hotAccountService.totalBalance(accountNumber, snapshot.getBalance(), snapshot.getBalanceBuckets()), leg);
+    }
+
+    // The conditional UPDATE matched no row; load the account only now to report why.
+    private RuntimeException rejectAtomicPosting(User user, String accountNumber, BigDecimal amount, boolean debit) {
+        Account account = accountRepository.findByAccountNumber(accountNumber)
+                .orElseThrow(() -> new IllegalArgumentException("Account not found"));
+        requireOwner(user, account);
+        requireActive(account);
+        if (debit && account.getBalance().subtract(account.getHeldAmount()).compareTo(amount) < 0) {
+            return new IllegalArgumentException("Insufficient funds");
+        }
+        return new ConcurrencyFailureException("Account state changed during update");
+    }
+
+    private Account loadAccountForUpdate(String accountNumber) {
+        var account = transactionProperties.getLockMode() == TransactionProperties.LockMode.PESSIMISTIC
+                ? accountRepository.findByAccountNumberForUpdate(accountNumber)
+                : accountRepository.findByAccountNumber(accountNumber);
+        return account.orElseThrow(() -> new IllegalArgumentException("Account not found"));
     }
 
     private void requireOwner(User user, Account account) {
@@ -125,6 +216,12 @@ public class AccountService {
         }
     }
 
+    private void requirePositive(BigDecimal amount) {
+        if (amount == null || amount.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new IllegalArgumentException("Amount must be positive");
+        }
+    }
+
     private void requireActive(Account account) {
         if (!account.isActive()) {
             throw new IllegalArgumentException("Account is inactive");
@@ -138,4 +235,7 @@ public class AccountService {
         } while (accountRepository.existsByAccountNumber(acc));
         return acc;
     }
+
+    private record Posting(Account account, BigDecimal balance, LedgerLeg leg) {
+    }
 }
@@ -1,14 +1,90 @@
 package com.novabank.core.service;
 
+import com.novabank.core.config.AuditProperties;
 import com.novabank.core.model.AuditLog;
 import com.novabank.core.repository.AuditLogRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Writes audit entries. By default each entry is saved right away, in the caller's transaction. With
+ * {@code app.audit.write-behind.enabled} entries are queued once the caller's transaction commits and a
+ * background flusher saves them in batches; when the queue is full the caller saves its entry itself, and
+ * whatever is still queued at shutdown is flushed before the application stops.
+ */
 @Service
 @RequiredArgsConstructor
 public class AuditService {
+    private static final Logger log = LoggerFactory.getLogger(AuditService.class);
+
     private final AuditLogRepository auditLogRepository;
+    private final AuditProperties auditProperties;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    // Lock-free queue bounded by the separate size counter.
+    private final Queue<AuditLog> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private ScheduledExecutorService flusher;
+    // Batches may be written from an afterCommit callback, where the caller's transaction is finished but still bound.
+    private TransactionTemplate ownTransaction;
+    private Timer flushTimer;
+    private Counter synchronousWrites;
+
+    @PostConstruct
+    void start() {
+        AuditProperties.WriteBehind config = auditProperties.getWriteBehind();
+        if (!config.isEnabled()) {
+            return;
+        }
+        ownTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        ownTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        flushTimer = meterRegistry.timer("novabank.audit.flush");
+        synchronousWrites = meterRegistry.counter("novabank.audit.queue_full");
+        meterRegistry.gauge("novabank.audit.queue_depth", queued);
+        flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "audit-flusher");
+            t.setDaemon(true);
+            return t;
+        });
+        long interval = Math.max(1, config.getFlushIntervalMs());
+        flusher.scheduleWithFixedDelay(this::flushQuietly, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (flusher == null) {
+            return;
+        }
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flushQuietly();
+    }
 
     public void log(String actor, String action, String accountNumber, String reference, String details) {
         AuditLog log = new AuditLog();
@@ -17,6 +93,92 @@ public class AuditService {
         log.setAccountNumber(accountNumber);
         log.setReference(reference);
         log.setDetails(details);
-        auditLogRepository.save(log);
+        if (flusher == null) {
+            auditLogRepository.save(log);
+            return;
+        }
+        // Keep the time the action happened, not the time the batch was written.
+        log.setCreatedAt(Instant.now());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(log);
+                }
+            });
+        } else {
+            enqueue(log);
+        }
+    }
+
+    /** Saves everything queued so far and returns the number of entries written. */
+    public int flush() {
+        int batchSize = Math.max(1, auditProperties.getWriteBehind().getBatchSize());
+        int written = 0;
+        List<AuditLog> batch = new ArrayList<>(batchSize);
+        AuditLog next;
+        while ((next = queue.poll()) != null) {
+            queued.decrementAndGet();
+            batch.add(next);
+            if (batch.size() == batchSize) {
+                written += persist(batch);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            written += persist(batch);
+        }
+        return written;
+    }
+
+    private void enqueue(AuditLog entry) {
+        if (queued.incrementAndGet() > Math.max(1, auditProperties.getWriteBehind().getQueueCapacity())) {
+            queued.decrementAndGet();
+            synchronousWrites.increment();
+            persist(List.of(entry));
+            return;
+        }
+        queue.offer(entry);
+    }
+
+    private int persist(List<AuditLog> batch) {
+        try {
+            flushTimer.record(() -> ownTransaction.executeWithoutResult(status -> auditLogRepository.saveAll(batch)));
+            return batch.size();
+        } catch (RuntimeException ex) {
+            // Do not let one bad entry take the rest of the batch with it.
+            log.warn("Audit batch of {} failed, writing entries one by one: {}", batch.size(), ex.getMessage());
+            int written = 0;
+            for (AuditLog entry : batch) {
+                try {
+                    // A copy, since the failed batch may have left ids on the originals.
+                    AuditLog copy = copyOf(entry);
+                    ownTransaction.executeWithoutResult(status -> auditLogRepository.save(copy));
+                    written++;
+                } catch (RuntimeException single) {
+                    log.error("Audit entry {} for {} was lost: {}", entry.getAction(), entry.getActor(), single.getMessage());
+                }
+            }
+            return written;
+        }
+    }
+
+    private static AuditLog copyOf(AuditLog entry) {
+        AuditLog copy = new AuditLog();
+        copy.setActor(entry.getActor());
+        copy.setAction(entry.getAction());
+        copy.setAccountNumber(entry.getAccountNumber());
+        copy.setReference(entry.getReference());
+        copy.setDetails(entry.getDetails());
+        copy.setCreatedAt(entry.getCreatedAt());
+        return copy;
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException ex) {
+            log.error("Audit flush failed: {}", ex.getMessage());
+        }
     }
 }
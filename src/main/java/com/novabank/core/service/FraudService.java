@@ -14,8 +14,12 @@ public class FraudService {
 
     private static final BigDecimal LARGE_TX_THRESHOLD = new BigDecimal("10000.00");
 
+    public boolean isLargeTransaction(BigDecimal amount) {
+        return amount.compareTo(LARGE_TX_THRESHOLD) >= 0;
+    }
+
     public boolean checkAndLogLargeTransaction(String username, String accountNumber, BigDecimal amount, String eventType) {
-        if (amount.compareTo(LARGE_TX_THRESHOLD) >= 0) {
+        if (isLargeTransaction(amount)) {
             FraudLog log = new FraudLog();
             log.setEventType(eventType);
             log.setUsername(username);
@@ -0,0 +1,323 @@
+package com.novabank.core.service;
+
+import com.novabank.core.config.TransactionProperties;
+import com.novabank.core.dto.account.HoldRequest;
+import com.novabank.core.dto.account.HoldResponse;
+import com.novabank.core.event.FundsPosted;
+import com.novabank.core.event.HoldChanged;
+import com.novabank.core.event.TransferCompleted;
+import com.novabank.core.model.Account;
+import com.novabank.core.model.AccountHold;
+import com.novabank.core.model.TransactionRecord;
+import com.novabank.core.model.User;
+import com.novabank.core.repository.AccountHoldRepository;
+import com.novabank.core.repository.AccountRepository;
+import com.novabank.core.repository.AccountSnapshot;
+import com.novabank.core.repository.TransactionRecordRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Authorization/capture on top of the accounts table. Placing a hold is one conditional UPDATE of
+ * {@code heldAmount}; the account row is locked only for that statement. Capture and release later settle the
+ * hold with the same kind of statements, and a background task releases holds that outlive their expiry.
+ *
+ * <p>Each settlement first moves the hold out of ACTIVE with a conditional UPDATE, so a hold is captured,
+ * released or expired exactly once.
+ */
+@Service
+@RequiredArgsConstructor
+public class HoldService {
+    private static final Logger log = LoggerFactory.getLogger(HoldService.class);
+
+    private final AccountRepository accountRepository;
+    private final AccountHoldRepository holdRepository;
+    private final TransactionRecordRepository txRepository;
+    private final HotAccountService hotAccountService;
+    private final LedgerService ledgerService;
+    private final LedgerEngine ledgerEngine;
+    private final TransactionProperties transactionProperties;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private ScheduledExecutorService expirer;
+
+    @PostConstruct
+    void start() {
+        long interval = Math.max(1, transactionProperties.getHolds().getExpiryIntervalMs());
+        expirer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "hold-expiry");
+            t.setDaemon(true);
+            return t;
+        });
+        expirer.scheduleWithFixedDelay(this::expireQuietly, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        expirer.shutdownNow();
+    }
+
+    @Transactional
+    public HoldResponse placeHold(User user, String accountNumber, HoldRequest request) {
+        requireHoldsAvailable();
+        BigDecimal amount = request.getAmount();
+        if (amount == null || amount.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new IllegalArgumentException("Amount must be positive");
+        }
+        String toAccount = request.getToAccount() == null || request.getToAccount().isBlank() ? null : request.getToAccount();
+        if (accountNumber.equals(toAccount)) {
+            throw new IllegalArgumentException("Cannot transfer to the same account");
+        }
+        if (toAccount != null && !accountRepository.existsByAccountNumber(toAccount)) {
+            throw new IllegalArgumentException("To account not found");
+        }
+        TransactionProperties.Holds config = transactionProperties.getHolds();
+        long ttl = request.getExpiresInSeconds() == null ? config.getDefaultTtlSeconds() : request.getExpiresInSeconds();
+        if (ttl < 1 || ttl > config.getMaxTtlSeconds()) {
+            throw new IllegalArgumentException("Expiry must be between 1 and " + config.getMaxTtlSeconds() + " seconds");
+        }
+
+        Instant now = Instant.now();
+        if (!reserve(user, accountNumber, amount, now)) {
+            throw rejectHold(user, accountNumber, amount);
+        }
+        AccountHold hold = new AccountHold();
+        hold.setAccount(accountRepository.getReferenceById(
+                accountRepository.findSnapshotByAccountNumber(accountNumber).orElseThrow().getId()));
+        hold.setAccountNumber(accountNumber);
+        hold.setToAccountNumber(toAccount);
+        hold.setAmount(amount);
+        hold.setExpiresAt(now.plusSeconds(ttl));
+        hold.setNote(request.getNote());
+        holdRepository.save(hold);
+
+        eventPublisher.publishEvent(new HoldChanged(user.getUsername(), accountNumber, hold.getReference(),
+                AccountHold.Status.ACTIVE, amount, null));
+        return HoldResponse.of(hold);
+    }
+
+    @Transactional
+    public HoldResponse capture(User user, String accountNumber, String reference, BigDecimal amount) {
+        requireHoldsAvailable();
+        AccountHold hold = loadHold(user, accountNumber, reference);
+        BigDecimal captured = amount == null ? hold.getAmount() : amount;
+        if (captured.compareTo(BigDecimal.ZERO) <= 0 || captured.compareTo(hold.getAmount()) > 0) {
+            throw new IllegalArgumentException("Capture amount must be positive and at most " + hold.getAmount());
+        }
+        Instant now = Instant.now();
+        if (!hold.getExpiresAt().isAfter(now)) {
+            throw new IllegalArgumentException("Hold has expired");
+        }
+        finish(hold, AccountHold.Status.CAPTURED, now);
+
+        // Same global order as transfers: the lower account number is updated (and row-locked) first.
+        String toNumber = hold.getToAccountNumber();
+        LedgerLeg toBucket = null;
+        if (toNumber == null || accountNumber.compareTo(toNumber) < 0) {
+            debitHeld(hold, captured, now);
+            if (toNumber != null) {
+                toBucket = credit(toNumber, captured, now);
+            }
+        } else {
+            toBucket = credit(toNumber, captured, now);
+            debitHeld(hold, captured, now);
+        }
+
+        List<String> numbers = toNumber == null ? List.of(accountNumber) : List.of(accountNumber, toNumber);
+        Map<String, AccountSnapshot> snapshots = accountRepository.findSnapshotsByAccountNumberIn(numbers).stream()
+                .collect(Collectors.toMap(AccountSnapshot::getAccountNumber, a -> a));
+        AccountSnapshot from = snapshots.get(accountNumber);
+        LedgerLeg fromLeg = new LedgerLeg(accountNumber, 0, from.getLedgerSequence(), from.getBalance());
+
+        TransactionRecord tx = new TransactionRecord();
+        tx.setType(toNumber == null ? TransactionRecord.Type.WITHDRAWAL : TransactionRecord.Type.TRANSFER);
+        tx.setFromAccount(accountRepository.getReferenceById(from.getId()));
+        tx.setAmount(captured);
+        tx.setNote(hold.getNote());
+        if (toNumber == null) {
+            txRepository.save(tx);
+            ledgerService.postWithdrawal(tx.getReference(), fromLeg, captured, tx.getOccurredAt());
+        } else {
+            AccountSnapshot to = snapshots.get(toNumber);
+            tx.setToAccount(accountRepository.getReferenceById(to.getId()));
+            txRepository.save(tx);
+            LedgerLeg toLeg = toBucket != null ? toBucket : new LedgerLeg(toNumber, 0, to.getLedgerSequence(), to.getBalance());
+            ledgerService.postTransfer(tx.getReference(), fromLeg, toLeg, captured, tx.getOccurredAt());
+        }
+        hold.setCapturedAmount(captured);
+        hold.setTransactionReference(tx.getReference());
+
+        eventPublisher.publishEvent(new HoldChanged(user.getUsername(), accountNumber, reference,
+                AccountHold.Status.CAPTURED, captured, tx.getReference()));
+        eventPublisher.publishEvent(toNumber == null
+                ? new FundsPosted(user.getUsername(), TransactionRecord.Type.WITHDRAWAL, accountNumber, captured, tx.getReference())
+                : new TransferCompleted(user.getUsername(), accountNumber, toNumber, captured, tx.getReference(), hold.getNote()));
+        return HoldResponse.of(hold);
+    }
+
+    @Transactional
+    public HoldResponse release(User user, String accountNumber, String reference) {
+        requireHoldsAvailable();
+        AccountHold hold = loadHold(user, accountNumber, reference);
+        Instant now = Instant.now();
+        finish(hold, AccountHold.Status.RELEASED, now);
+        releaseHeld(hold, now);
+        eventPublisher.publishEvent(new HoldChanged(user.getUsername(), accountNumber, reference,
+                AccountHold.Status.RELEASED, hold.getAmount(), null));
+        return HoldResponse.of(hold);
+    }
+
+    @Transactional
+    public List<HoldResponse> listActiveHolds(User user, String accountNumber) {
+        Account account = accountRepository.findByAccountNumber(accountNumber)
+                .orElseThrow(() -> new IllegalArgumentException("Account not found"));
+        requireOwner(user, account);
+        return holdRepository.findByAccountNumberAndStatusOrderByExpiresAt(accountNumber, AccountHold.Status.ACTIVE).stream()
+                .map(HoldResponse::of)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Releases up to one batch of holds past their expiry, each in its own short transaction. Does nothing while
+     * the ledger engine is enabled, since releasing would change heldAmount behind the engine's in-memory balances.
+     */
+    public int expireDueHolds() {
+        if (ledgerEngine.isEnabled()) {
+            log.debug("Skipping hold expiry while the ledger engine is enabled");
+            return 0;
+        }
+        int batchSize = Math.max(1, transactionProperties.getHolds().getExpiryBatchSize());
+        int expired = 0;
+        for (Long id : holdRepository.findExpiredIds(Instant.now(), PageRequest.of(0, batchSize))) {
+            try {
+                if (Boolean.TRUE.equals(transactionTemplate.execute(status -> expire(id)))) {
+                    expired++;
+                }
+            } catch (ConcurrencyFailureException ex) {
+                // Rolled back and left ACTIVE; the other due holds still expire.
+                log.error("Could not expire hold {}: {}", id, ex.getMessage());
+            }
+        }
+        return expired;
+    }
+
+    private boolean expire(Long id) {
+        AccountHold hold = holdRepository.findById(id).orElse(null);
+        Instant now = Instant.now();
+        if (hold == null || holdRepository.finish(id, AccountHold.Status.EXPIRED, now) == 0) {
+            return false;
+        }
+        releaseHeld(hold, now);
+        eventPublisher.publishEvent(new HoldChanged("system", hold.getAccountNumber(), hold.getReference(),
+                AccountHold.Status.EXPIRED, hold.getAmount(), null));
+        return true;
+    }
+
+    private void expireQuietly() {
+        try {
+            int expired = expireDueHolds();
+            if (expired > 0) {
+                log.info("Expired {} holds", expired);
+            }
+        } catch (RuntimeException ex) {
+            log.error("Hold expiry failed: {}", ex.getMessage());
+        }
+    }
+
+    // A hot account may hold the funds in its buckets; sweep them into the row and try once more.
+    private boolean reserve(User user, String accountNumber, BigDecimal amount, Instant now) {
+        if (accountRepository.hold(accountNumber, user.getId(), amount, now) == 1) {
+            return true;
+        }
+        return hotAccountService.isHot(accountNumber)
+                && hotAccountService.sweep(accountNumber)
+                && accountRepository.hold(accountNumber, user.getId(), amount, now) == 1;
+    }
+
+    // Held funds are always covered by the balance, so only a freeze can make this fail.
+    private void debitHeld(AccountHold hold, BigDecimal amount, Instant now) {
+        if (accountRepository.captureHold(hold.getAccountNumber(), hold.getAmount(), amount, now) == 0) {
+            throw new IllegalArgumentException("Source account is inactive");
+        }
+    }
+
+    // Every active hold is counted in heldAmount, so a miss means the two have drifted apart.
+    private void releaseHeld(AccountHold hold, Instant now) {
+        if (accountRepository.releaseHold(hold.getAccountNumber(), hold.getAmount(), now) != 1) {
+            throw new ConcurrencyFailureException("Held amount of account " + hold.getAccountNumber()
+                    + " does not cover hold " + hold.getReference());
+        }
+    }
+
+    private LedgerLeg credit(String accountNumber, BigDecimal amount, Instant now) {
+        LedgerLeg bucket = hotAccountService.credit(accountNumber, amount, now);
+        if (bucket == null && accountRepository.credit(accountNumber, amount, now) == 0) {
+            throw new IllegalArgumentException(accountRepository.existsByAccountNumber(accountNumber)
+                    ? "Destination account is inactive"
+                    : "To account not found");
+        }
+        return bucket;
+    }
+
+    private void finish(AccountHold hold, AccountHold.Status status, Instant now) {
+        if (holdRepository.finish(hold.getId(), status, now) == 0) {
+            throw new IllegalArgumentException("Hold is no longer active");
+        }
+        // Keep the managed entity in step, or its next flush would write the old status back.
+        hold.setStatus(status);
+    }
+
+    private AccountHold loadHold(User user, String accountNumber, String reference) {
+        AccountHold hold = holdRepository.findByReference(reference)
+                .filter(h -> h.getAccountNumber().equals(accountNumber))
+                .orElseThrow(() -> new IllegalArgumentException("Hold not found"));
+        requireOwner(user, hold.getAccount());
+        return hold;
+    }
+
+    // The conditional UPDATE matched no row; load the account only now to report why.
+    private RuntimeException rejectHold(User user, String accountNumber, BigDecimal amount) {
+        Account account = accountRepository.findByAccountNumber(accountNumber)
+                .orElseThrow(() -> new IllegalArgumentException("Account not found"));
+        requireOwner(user, account);
+        if (!account.isActive()) {
+            return new IllegalArgumentException("Account is inactive");
+        }
+        if (account.getBalance().subtract(account.getHeldAmount()).compareTo(amount) < 0) {
+            return new IllegalArgumentException("Insufficient funds");
+        }
+        return new ConcurrencyFailureException("Account state changed during hold");
+    }
+
+    // The engine keeps balances in memory and does not see heldAmount changes.
+    private void requireHoldsAvailable() {
+        if (ledgerEngine.isEnabled()) {
+            throw new IllegalArgumentException("Holds are not available while the ledger engine is enabled");
+        }
+    }
+
+    private void requireOwner(User user, Account account) {
+        if (!account.getUser().getId().equals(user.getId())) {
+            throw new SecurityException("Forbidden: not your account");
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.novabank.core.service;
+
+import com.novabank.core.config.TransactionProperties;
+import com.novabank.core.dto.account.AccountResponse;
+import com.novabank.core.model.Account;
+import com.novabank.core.model.AccountBalanceBucket;
+import com.novabank.core.model.TransactionRecord;
+import com.novabank.core.model.User;
+import com.novabank.core.repository.AccountBalanceBucketRepository;
+import com.novabank.core.repository.AccountRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+/**
+ * Hot accounts spread their balance over {@link AccountBalanceBucket} rows. Credits go to a random bucket,
+ * debits first sweep the buckets back into the account row, and reads report the row plus all buckets.
+ */
+@Service
+@RequiredArgsConstructor
+public class HotAccountService {
+    private final AccountRepository accountRepository;
+    private final AccountBalanceBucketRepository bucketRepository;
+    private final AuditService auditService;
+    private final LedgerService ledgerService;
+    private final TransactionProperties transactionProperties;
+
+    // Account number -> bucket count. Only a routing hint for credits, which re-read the count under a lock on
+    // the account row; a stale entry costs one read. Totals and sweeps read the account itself.
+    private final Map<String, Integer> hotAccounts = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void loadHotAccounts() {
+        accountRepository.findByBalanceBucketsGreaterThan(0)
+                .forEach(a -> hotAccounts.put(a.getAccountNumber(), a.getBalanceBuckets()));
+    }
+
+    /**
+     * Credits a random bucket of a hot, active account and returns the bucket's ledger position, or null when
+     * the account row should be credited instead.
+     */
+    LedgerLeg credit(String accountNumber, BigDecimal amount, Instant now) {
+        Integer bucket = lockBucket(accountNumber);
+        if (bucket == null) {
+            return null;
+        }
+        return bucketRepository.credit(accountNumber, bucket, amount, now) == 1 ? bucketLeg(accountNumber, bucket) : null;
+    }
+
+    /** Like {@link #credit}, additionally requiring the account to belong to {@code ownerId}. */
+    LedgerLeg creditOwned(String accountNumber, Long ownerId, BigDecimal amount, Instant now) {
+        Integer bucket = lockBucket(accountNumber);
+        if (bucket == null) {
+            return null;
+        }
+        return bucketRepository.creditOwned(accountNumber, bucket, ownerId, amount, now) == 1 ? bucketLeg(accountNumber, bucket) : null;
+    }
+
+    /*
+     * Share-locks the account row and picks a bucket from its current bucket count. Without the row lock a
+     * credit that waited on a bucket row held by updateHotMode could still land there after the sweep, where
+     * no balance read or sweep would find it. The shared lock keeps credits concurrent with each other and
+     * orders them with resizes and sweeps.
+     */
+    private Integer lockBucket(String accountNumber) {
+        if (!hotAccounts.containsKey(accountNumber)) {
+            return null;
+        }
+        Account account = accountRepository.findByAccountNumberForShare(accountNumber).orElse(null);
+        if (account == null) {
+            return null;
+        }
+        if (account.getBalanceBuckets() == 0) {
+            // Gone cold since the hint was taken. Crediting the row now would upgrade the shared lock, which
+            // deadlocks against other credits holding it too, so drop the hint and let the caller start over.
+            hotAccounts.remove(accountNumber);
+            throw new OptimisticLockingFailureException("Account " + accountNumber + " is no longer hot");
+        }
+        return ThreadLocalRandom.current().nextInt(account.getBalanceBuckets());
+    }
+
+    // Read back inside the crediting transaction, which still holds the bucket row.
+    private LedgerLeg bucketLeg(String accountNumber, int bucket) {
+        var snapshot = bucketRepository.findSnapshotByAccountNumberAndBucketIndex(accountNumber, bucket).orElseThrow();
+        return new LedgerLeg(accountNumber, bucket + 1, snapshot.getLedgerSequence(), snapshot.getBalance());
+    }
+
+    /**
+     * Locks the account row and then its buckets, and moves the buckets into the row. Used by the atomic paths
+     * after a conditional debit failed; returns whether any money was moved, i.e. whether a retry can succeed.
+     * The row is flushed so subsequent bulk statements see it.
+     */
+    public boolean sweep(String accountNumber) {
+        Account account = accountRepository.findByAccountNumberForUpdate(accountNumber).orElse(null);
+        if (account == null || account.getBalanceBuckets() == 0) {
+            return false;
+        }
+        BigDecimal moved = sweep(account);
+        accountRepository.flush();
+        return moved.signum() != 0;
+    }
+
+    /**
+     * Moves the buckets of an already loaded (and, outside OPTIMISTIC mode, locked) account into its balance.
+     * Callers invoke this right after loading the account, so its buckets are locked in the same position of
+     * the account-number order as the row itself.
+     */
+    public BigDecimal sweep(Account account) {
+        if (account.getBalanceBuckets() == 0) {
+            return BigDecimal.ZERO;
+        }
+        return collect(account, bucketRepository.findByAccountNumberForUpdate(account.getAccountNumber()));
+    }
+
+    public boolean isHot(String accountNumber) {
+        return hotAccounts.containsKey(accountNumber);
+    }
+
+    public BigDecimal totalBalance(Account account) {
+        return totalBalance(account.getAccountNumber(), account.getBalance(), account.getBalanceBuckets());
+    }
+
+    public BigDecimal totalBalance(String accountNumber, BigDecimal balance, int balanceBuckets) {
+        return balanceBuckets == 0 ? balance : balance.add(bucketRepository.sumBalance(accountNumber));
+    }
+
+    /** Total balance per account number, with one query for the buckets of all hot accounts in the list. */
+    public Map<String, BigDecimal> totalBalances(Collection<Account> accounts) {
+        List<String> hot = accounts.stream()
+                .filter(a -> a.getBalanceBuckets() > 0)
+                .map(Account::getAccountNumber)
+                .toList();
+        Map<String, BigDecimal> bucketTotals = hot.isEmpty() ? Map.of() : bucketRepository.sumBalances(hot).stream()
+                .collect(Collectors.toMap(
+                        AccountBalanceBucketRepository.BucketTotal::getAccountNumber,
+                        AccountBalanceBucketRepository.BucketTotal::getTotal));
+        return accounts.stream().collect(Collectors.toMap(
+                Account::getAccountNumber,
+                a -> a.getBalance().add(bucketTotals.getOrDefault(a.getAccountNumber(), BigDecimal.ZERO))));
+    }
+
+    /**
+     * Marks an account hot with {@code buckets} sub-balances, or cold. Either way the existing buckets are
+     * swept into the account row first, so resizing also rebalances; the account stays usable throughout.
+     */
+    @Transactional
+    @RetryOnOptimisticLock
+    public AccountResponse updateHotMode(User actor, String accountNumber, boolean hot, Integer buckets) {
+        TransactionProperties.HotAccounts config = transactionProperties.getHotAccounts();
+        int target = hot ? (buckets == null ? config.getDefaultBuckets() : buckets) : 0;
+        if (hot && (target < 2 || target > config.getMaxBuckets())) {
+            throw new IllegalArgumentException("Buckets must be between 2 and " + config.getMaxBuckets());
+        }
+        Account account = accountRepository.findByAccountNumberForUpdate(accountNumber)
+                .orElseThrow(() -> new IllegalArgumentException("Account not found"));
+        List<AccountBalanceBucket> existing = bucketRepository.findByAccountNumberForUpdate(accountNumber);
+        collect(account, existing);
+
+        // Surplus buckets are kept (empty) rather than deleted, so their ledger sequences never restart.
+        for (int i = existing.size(); i < target; i++) {
+            AccountBalanceBucket bucket = new AccountBalanceBucket();
+            bucket.setAccount(account);
+            bucket.setAccountNumber(accountNumber);
+            bucket.setBucketIndex(i);
+            bucketRepository.save(bucket);
+        }
+        account.setBalanceBuckets(target);
+        accountRepository.save(account);
+
+        if (target > 0) {
+            hotAccounts.put(accountNumber, target);
+        } else {
+            hotAccounts.remove(accountNumber);
+        }
+        auditService.log(actor.getUsername(), hot ? "ACCOUNT_HOT" : "ACCOUNT_COLD", accountNumber, null,
+                hot ? "Account balance split across " + target + " buckets" : "Account balance buckets merged");
+        return new AccountResponse(accountNumber, account.getBalance(), account.isActive());
+    }
+
+    // Each non-empty bucket moves into the row as its own bucket -> row posting.
+    private BigDecimal collect(Account account, List<AccountBalanceBucket> buckets) {
+        String reference = TransactionRecord.newReference();
+        Instant now = Instant.now();
+        BigDecimal moved = BigDecimal.ZERO;
+        for (AccountBalanceBucket bucket : buckets) {
+            BigDecimal amount = bucket.getBalance();
+            if (amount.signum() != 0) {
+                bucket.setBalance(BigDecimal.ZERO);
+                account.setBalance(account.getBalance().add(amount));
+                ledgerService.postTransfer(reference, ledgerService.advance(bucket), ledgerService.advance(account), amount, now);
+                moved = moved.add(amount);
+            }
+        }
+        return moved;
+    }
+}
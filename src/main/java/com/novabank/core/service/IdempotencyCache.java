@@ -0,0 +1,78 @@
+package com.novabank.core.service;
+
+import com.novabank.core.config.TransactionProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Recently seen transfer idempotency keys, so a client retrying a keyed transfer gets its reference back
+ * without a database round trip. Bounded to {@code cache-max-entries} keys, least recently used first out,
+ * and each entry lives for {@code cache-ttl-seconds}, never past the record's own {@code expiresAt}, so an expired
+ * key is never replayed from here. Only committed records are ever put here; a miss just means the caller has to
+ * ask {@code transfer_idempotency_records}.
+ */
+final class IdempotencyCache {
+
+    record Entry(String requestHash, String reference, long expiresAtNanos) {
+    }
+
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final Map<String, Entry> entries;
+    private final Counter hits;
+    private final Counter misses;
+
+    IdempotencyCache(TransactionProperties.Idempotency config, MeterRegistry meterRegistry) {
+        this.maxEntries = Math.max(1, config.getCacheMaxEntries());
+        this.ttlNanos = Math.max(0, config.getCacheTtlSeconds()) * 1_000_000_000L;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+        this.hits = meterRegistry.counter("novabank.idempotency.cache", "result", "hit");
+        this.misses = meterRegistry.counter("novabank.idempotency.cache", "result", "miss");
+        meterRegistry.gauge("novabank.idempotency.cache.size", this, IdempotencyCache::size);
+    }
+
+    Entry get(String actor, String key) {
+        String id = id(actor, key);
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(id);
+            if (entry != null && entry.expiresAtNanos() - System.nanoTime() <= 0) {
+                entries.remove(id);
+                entry = null;
+            }
+        }
+        (entry == null ? misses : hits).increment();
+        return entry;
+    }
+
+    void put(String actor, String key, String requestHash, String reference, Instant recordExpiresAt) {
+        long remainingNanos = Math.min(ttlNanos, Duration.between(Instant.now(), recordExpiresAt).toNanos());
+        if (remainingNanos <= 0) {
+            return;
+        }
+        Entry entry = new Entry(requestHash, reference, System.nanoTime() + remainingNanos);
+        synchronized (entries) {
+            entries.put(id(actor, key), entry);
+        }
+    }
+
+    private double size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private static String id(String actor, String key) {
+        return actor + '\n' + key;
+    }
+}
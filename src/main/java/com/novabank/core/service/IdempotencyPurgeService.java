@@ -0,0 +1,80 @@
+package com.novabank.core.service;
+
+import com.novabank.core.config.TransactionProperties;
+import com.novabank.core.repository.TransferIdempotencyRecordRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deletes transfer idempotency records past their {@code retention-seconds}, so the key lookup keeps working
+ * on a table of bounded size. Rows go in chunks of {@code purge-batch-size}, each chunk its own short
+ * transaction, so the purge never holds locks on a large part of the table.
+ */
+@Service
+@RequiredArgsConstructor
+public class IdempotencyPurgeService {
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyPurgeService.class);
+
+    private final TransferIdempotencyRecordRepository transferIdempotencyRecordRepository;
+    private final TransactionProperties transactionProperties;
+    private final TransactionTemplate transactionTemplate;
+
+    private ScheduledExecutorService purger;
+
+    @PostConstruct
+    void start() {
+        long interval = Math.max(1, transactionProperties.getIdempotency().getPurgeIntervalMs());
+        purger = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "idempotency-purge");
+            t.setDaemon(true);
+            return t;
+        });
+        purger.scheduleWithFixedDelay(this::purgeQuietly, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        purger.shutdownNow();
+    }
+
+    /** Deletes every record that has expired by now, one chunk at a time, and returns how many went. */
+    public int purgeExpiredRecords() {
+        int batchSize = Math.max(1, transactionProperties.getIdempotency().getPurgeBatchSize());
+        Instant now = Instant.now();
+        int purged = 0;
+        while (true) {
+            List<Long> ids = transferIdempotencyRecordRepository.findExpiredIds(now, PageRequest.of(0, batchSize));
+            if (ids.isEmpty()) {
+                return purged;
+            }
+            Integer deleted = transactionTemplate.execute(status -> transferIdempotencyRecordRepository.deleteExpired(ids, now));
+            purged += deleted == null ? 0 : deleted;
+            if (ids.size() < batchSize) {
+                return purged;
+            }
+        }
+    }
+
+    private void purgeQuietly() {
+        try {
+            int purged = purgeExpiredRecords();
+            if (purged > 0) {
+                log.info("Purged {} expired idempotency records", purged);
+            }
+        } catch (RuntimeException ex) {
+            log.error("Idempotency record purge failed: {}", ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,445 @@
+package com.novabank.core.service;
+
+import com.novabank.core.config.TransactionProperties;
+import com.novabank.core.dto.transaction.TransferRequest;
+import com.novabank.core.exception.TooManyRequestsException;
+import com.novabank.core.model.LedgerDeadLetter;
+import com.novabank.core.model.TransactionRecord;
+import com.novabank.core.model.User;
+import com.novabank.core.repository.AccountRepository;
+import com.novabank.core.repository.LedgerDeadLetterRepository;
+import com.novabank.core.repository.TransactionRecordRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Optional in-memory ledger (app.transactions.engine.enabled). Accounts are partitioned by hash of their number
+ * across single-threaded {@link LedgerShard}s that own the authoritative balance and ledger sequence. Every
+ * applied operation is queued with its ledger legs and transaction record, and a background flusher persists
+ * those in batches, coalescing all changes to an account into one UPDATE per batch.
+ *
+ * <p>Durability is asynchronous: operations acknowledged but not yet flushed are lost on a crash. The queue
+ * holds at most {@code max-pending-postings}; beyond that new operations are refused with 429 until the flusher
+ * catches up. A batch that fails is retried posting by posting, and a posting that still fails after
+ * {@code flush-attempts} goes to {@code ledger_dead_letters} instead of holding up everything behind it.
+ */
+@Service
+@RequiredArgsConstructor
+public class LedgerEngine {
+    private static final Logger log = LoggerFactory.getLogger(LedgerEngine.class);
+
+    private final TransactionProperties transactionProperties;
+    private final AccountRepository accountRepository;
+    private final TransactionRecordRepository txRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final HotAccountService hotAccountService;
+    private final LedgerService ledgerService;
+    private final LedgerDeadLetterRepository deadLetterRepository;
+
+    private final Map<String, BigDecimal> published = new ConcurrentHashMap<>();
+    private BlockingQueue<Posting> pendingPostings;
+    // Postings taken off the queue that could be neither persisted nor dead-lettered. Written only by the
+    // flusher and retried before it drains anything new, so they need no room in the bounded queue.
+    private final Deque<Posting> unflushed = new ConcurrentLinkedDeque<>();
+    private LedgerShard[] shards;
+    private ScheduledExecutorService flusher;
+    private Timer flushTimer;
+    private Counter rejected;
+    private Counter deadLetters;
+
+    public record Receipt(String reference, BigDecimal balance) {
+    }
+
+    private record Posting(String reference, TransactionRecord.Type type, Long fromAccountId, Long toAccountId,
+                           BigDecimal amount, String note, Instant occurredAt, LedgerLeg fromLeg, LedgerLeg toLeg) {
+    }
+
+    private record Credit(Long accountId, LedgerLeg leg) {
+    }
+
+    @PostConstruct
+    void start() {
+        TransactionProperties.Engine config = transactionProperties.getEngine();
+        if (!config.isEnabled()) {
+            return;
+        }
+        LedgerShard[] created = new LedgerShard[Math.max(1, config.getShards())];
+        for (int i = 0; i < created.length; i++) {
+            created[i] = new LedgerShard(i, this::loadEntry, published);
+        }
+        pendingPostings = new LinkedBlockingQueue<>(Math.max(1, config.getMaxPendingPostings()));
+        flushTimer = meterRegistry.timer("novabank.ledger.flush");
+        rejected = meterRegistry.counter("novabank.ledger.rejected");
+        deadLetters = meterRegistry.counter("novabank.ledger.dead_letters");
+        meterRegistry.gauge("novabank.ledger.pending_postings", List.of(), this, engine -> engine.pendingCount());
+        flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "ledger-flusher");
+            t.setDaemon(true);
+            return t;
+        });
+        long interval = Math.max(1, config.getFlushIntervalMs());
+        flusher.scheduleWithFixedDelay(this::flushPending, interval, interval, TimeUnit.MILLISECONDS);
+        shards = created;
+        log.info("Ledger engine started with {} shards", created.length);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (shards == null) {
+            return;
+        }
+        for (LedgerShard shard : shards) {
+            shard.shutdown();
+        }
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flushPending();
+        if (pendingCount() > 0) {
+            log.error("Ledger engine stopped with {} unflushed postings", pendingCount());
+        }
+    }
+
+    public boolean isEnabled() {
+        return shards != null;
+    }
+
+    public Optional<BigDecimal> balanceOf(String accountNumber) {
+        return Optional.ofNullable(published.get(accountNumber));
+    }
+
+    public Receipt deposit(User user, String accountNumber, BigDecimal amount, String note) {
+        admit();
+        LedgerShard shard = shardFor(accountNumber);
+        return shard.call(() -> {
+            LedgerShard.Entry account = shard.require(accountNumber, "Account not found");
+            requireOwner(user, account, "Forbidden: not your account");
+            requireActive(account, "Account is inactive");
+            account.balance = account.balance.add(amount);
+            shard.publish(account);
+            String reference = enqueue(TransactionRecord.newReference(), TransactionRecord.Type.DEPOSIT, null, account.id,
+                    amount, note, null, account.advance());
+            return new Receipt(reference, account.balance);
+        });
+    }
+
+    public Receipt withdraw(User user, String accountNumber, BigDecimal amount, String note) {
+        admit();
+        LedgerShard shard = shardFor(accountNumber);
+        return shard.call(() -> {
+            LedgerShard.Entry account = shard.require(accountNumber, "Account not found");
+            requireOwner(user, account, "Forbidden: not your account");
+            requireActive(account, "Account is inactive");
+            if (account.available().compareTo(amount) < 0) {
+                throw new IllegalArgumentException("Insufficient funds");
+            }
+            account.balance = account.balance.subtract(amount);
+            shard.publish(account);
+            String reference = enqueue(TransactionRecord.newReference(), TransactionRecord.Type.WITHDRAWAL, account.id, null,
+                    amount, note, account.advance(), null);
+            return new Receipt(reference, account.balance);
+        });
+    }
+
+    /**
+     * Moves money between two accounts, recording the transfer under the caller-supplied reference so the
+     * caller can claim it (e.g. for an idempotency key) before any balance changes.
+     */
+    public String transfer(User user, TransferRequest request, String reference) {
+        admit();
+        String fromNumber = request.getFromAccount();
+        String toNumber = request.getToAccount();
+        BigDecimal amount = request.getAmount();
+        LedgerShard source = shardFor(fromNumber);
+        LedgerShard target = shardFor(toNumber);
+
+        if (source == target) {
+            return source.call(() -> {
+                LedgerShard.Entry from = source.require(fromNumber, "From account not found");
+                LedgerShard.Entry to = source.require(toNumber, "To account not found");
+                reserve(user, from, amount);
+                if (!to.active) {
+                    from.reserved = from.reserved.subtract(amount);
+                    throw new IllegalArgumentException("Destination account is inactive");
+                }
+                from.reserved = from.reserved.subtract(amount);
+                from.balance = from.balance.subtract(amount);
+                to.balance = to.balance.add(amount);
+                source.publish(from);
+                source.publish(to);
+                return enqueue(reference, TransactionRecord.Type.TRANSFER, from.id, to.id, amount, request.getNote(),
+                        from.advance(), to.advance());
+            });
+        }
+
+        // Cross-shard: reserve on the source shard, credit on the destination shard, then settle or release.
+        Long fromId = source.call(() -> {
+            LedgerShard.Entry from = source.require(fromNumber, "From account not found");
+            reserve(user, from, amount);
+            return from.id;
+        });
+        Credit credit;
+        try {
+            credit = target.call(() -> {
+                LedgerShard.Entry to = target.require(toNumber, "To account not found");
+                requireActive(to, "Destination account is inactive");
+                to.balance = to.balance.add(amount);
+                target.publish(to);
+                return new Credit(to.id, to.advance());
+            });
+        } catch (RuntimeException ex) {
+            source.call(() -> {
+                LedgerShard.Entry from = source.cached(fromNumber);
+                from.reserved = from.reserved.subtract(amount);
+                return null;
+            });
+            throw ex;
+        }
+        return source.call(() -> {
+            LedgerShard.Entry from = source.cached(fromNumber);
+            from.reserved = from.reserved.subtract(amount);
+            from.balance = from.balance.subtract(amount);
+            source.publish(from);
+            return enqueue(reference, TransactionRecord.Type.TRANSFER, fromId, credit.accountId(), amount, request.getNote(),
+                    from.advance(), credit.leg());
+        });
+    }
+
+    public void updateActive(String accountNumber, boolean active) {
+        if (!isEnabled()) {
+            return;
+        }
+        LedgerShard shard = shardFor(accountNumber);
+        shard.call(() -> {
+            LedgerShard.Entry account = shard.cached(accountNumber);
+            if (account != null) {
+                account.active = active;
+            }
+            return null;
+        });
+    }
+
+    // Checked before anything is applied, since an applied posting can no longer be refused.
+    private void admit() {
+        if (pendingPostings.remainingCapacity() == 0) {
+            rejected.increment();
+            throw new TooManyRequestsException("Ledger is catching up on writes; retry shortly");
+        }
+    }
+
+    private void reserve(User user, LedgerShard.Entry from, BigDecimal amount) {
+        requireOwner(user, from, "Forbidden: not your source account");
+        requireActive(from, "Source account is inactive");
+        if (amount.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new IllegalArgumentException("Amount must be positive");
+        }
+        if (from.available().compareTo(amount) < 0) {
+            throw new IllegalArgumentException("Insufficient funds");
+        }
+        from.reserved = from.reserved.add(amount);
+    }
+
+    private void requireOwner(User user, LedgerShard.Entry account, String message) {
+        if (!account.ownerId.equals(user.getId())) {
+            throw new SecurityException(message);
+        }
+    }
+
+    private void requireActive(LedgerShard.Entry account, String message) {
+        if (!account.active) {
+            throw new IllegalArgumentException(message);
+        }
+    }
+
+    private LedgerShard shardFor(String accountNumber) {
+        return shards[Math.floorMod(accountNumber.hashCode(), shards.length)];
+    }
+
+    private LedgerShard.Entry loadEntry(String accountNumber) {
+        LedgerShard.Entry entry = transactionTemplate.execute(status -> {
+            // The engine posts against the account row only, so fold any hot-account buckets into it first.
+            if (hotAccountService.isHot(accountNumber)) {
+                hotAccountService.sweep(accountNumber);
+            }
+            return accountRepository.findByAccountNumber(accountNumber)
+                    .map(a -> {
+                        LedgerShard.Entry loaded = new LedgerShard.Entry(a.getId(), a.getAccountNumber(), a.getUser().getId(),
+                                a.isActive(), a.getBalance(), a.getLedgerSequence());
+                        // Holds placed before the engine started stay out of reach of its debits.
+                        loaded.reserved = a.getHeldAmount();
+                        return loaded;
+                    })
+                    .orElse(null);
+        });
+        if (entry != null) {
+            published.put(accountNumber, entry.balance);
+        }
+        return entry;
+    }
+
+    // Called on a shard thread, so postings for any one account are queued in the order they were applied.
+    // admit() keeps the queue below capacity; when shards race past it, the shard waits for the flusher, which
+    // also holds back its other callers. The posting is already applied, so it is never dropped.
+    private String enqueue(String reference, TransactionRecord.Type type, Long fromId, Long toId, BigDecimal amount,
+                           String note, LedgerLeg fromLeg, LedgerLeg toLeg) {
+        Posting posting = new Posting(reference, type, fromId, toId, amount, note, Instant.now(), fromLeg, toLeg);
+        boolean interrupted = false;
+        while (true) {
+            try {
+                pendingPostings.put(posting);
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        return reference;
+    }
+
+    private int pendingCount() {
+        return pendingPostings.size() + unflushed.size();
+    }
+
+    private void flushPending() {
+        int batchSize = Math.max(1, transactionProperties.getEngine().getFlushBatchSize());
+        try {
+            while (pendingCount() > 0) {
+                List<Posting> batch = new ArrayList<>(batchSize);
+                // Leftovers from a failed tick go first, so each account's postings still land in order.
+                while (batch.size() < batchSize && !unflushed.isEmpty()) {
+                    batch.add(unflushed.pollFirst());
+                }
+                if (batch.isEmpty()) {
+                    pendingPostings.drainTo(batch, batchSize);
+                }
+                try {
+                    flushTimer.record(() -> persist(batch));
+                } catch (RuntimeException ex) {
+                    log.warn("Ledger flush of {} postings failed, retrying one by one: {}", batch.size(), ex.getMessage());
+                    flushOneByOne(batch);
+                }
+            }
+        } catch (RuntimeException ex) {
+            log.error("Ledger flush failed, {} postings pending: {}", pendingCount(), ex.getMessage());
+        }
+    }
+
+    /*
+     * Persists each posting of a failed batch in its own transaction, so one bad posting cannot hold back the
+     * rest. A posting that fails flush-attempts times is dead-lettered. If even the dead letter cannot be written
+     * the database itself is failing: the remainder is kept, in order, for the next tick.
+     */
+    private void flushOneByOne(List<Posting> batch) {
+        int attempts = Math.max(1, transactionProperties.getEngine().getFlushAttempts());
+        for (int i = 0; i < batch.size(); i++) {
+            Posting posting = batch.get(i);
+            RuntimeException failure = null;
+            for (int attempt = 1; attempt <= attempts; attempt++) {
+                try {
+                    persist(List.of(posting));
+                    failure = null;
+                    break;
+                } catch (RuntimeException ex) {
+                    failure = ex;
+                }
+            }
+            if (failure == null) {
+                continue;
+            }
+            try {
+                deadLetter(posting, failure);
+            } catch (RuntimeException ex) {
+                for (int j = batch.size() - 1; j >= i; j--) {
+                    unflushed.addFirst(batch.get(j));
+                }
+                throw ex;
+            }
+        }
+    }
+
+    private void deadLetter(Posting posting, RuntimeException failure) {
+        LedgerDeadLetter row = new LedgerDeadLetter();
+        row.setReference(posting.reference());
+        row.setType(posting.type());
+        row.setFromAccount(posting.fromLeg() == null ? null : posting.fromLeg().accountNumber());
+        row.setToAccount(posting.toLeg() == null ? null : posting.toLeg().accountNumber());
+        row.setAmount(posting.amount());
+        row.setNote(posting.note());
+        row.setOccurredAt(posting.occurredAt());
+        String message = String.valueOf(failure.getMessage());
+        row.setError(message.length() > 1000 ? message.substring(0, 1000) : message);
+        transactionTemplate.executeWithoutResult(status -> deadLetterRepository.save(row));
+        deadLetters.increment();
+        log.error("Ledger posting {} ({} {}) dead-lettered after repeated flush failures; the accounts table no "
+                + "longer matches the engine: {}", posting.reference(), posting.type(), posting.amount(), message);
+    }
+
+    private void persist(List<Posting> batch) {
+        // Account-number order, like every other multi-account writer.
+        Map<String, BigDecimal> netDeltas = new TreeMap<>();
+        Map<String, Long> sequences = new HashMap<>();
+        for (Posting posting : batch) {
+            if (posting.fromLeg() != null) {
+                netDeltas.merge(posting.fromLeg().accountNumber(), posting.amount().negate(), BigDecimal::add);
+                sequences.merge(posting.fromLeg().accountNumber(), posting.fromLeg().sequence(), Math::max);
+            }
+            if (posting.toLeg() != null) {
+                netDeltas.merge(posting.toLeg().accountNumber(), posting.amount(), BigDecimal::add);
+                sequences.merge(posting.toLeg().accountNumber(), posting.toLeg().sequence(), Math::max);
+            }
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            Instant now = Instant.now();
+            netDeltas.forEach((account, delta) -> accountRepository.adjustBalance(account, delta, sequences.get(account), now));
+            List<TransactionRecord> records = new ArrayList<>(batch.size());
+            for (Posting posting : batch) {
+                TransactionRecord tx = new TransactionRecord();
+                tx.setReference(posting.reference());
+                tx.setType(posting.type());
+                tx.setFromAccount(posting.fromAccountId() == null ? null : accountRepository.getReferenceById(posting.fromAccountId()));
+                tx.setToAccount(posting.toAccountId() == null ? null : accountRepository.getReferenceById(posting.toAccountId()));
+                tx.setAmount(posting.amount());
+                tx.setNote(posting.note());
+                tx.setOccurredAt(posting.occurredAt());
+                records.add(tx);
+                switch (posting.type()) {
+                    case DEPOSIT -> ledgerService.postDeposit(posting.reference(), posting.toLeg(), posting.amount(), posting.occurredAt());
+                    case WITHDRAWAL -> ledgerService.postWithdrawal(posting.reference(), posting.fromLeg(), posting.amount(), posting.occurredAt());
+                    case TRANSFER -> ledgerService.postTransfer(posting.reference(), posting.fromLeg(), posting.toLeg(), posting.amount(), posting.occurredAt());
+                }
+            }
+            txRepository.saveAll(records);
+        });
+    }
+}
@@ -0,0 +1,7 @@
+package com.novabank.core.service;
+
+import java.math.BigDecimal;
+
+/** Position of one (sub-)ledger right after a posting: which ledger, its new sequence and its new balance. */
+record LedgerLeg(String accountNumber, int subLedger, long sequence, BigDecimal balanceAfter) {
+}
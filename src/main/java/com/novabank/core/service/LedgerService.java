@@ -0,0 +1,193 @@
+package com.novabank.core.service;
+
+import com.novabank.core.dto.admin.LedgerReconciliationResponse;
+import com.novabank.core.model.Account;
+import com.novabank.core.model.AccountBalanceBucket;
+import com.novabank.core.model.LedgerEntry;
+import com.novabank.core.model.TransactionRecord;
+import com.novabank.core.repository.AccountBalanceBucketRepository;
+import com.novabank.core.repository.AccountRepository;
+import com.novabank.core.repository.LedgerEntryRepository;
+import com.novabank.core.repository.TransactionRecordRepository;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Writes the double-entry postings behind every balance change and answers balance questions from them.
+ * Callers hold the rows involved (lock or conditional update) when they post, so per-ledger sequences
+ * follow the order in which balances actually changed.
+ */
+@Service
+@RequiredArgsConstructor
+public class LedgerService {
+    private final LedgerEntryRepository ledgerEntryRepository;
+    private final AccountBalanceBucketRepository bucketRepository;
+    private final AccountRepository accountRepository;
+    private final TransactionRecordRepository txRepository;
+
+    /** Advances the sequence of an account whose balance was just changed in memory and returns its position. */
+    LedgerLeg advance(Account account) {
+        account.setLedgerSequence(account.getLedgerSequence() + 1);
+        return new LedgerLeg(account.getAccountNumber(), 0, account.getLedgerSequence(), account.getBalance());
+    }
+
+    LedgerLeg advance(AccountBalanceBucket bucket) {
+        bucket.setLedgerSequence(bucket.getLedgerSequence() + 1);
+        return new LedgerLeg(bucket.getAccountNumber(), bucket.getBucketIndex() + 1, bucket.getLedgerSequence(), bucket.getBalance());
+    }
+
+    void postDeposit(String reference, LedgerLeg to, BigDecimal amount, Instant occurredAt) {
+        ledgerEntryRepository.saveAll(List.of(
+                external(reference, LedgerEntry.Direction.DEBIT, amount, occurredAt),
+                entry(reference, to, LedgerEntry.Direction.CREDIT, amount, occurredAt)));
+    }
+
+    void postWithdrawal(String reference, LedgerLeg from, BigDecimal amount, Instant occurredAt) {
+        ledgerEntryRepository.saveAll(List.of(
+                entry(reference, from, LedgerEntry.Direction.DEBIT, amount, occurredAt),
+                external(reference, LedgerEntry.Direction.CREDIT, amount, occurredAt)));
+    }
+
+    void postTransfer(String reference, LedgerLeg from, LedgerLeg to, BigDecimal amount, Instant occurredAt) {
+        ledgerEntryRepository.saveAll(List.of(
+                entry(reference, from, LedgerEntry.Direction.DEBIT, amount, occurredAt),
+                entry(reference, to, LedgerEntry.Direction.CREDIT, amount, occurredAt)));
+    }
+
+    // Entity variants for callers outside this package that changed balances in memory (e.g. data seeding).
+
+    public void postDeposit(String reference, Account to, BigDecimal amount, Instant occurredAt) {
+        postDeposit(reference, advance(to), amount, occurredAt);
+    }
+
+    public void postWithdrawal(String reference, Account from, BigDecimal amount, Instant occurredAt) {
+        postWithdrawal(reference, advance(from), amount, occurredAt);
+    }
+
+    public void postTransfer(String reference, Account from, Account to, BigDecimal amount, Instant occurredAt) {
+        postTransfer(reference, advance(from), advance(to), amount, occurredAt);
+    }
+
+    /**
+     * Posts an opening entry (sequence 0) for every (sub-)ledger whose balance predates the ledger, so that
+     * balance reads and reconciliation see it. The opening is dated at the account's last transaction without
+     * ledger entries, or at its creation; earlier points in time read as 0. Idempotent, run at startup.
+     * Returns the number of (sub-)ledgers opened.
+     */
+    @Transactional
+    public int openLegacyBalances() {
+        Map<String, Instant> openedAt = new HashMap<>();
+        int opened = 0;
+        for (Account account : accountRepository.findWithUnopenedLedger()) {
+            postOpening(account.getAccountNumber(), 0, account.getBalance(), openingDate(account.getAccountNumber(), openedAt));
+            opened++;
+        }
+        for (AccountBalanceBucket bucket : bucketRepository.findWithUnopenedLedger()) {
+            postOpening(bucket.getAccountNumber(), bucket.getBucketIndex() + 1, bucket.getBalance(),
+                    openingDate(bucket.getAccountNumber(), openedAt));
+            opened++;
+        }
+        // Ledgers posted to since the change: the opening is the balance their first posting started from.
+        for (LedgerEntry first : ledgerEntryRepository.findFirstPostingsWithoutOpening()) {
+            BigDecimal signed = first.getDirection() == LedgerEntry.Direction.CREDIT ? first.getAmount() : first.getAmount().negate();
+            Instant date = openingDate(first.getAccountNumber(), openedAt);
+            postOpening(first.getAccountNumber(), first.getSubLedger(), first.getBalanceAfter().subtract(signed),
+                    date.isAfter(first.getOccurredAt()) ? first.getOccurredAt() : date);
+            opened++;
+        }
+        return opened;
+    }
+
+    private Instant openingDate(String accountNumber, Map<String, Instant> openedAt) {
+        return openedAt.computeIfAbsent(accountNumber, number -> Optional.ofNullable(txRepository.findLastUnledgeredActivity(number))
+                .or(() -> accountRepository.findByAccountNumber(number).map(Account::getCreatedAt))
+                .orElseGet(Instant::now));
+    }
+
+    private void postOpening(String accountNumber, int subLedger, BigDecimal balance, Instant occurredAt) {
+        LedgerLeg leg = new LedgerLeg(accountNumber, subLedger, 0, balance);
+        String reference = TransactionRecord.newReference();
+        if (balance.signum() >= 0) {
+            postDeposit(reference, leg, balance, occurredAt);
+        } else {
+            postWithdrawal(reference, leg, balance.negate(), occurredAt);
+        }
+    }
+
+    /** Balance of the account including every posting that occurred strictly before {@code before}. */
+    public BigDecimal balanceBefore(String accountNumber, Instant before) {
+        BigDecimal total = BigDecimal.ZERO;
+        for (int subLedger = 0; subLedger <= bucketRepository.countByAccountNumber(accountNumber); subLedger++) {
+            total = total.add(ledgerEntryRepository
+                    .findFirstByAccountNumberAndSubLedgerAndOccurredAtBeforeOrderByOccurredAtDescSequenceDesc(accountNumber, subLedger, before)
+                    .map(LedgerEntry::getBalanceAfter)
+                    .orElse(BigDecimal.ZERO));
+        }
+        return total;
+    }
+
+    /** Balance of the account according to the latest entry of each of its (sub-)ledgers. */
+    public BigDecimal ledgerBalance(String accountNumber) {
+        BigDecimal total = BigDecimal.ZERO;
+        for (int subLedger = 0; subLedger <= bucketRepository.countByAccountNumber(accountNumber); subLedger++) {
+            total = total.add(latest(accountNumber, subLedger).map(LedgerEntry::getBalanceAfter).orElse(BigDecimal.ZERO));
+        }
+        return total;
+    }
+
+    /**
+     * Checks that the account row and each of its buckets show exactly the balance and sequence of their latest
+     * ledger entry. Costs one indexed lookup per (sub-)ledger.
+     */
+    public LedgerReconciliationResponse reconcile(String accountNumber) {
+        Account account = accountRepository.findByAccountNumber(accountNumber)
+                .orElseThrow(() -> new IllegalArgumentException("Account not found"));
+        BigDecimal balance = account.getBalance();
+        BigDecimal ledgerBalance = BigDecimal.ZERO;
+        Optional<LedgerEntry> rowEntry = latest(accountNumber, 0);
+        boolean consistent = matches(rowEntry, account.getBalance(), account.getLedgerSequence());
+        ledgerBalance = ledgerBalance.add(rowEntry.map(LedgerEntry::getBalanceAfter).orElse(BigDecimal.ZERO));
+        for (AccountBalanceBucket bucket : bucketRepository.findByAccountNumberOrderByBucketIndex(accountNumber)) {
+            Optional<LedgerEntry> bucketEntry = latest(accountNumber, bucket.getBucketIndex() + 1);
+            consistent &= matches(bucketEntry, bucket.getBalance(), bucket.getLedgerSequence());
+            balance = balance.add(bucket.getBalance());
+            ledgerBalance = ledgerBalance.add(bucketEntry.map(LedgerEntry::getBalanceAfter).orElse(BigDecimal.ZERO));
+        }
+        return new LedgerReconciliationResponse(accountNumber, balance, ledgerBalance, account.getLedgerSequence(), consistent);
+    }
+
+    private Optional<LedgerEntry> latest(String accountNumber, int subLedger) {
+        return ledgerEntryRepository.findFirstByAccountNumberAndSubLedgerOrderBySequenceDesc(accountNumber, subLedger);
+    }
+
+    private boolean matches(Optional<LedgerEntry> entry, BigDecimal balance, long sequence) {
+        return entry.map(e -> e.getSequence() == sequence && e.getBalanceAfter().compareTo(balance) == 0)
+                .orElse(sequence == 0 && balance.signum() == 0);
+    }
+
+    private LedgerEntry entry(String reference, LedgerLeg leg, LedgerEntry.Direction direction, BigDecimal amount, Instant occurredAt) {
+        LedgerEntry entry = external(reference, direction, amount, occurredAt);
+        entry.setAccountNumber(leg.accountNumber());
+        entry.setSubLedger(leg.subLedger());
+        entry.setSequence(leg.sequence());
+        entry.setBalanceAfter(leg.balanceAfter());
+        return entry;
+    }
+
+    private LedgerEntry external(String reference, LedgerEntry.Direction direction, BigDecimal amount, Instant occurredAt) {
+        LedgerEntry entry = new LedgerEntry();
+        entry.setReference(reference);
+        entry.setDirection(direction);
+        entry.setAmount(amount);
+        entry.setOccurredAt(occurredAt);
+        return entry;
+    }
+}
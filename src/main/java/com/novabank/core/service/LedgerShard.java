@@ -0,0 +1,106 @@
+package com.novabank.core.service;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * One partition of the ledger engine. All state is confined to the shard's single thread, so balances are
+ * read and written without locks; other threads interact only by submitting tasks.
+ */
+final class LedgerShard {
+
+    static final class Entry {
+        final Long id;
+        final String accountNumber;
+        final Long ownerId;
+        boolean active;
+        BigDecimal balance;
+        BigDecimal reserved = BigDecimal.ZERO;
+        long sequence;
+
+        Entry(Long id, String accountNumber, Long ownerId, boolean active, BigDecimal balance, long sequence) {
+            this.id = id;
+            this.accountNumber = accountNumber;
+            this.ownerId = ownerId;
+            this.active = active;
+            this.balance = balance;
+            this.sequence = sequence;
+        }
+
+        BigDecimal available() {
+            return balance.subtract(reserved);
+        }
+
+        /** Advances the ledger sequence after a balance change and returns the resulting position. */
+        LedgerLeg advance() {
+            return new LedgerLeg(accountNumber, 0, ++sequence, balance);
+        }
+    }
+
+    private final ExecutorService executor;
+    private final Map<String, Entry> accounts = new HashMap<>();
+    private final Function<String, Entry> loader;
+    // Last committed balance per account, readable from any thread.
+    private final Map<String, BigDecimal> published;
+
+    LedgerShard(int index, Function<String, Entry> loader, Map<String, BigDecimal> published) {
+        this.executor = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "ledger-shard-" + index);
+            t.setDaemon(true);
+            return t;
+        });
+        this.loader = loader;
+        this.published = published;
+    }
+
+    /** Runs {@code task} on the shard thread and waits for it, rethrowing business exceptions unwrapped. */
+    <T> T call(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, executor).join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    // The methods below must only be called from inside call(...).
+
+    Entry require(String accountNumber, String notFoundMessage) {
+        Entry entry = accounts.get(accountNumber);
+        if (entry == null) {
+            entry = loader.apply(accountNumber);
+            if (entry == null) {
+                throw new IllegalArgumentException(notFoundMessage);
+            }
+            accounts.put(accountNumber, entry);
+        }
+        return entry;
+    }
+
+    Entry cached(String accountNumber) {
+        return accounts.get(accountNumber);
+    }
+
+    void publish(Entry entry) {
+        published.put(entry.accountNumber, entry.balance);
+    }
+
+    void shutdown() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.novabank.core.service;
+
+import com.novabank.core.config.TransactionProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.OptimisticLockException;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.hibernate.StaleStateException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+// Ordered just outside the transaction interceptor so every attempt gets a fresh transaction.
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+@RequiredArgsConstructor
+public class OptimisticRetryAspect {
+    private static final Logger log = LoggerFactory.getLogger(OptimisticRetryAspect.class);
+
+    private final TransactionProperties transactionProperties;
+    private final MeterRegistry meterRegistry;
+
+    @Around("@annotation(com.novabank.core.service.RetryOnOptimisticLock)")
+    public Object retry(ProceedingJoinPoint pjp) throws Throwable {
+        // A nested call cannot be retried on its own: the outer persistence context is already stale.
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return pjp.proceed();
+        }
+        TransactionProperties.Retry retry = transactionProperties.getRetry();
+        int maxAttempts = Math.max(1, retry.getMaxAttempts());
+        String operation = pjp.getSignature().getDeclaringType().getSimpleName() + "." + pjp.getSignature().getName();
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return pjp.proceed();
+            } catch (Exception ex) {
+                if (!isOptimisticLockFailure(ex)) {
+                    throw ex;
+                }
+                if (attempt >= maxAttempts) {
+                    counter("novabank.optimistic.retry.exhausted", operation).increment();
+                    log.warn("Optimistic lock retries exhausted for {} after {} attempts", operation, attempt);
+                    throw ex;
+                }
+                counter("novabank.optimistic.retries", operation).increment();
+                Thread.sleep(backoffMillis(retry, attempt));
+            }
+        }
+    }
+
+    // Full jitter: uniform in [0, min(max, initial * 2^(attempt-1))].
+    private long backoffMillis(TransactionProperties.Retry retry, int attempt) {
+        long ceiling = Math.min(retry.getMaxBackoffMs(), retry.getInitialBackoffMs() << Math.min(attempt - 1, 20));
+        return ceiling <= 0 ? 0 : ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    private Counter counter(String name, String operation) {
+        return meterRegistry.counter(name, "operation", operation);
+    }
+
+    private static boolean isOptimisticLockFailure(Throwable ex) {
+        for (Throwable t = ex; t != null; t = t.getCause()) {
+            if (t instanceof OptimisticLockingFailureException
+                    || t instanceof OptimisticLockException
+                    || t instanceof StaleStateException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
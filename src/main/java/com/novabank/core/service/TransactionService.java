@@ -1,19 +1,36 @@
 package com.novabank.core.service;
 
+import com.novabank.core.config.TransactionProperties;
+import com.novabank.core.dto.transaction.BatchTransferItem;
+import com.novabank.core.dto.transaction.BatchTransferItemResult;
+import com.novabank.core.dto.transaction.BatchTransferResponse;
 import com.novabank.core.dto.transaction.TransactionResponse;
 import com.novabank.core.dto.transaction.TransactionSummaryResponse;
 import com.novabank.core.dto.transaction.TransferRequest;
+import com.novabank.core.event.TransferCompleted;
 import com.novabank.core.model.Account;
 import com.novabank.core.model.TransactionRecord;
 import com.novabank.core.model.TransferIdempotencyRecord;
 import com.novabank.core.model.User;
 import com.novabank.core.repository.AccountRepository;
+import com.novabank.core.repository.AccountSnapshot;
 import com.novabank.core.repository.TransferIdempotencyRecordRepository;
 import com.novabank.core.repository.TransactionRecordRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.nio.charset.StandardCharsets;
@@ -24,76 +41,445 @@ import java.time.LocalDate;
 import java.time.YearMonth;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Comparator;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class TransactionService {
+    private static final Logger log = LoggerFactory.getLogger(TransactionService.class);
 
     private final AccountRepository accountRepository;
     private final TransactionRecordRepository txRepository;
     private final TransferIdempotencyRecordRepository transferIdempotencyRecordRepository;
-    private final AuditService auditService;
-    private final FraudService fraudService;
-    private final WebhookService webhookService;
+    private final TransactionProperties transactionProperties;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final LedgerEngine ledgerEngine;
+    private final HotAccountService hotAccountService;
+    private final LedgerService ledgerService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private TransferGroupCommitter groupCommitter;
+    private IdempotencyCache idempotencyCache;
+    // Commits an idempotency claim ahead of the caller's transaction; see claimThenPost.
+    private TransactionTemplate ownTransaction;
+
+    @PostConstruct
+    void startGroupCommitter() {
+        idempotencyCache = new IdempotencyCache(transactionProperties.getIdempotency(), meterRegistry);
+        ownTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        ownTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        // The ledger engine already batches its writes; group commit only applies to the JPA paths.
+        if (transactionProperties.getGroupCommit().isEnabled() && !transactionProperties.getEngine().isEnabled()) {
+            groupCommitter = new TransferGroupCommitter(
+                    transactionProperties.getGroupCommit(), meterRegistry, this::commitTransferGroup);
+        }
+    }
 
-    @Transactional
+    @PreDestroy
+    void stopGroupCommitter() {
+        if (groupCommitter != null) {
+            groupCommitter.shutdown();
+        }
+    }
+
+    @RetryOnOptimisticLock
     public String transfer(User user, TransferRequest request) {
         return transfer(user, request, null);
     }
 
-    @Transactional
+    @RetryOnOptimisticLock
     public String transfer(User user, TransferRequest request, String idempotencyKey) {
+        TransferCommand command = toCommand(user, request, idempotencyKey);
+        String replayed = replayFromCache(command);
+        if (replayed != null) {
+            return replayed;
+        }
+        // Group commit only applies at the outermost boundary; a caller's own transaction must see its transfer.
+        if (groupCommitter != null && !TransactionSynchronizationManager.isActualTransactionActive()) {
+            CompletableFuture<TransferOutcome> queued = groupCommitter.offer(command);
+            if (queued != null) {
+                return queued.join().referenceOrThrow();
+            }
+        }
+        return transactionTemplate.execute(status -> executeTransfer(command));
+    }
+
+    private TransferCommand toCommand(User user, TransferRequest request, String idempotencyKey) {
         if (idempotencyKey == null || idempotencyKey.isBlank()) {
-            return performTransfer(user, request);
+            return new TransferCommand(user, request, null, null);
         }
         String normalizedKey = idempotencyKey.trim();
         if (normalizedKey.length() > 100) {
             throw new IllegalArgumentException("Idempotency-Key must be at most 100 characters");
         }
+        return new TransferCommand(user, request, normalizedKey, hashTransferRequest(request));
+    }
+
+    private String executeTransfer(TransferCommand command) {
+        User user = command.user();
+        TransferRequest request = command.request();
+        String normalizedKey = command.idempotencyKey();
+        if (normalizedKey == null) {
+            return ledgerEngine.isEnabled()
+                    ? postToLedger(user, request, TransactionRecord.newReference())
+                    : performTransfer(user, request);
+        }
 
-        String requestHash = hashTransferRequest(request);
-        var existing = transferIdempotencyRecordRepository
-                .findByActorUsernameAndIdempotencyKey(user.getUsername(), normalizedKey);
+        if (ledgerEngine.isEnabled()) {
+            return claimThenPost(command);
+        }
+
+        String requestHash = command.requestHash();
+        var existing = findLiveIdempotencyRecord(user.getUsername(), normalizedKey);
         if (existing.isPresent()) {
             validateIdempotentPayload(existing.get(), requestHash);
+            remember(existing.get());
             return existing.get().getTransferReference();
         }
 
         String reference = performTransfer(user, request);
-        TransferIdempotencyRecord record = new TransferIdempotencyRecord();
-        record.setActorUsername(user.getUsername());
-        record.setIdempotencyKey(normalizedKey);
-        record.setRequestHash(requestHash);
-        record.setTransferReference(reference);
         try {
-            transferIdempotencyRecordRepository.save(record);
+            saveIdempotencyRecord(command, reference);
+        } catch (DataIntegrityViolationException ex) {
+            return replayRaceWinner(command, ex);
+        }
+        return reference;
+    }
+
+    /*
+     * In-memory postings cannot be rolled back, so with the ledger engine the key is committed in its own
+     * transaction before any money moves. Should the caller's transaction then fail to commit, a retry with the
+     * same key replays the reference instead of posting again. A posting the engine refuses has moved nothing,
+     * so its claim is deleted and the key can be used again.
+     */
+    private String claimThenPost(TransferCommand command) {
+        String reference = TransactionRecord.newReference();
+        TransferIdempotencyRecord claimed;
+        try {
+            claimed = ownTransaction.execute(status -> findLiveIdempotencyRecord(command.user().getUsername(), command.idempotencyKey())
+                    .orElseGet(() -> transferIdempotencyRecordRepository.saveAndFlush(newIdempotencyRecord(command, reference))));
         } catch (DataIntegrityViolationException ex) {
-            // If another request won the race for the same key, return that reference.
-            TransferIdempotencyRecord raceWinner = transferIdempotencyRecordRepository
-                    .findByActorUsernameAndIdempotencyKey(user.getUsername(), normalizedKey)
-                    .orElseThrow(() -> ex);
-            validateIdempotentPayload(raceWinner, requestHash);
-            return raceWinner.getTransferReference();
+            return replayRaceWinner(command, ex);
         }
+        if (!reference.equals(claimed.getTransferReference())) {
+            validateIdempotentPayload(claimed, command.requestHash());
+            remember(claimed);
+            return claimed.getTransferReference();
+        }
+        try {
+            postToLedger(command.user(), command.request(), reference);
+        } catch (RuntimeException ex) {
+            ownTransaction.executeWithoutResult(status -> transferIdempotencyRecordRepository.deleteById(claimed.getId()));
+            throw ex;
+        }
+        remember(claimed);
         return reference;
     }
 
+    // Another request won the race for the same key; return its reference.
+    private String replayRaceWinner(TransferCommand command, DataIntegrityViolationException ex) {
+        TransferIdempotencyRecord raceWinner = transferIdempotencyRecordRepository
+                .findByActorUsernameAndIdempotencyKey(command.user().getUsername(), command.idempotencyKey())
+                .orElseThrow(() -> ex);
+        validateIdempotentPayload(raceWinner, command.requestHash());
+        remember(raceWinner);
+        return raceWinner.getTransferReference();
+    }
+
+    private TransferIdempotencyRecord newIdempotencyRecord(TransferCommand command, String reference) {
+        TransferIdempotencyRecord record = new TransferIdempotencyRecord();
+        record.setActorUsername(command.user().getUsername());
+        record.setIdempotencyKey(command.idempotencyKey());
+        record.setRequestHash(command.requestHash());
+        record.setTransferReference(reference);
+        record.setExpiresAt(Instant.now().plusSeconds(transactionProperties.getIdempotency().getRetentionSeconds()));
+        return record;
+    }
+
+    private void saveIdempotencyRecord(TransferCommand command, String reference) {
+        TransferIdempotencyRecord record = newIdempotencyRecord(command, reference);
+        transferIdempotencyRecordRepository.save(record);
+        // Cache the key only once it is committed; a rolled-back transfer must not be replayed.
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                remember(record);
+            }
+        });
+    }
+
+    /** The record for the key, unless it has expired; an expired row is deleted here so the key can be claimed again. */
+    private Optional<TransferIdempotencyRecord> findLiveIdempotencyRecord(String actor, String key) {
+        Optional<TransferIdempotencyRecord> record = transferIdempotencyRecordRepository
+                .findByActorUsernameAndIdempotencyKey(actor, key);
+        Instant now = Instant.now();
+        if (record.isPresent() && !record.get().getExpiresAt().isAfter(now)) {
+            transferIdempotencyRecordRepository.deleteExpired(List.of(record.get().getId()), now);
+            return Optional.empty();
+        }
+        return record;
+    }
+
+    /** The reference of an earlier transfer with the same key, if it is cached; no database access either way. */
+    private String replayFromCache(TransferCommand command) {
+        if (command.idempotencyKey() == null) {
+            return null;
+        }
+        IdempotencyCache.Entry cached = idempotencyCache.get(command.user().getUsername(), command.idempotencyKey());
+        if (cached == null) {
+            return null;
+        }
+        if (!cached.requestHash().equals(command.requestHash())) {
+            throw new IllegalArgumentException("Idempotency-Key already used with different transfer payload");
+        }
+        return cached.reference();
+    }
+
+    private void remember(TransferIdempotencyRecord record) {
+        idempotencyCache.put(record.getActorUsername(), record.getIdempotencyKey(), record.getRequestHash(),
+                record.getTransferReference(), record.getExpiresAt());
+    }
+
+    private List<TransferOutcome> commitTransferGroup(List<TransferCommand> commands) {
+        try {
+            return transactionTemplate.execute(status -> applyTransferGroup(commands));
+        } catch (RuntimeException ex) {
+            // The shared transaction rolled back as a whole (e.g. a key raced with another node):
+            // settle each transfer on its own so one bad apple does not fail its neighbours.
+            log.warn("Group of {} transfers rolled back, settling them one by one: {}", commands.size(), ex.getMessage());
+            return settleEach(commands);
+        }
+    }
+
+    /**
+     * Applies several transfers in the caller's transaction. Every account involved is locked up front by one
+     * ordered query; balances then move in memory, so each dirty account is flushed once however many transfers
+     * touched it. Business failures are reported per transfer and leave the others untouched.
+     */
+    private List<TransferOutcome> applyTransferGroup(List<TransferCommand> commands) {
+        Set<String> accountNumbers = new TreeSet<>();
+        Map<String, Set<String>> keysByActor = new HashMap<>();
+        for (TransferCommand command : commands) {
+            accountNumbers.add(command.request().getFromAccount());
+            accountNumbers.add(command.request().getToAccount());
+            if (command.idempotencyKey() != null) {
+                keysByActor.computeIfAbsent(command.user().getUsername(), k -> new HashSet<>()).add(command.idempotencyKey());
+            }
+        }
+        Map<String, Account> accounts = lockGroupAccounts(accountNumbers, commands);
+        Map<String, TransferIdempotencyRecord> knownKeys = new HashMap<>();
+        List<Long> expiredKeys = new ArrayList<>();
+        Instant now = Instant.now();
+        keysByActor.forEach((actor, keys) -> transferIdempotencyRecordRepository
+                .findByActorUsernameAndIdempotencyKeyIn(actor, keys)
+                .forEach(r -> {
+                    if (r.getExpiresAt().isAfter(now)) {
+                        knownKeys.put(actor + '\n' + r.getIdempotencyKey(), r);
+                    } else {
+                        expiredKeys.add(r.getId());
+                    }
+                }));
+        if (!expiredKeys.isEmpty()) {
+            transferIdempotencyRecordRepository.deleteExpired(expiredKeys, now);
+        }
+
+        List<TransferOutcome> outcomes = new ArrayList<>(commands.size());
+        for (TransferCommand command : commands) {
+            User user = command.user();
+            TransferRequest request = command.request();
+            String keyId = user.getUsername() + '\n' + command.idempotencyKey();
+            try {
+                TransferIdempotencyRecord existing = command.idempotencyKey() == null ? null : knownKeys.get(keyId);
+                if (existing != null) {
+                    validateIdempotentPayload(existing, command.requestHash());
+                    if (existing.getId() != null) {
+                        remember(existing);
+                    }
+                    outcomes.add(TransferOutcome.replayed(existing.getTransferReference()));
+                    continue;
+                }
+                if (request.getFromAccount().equals(request.getToAccount())) {
+                    throw new IllegalArgumentException("Cannot transfer to the same account");
+                }
+                Account from = accounts.get(request.getFromAccount());
+                if (from == null) {
+                    throw new IllegalArgumentException("From account not found");
+                }
+                Account to = accounts.get(request.getToAccount());
+                if (to == null) {
+                    throw new IllegalArgumentException("To account not found");
+                }
+                validateTransfer(user, from, to, request.getAmount());
+                from.setBalance(from.getBalance().subtract(request.getAmount()));
+                to.setBalance(to.getBalance().add(request.getAmount()));
+                String reference = recordTransfer(user, request,
+                        new TransferLegs(from, to, ledgerService.advance(from), ledgerService.advance(to)));
+                if (command.idempotencyKey() != null) {
+                    saveIdempotencyRecord(command, reference);
+                    TransferIdempotencyRecord saved = new TransferIdempotencyRecord();
+                    saved.setRequestHash(command.requestHash());
+                    saved.setTransferReference(reference);
+                    knownKeys.put(keyId, saved);
+                }
+                outcomes.add(TransferOutcome.completed(reference));
+            } catch (SecurityException | IllegalArgumentException ex) {
+                outcomes.add(TransferOutcome.failed(ex));
+            }
+        }
+        return outcomes;
+    }
+
+    private Map<String, Account> lockGroupAccounts(Set<String> accountNumbers, List<TransferCommand> commands) {
+        Set<String> sources = commands.stream().map(c -> c.request().getFromAccount()).collect(Collectors.toSet());
+        List<Account> locked;
+        if (sources.stream().noneMatch(hotAccountService::isHot)) {
+            locked = accountRepository.findAllByAccountNumberInForUpdate(accountNumbers);
+        } else {
+            // Hot sources have their buckets locked right after their own row, keeping the global lock order.
+            locked = new ArrayList<>(accountNumbers.size());
+            for (String accountNumber : accountNumbers) {
+                accountRepository.findByAccountNumberForUpdate(accountNumber).ifPresent(locked::add);
+            }
+        }
+        Map<String, Account> accounts = new HashMap<>();
+        for (Account account : locked) {
+            if (sources.contains(account.getAccountNumber())) {
+                hotAccountService.sweep(account);
+            }
+            accounts.put(account.getAccountNumber(), account);
+        }
+        return accounts;
+    }
+
     private String performTransfer(User user, TransferRequest request) {
         if (request.getFromAccount().equals(request.getToAccount())) {
             throw new IllegalArgumentException("Cannot transfer to the same account");
         }
-        Account from = accountRepository.findByAccountNumber(request.getFromAccount())
-                .orElseThrow(() -> new IllegalArgumentException("From account not found"));
-        Account to = accountRepository.findByAccountNumber(request.getToAccount())
-                .orElseThrow(() -> new IllegalArgumentException("To account not found"));
+        TransferLegs legs = transactionProperties.getLockMode() == TransactionProperties.LockMode.ATOMIC
+                ? applyAtomicTransfer(user, request)
+                : applyLockedTransfer(user, request);
+        return recordTransfer(user, request, legs);
+    }
+
+    private String postToLedger(User user, TransferRequest request, String reference) {
+        if (request.getFromAccount().equals(request.getToAccount())) {
+            throw new IllegalArgumentException("Cannot transfer to the same account");
+        }
+        ledgerEngine.transfer(user, request, reference);
+        afterTransfer(user, request, reference);
+        return reference;
+    }
+
+    private String recordTransfer(User user, TransferRequest request, TransferLegs legs) {
+        TransactionRecord tx = new TransactionRecord();
+        tx.setType(TransactionRecord.Type.TRANSFER);
+        tx.setFromAccount(legs.from());
+        tx.setToAccount(legs.to());
+        tx.setAmount(request.getAmount());
+        tx.setNote(request.getNote());
+        txRepository.save(tx);
+        ledgerService.postTransfer(tx.getReference(), legs.fromLeg(), legs.toLeg(), request.getAmount(), tx.getOccurredAt());
+        afterTransfer(user, request, tx.getReference());
+        return tx.getReference();
+    }
+
+    // Audit, fraud checks and webhooks run after commit, off the request thread; see AuditEventHandler and friends.
+    private void afterTransfer(User user, TransferRequest request, String reference) {
+        eventPublisher.publishEvent(new TransferCompleted(user.getUsername(), request.getFromAccount(), request.getToAccount(),
+                request.getAmount(), reference, request.getNote()));
+    }
+
+    private TransferLegs applyLockedTransfer(User user, TransferRequest request) {
+        // Always touch both rows in account-number order so crossing A->B / B->A transfers
+        // queue behind each other instead of deadlocking.
+        Account from;
+        Account to;
+        if (request.getFromAccount().compareTo(request.getToAccount()) < 0) {
+            from = loadAccount(request.getFromAccount(), "From account not found");
+            hotAccountService.sweep(from);
+            to = loadAccount(request.getToAccount(), "To account not found");
+        } else {
+            to = loadAccount(request.getToAccount(), "To account not found");
+            from = loadAccount(request.getFromAccount(), "From account not found");
+            hotAccountService.sweep(from);
+        }
+        BigDecimal amount = request.getAmount();
+        validateTransfer(user, from, to, amount);
+        from.setBalance(from.getBalance().subtract(amount));
+        to.setBalance(to.getBalance().add(amount));
+        TransferLegs legs = new TransferLegs(from, to, ledgerService.advance(from), ledgerService.advance(to));
+        accountRepository.save(from);
+        accountRepository.save(to);
+        return legs;
+    }
+
+    private TransferLegs applyAtomicTransfer(User user, TransferRequest request) {
+        BigDecimal amount = request.getAmount();
+        if (amount.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new IllegalArgumentException("Amount must be positive");
+        }
+        String fromNumber = request.getFromAccount();
+        String toNumber = request.getToAccount();
+        Instant now = Instant.now();
+        // Same global order as the locking path: the lower account number is updated (and row-locked) first.
+        LedgerLeg toBucket = null;
+        boolean applied;
+        if (fromNumber.compareTo(toNumber) < 0) {
+            applied = debitAtomically(user, fromNumber, amount, now);
+            if (applied) {
+                toBucket = hotAccountService.credit(toNumber, amount, now);
+                applied = toBucket != null || accountRepository.credit(toNumber, amount, now) == 1;
+            }
+        } else {
+            toBucket = hotAccountService.credit(toNumber, amount, now);
+            applied = (toBucket != null || accountRepository.credit(toNumber, amount, now) == 1)
+                    && debitAtomically(user, fromNumber, amount, now);
+        }
+        if (!applied) {
+            // Only the failure path loads the entities, to report the same error the locked path would.
+            Account from = accountRepository.findByAccountNumber(fromNumber)
+                    .orElseThrow(() -> new IllegalArgumentException("From account not found"));
+            Account to = accountRepository.findByAccountNumber(toNumber)
+                    .orElseThrow(() -> new IllegalArgumentException("To account not found"));
+            validateTransfer(user, from, to, amount);
+            throw new ConcurrencyFailureException("Account state changed during transfer");
+        }
+        // Both rows are still held by this transaction, so the snapshots are exactly this transfer's result.
+        Map<String, AccountSnapshot> snapshots = accountRepository.findSnapshotsByAccountNumberIn(List.of(fromNumber, toNumber)).stream()
+                .collect(Collectors.toMap(AccountSnapshot::getAccountNumber, a -> a));
+        AccountSnapshot from = snapshots.get(fromNumber);
+        AccountSnapshot to = snapshots.get(toNumber);
+        return new TransferLegs(
+                accountRepository.getReferenceById(from.getId()),
+                accountRepository.getReferenceById(to.getId()),
+                new LedgerLeg(fromNumber, 0, from.getLedgerSequence(), from.getBalance()),
+                toBucket != null ? toBucket : new LedgerLeg(toNumber, 0, to.getLedgerSequence(), to.getBalance())
+        );
+    }
+
+    // A hot source may hold the funds in its buckets; sweep them into the row and try once more.
+    private boolean debitAtomically(User user, String accountNumber, BigDecimal amount, Instant now) {
+        if (accountRepository.debit(accountNumber, user.getId(), amount, now) == 1) {
+            return true;
+        }
+        return hotAccountService.isHot(accountNumber)
+                && hotAccountService.sweep(accountNumber)
+                && accountRepository.debit(accountNumber, user.getId(), amount, now) == 1;
+    }
+
+    private void validateTransfer(User user, Account from, Account to, BigDecimal amount) {
         // authorization: user must own the from account
         if (!from.getUser().getId().equals(user.getId())) {
             throw new SecurityException("Forbidden: not your source account");
@@ -104,40 +490,88 @@ public class TransactionService {
         if (!to.isActive()) {
             throw new IllegalArgumentException("Destination account is inactive");
         }
-        BigDecimal amount = request.getAmount();
         if (amount.compareTo(BigDecimal.ZERO) <= 0) {
             throw new IllegalArgumentException("Amount must be positive");
         }
-        if (from.getBalance().compareTo(amount) < 0) {
+        if (from.getBalance().subtract(from.getHeldAmount()).compareTo(amount) < 0) {
             throw new IllegalArgumentException("Insufficient funds");
         }
-        from.setBalance(from.getBalance().subtract(amount));
-        to.setBalance(to.getBalance().add(amount));
-        accountRepository.save(from);
-        accountRepository.save(to);
+    }
 
-        TransactionRecord tx = new TransactionRecord();
-        tx.setType(TransactionRecord.Type.TRANSFER);
-        tx.setFromAccount(from);
-        tx.setToAccount(to);
-        tx.setAmount(amount);
-        tx.setNote(request.getNote());
-        txRepository.save(tx);
+    private Account loadAccount(String accountNumber, String notFoundMessage) {
+        var account = transactionProperties.getLockMode() == TransactionProperties.LockMode.PESSIMISTIC
+                ? accountRepository.findByAccountNumberForUpdate(accountNumber)
+                : accountRepository.findByAccountNumber(accountNumber);
+        return account.orElseThrow(() -> new IllegalArgumentException(notFoundMessage));
+    }
 
-        auditService.log(user.getUsername(), "TRANSFER", from.getAccountNumber(), tx.getReference(),
-                "Transfer to " + to.getAccountNumber() + " amount " + amount);
-        boolean flagged = fraudService.checkAndLogLargeTransaction(user.getUsername(), from.getAccountNumber(), amount, "LARGE_TRANSFER");
-        if (flagged) {
-            Map<String, Object> payload = new LinkedHashMap<>();
-            payload.put("actor", user.getUsername());
-            payload.put("fromAccount", from.getAccountNumber());
-            payload.put("toAccount", to.getAccountNumber());
-            payload.put("amount", amount);
-            payload.put("reference", tx.getReference());
-            payload.put("note", request.getNote() == null ? "" : request.getNote());
-            webhookService.notifyEvent("LARGE_TRANSFER", payload);
+    private record TransferLegs(Account from, Account to, LedgerLeg fromLeg, LedgerLeg toLeg) {
+    }
+
+    public BatchTransferResponse transferBatch(User user, List<BatchTransferItem> items) {
+        TransactionProperties.Batch batch = transactionProperties.getBatch();
+        if (items.size() > batch.getMaxItems()) {
+            throw new IllegalArgumentException("A batch may contain at most " + batch.getMaxItems() + " transfers");
         }
-        return tx.getReference();
+        BatchTransferItemResult[] results = new BatchTransferItemResult[items.size()];
+
+        // Bulk validation of everything that does not depend on account state.
+        List<Integer> pending = new ArrayList<>();
+        List<TransferCommand> commands = new ArrayList<>();
+        for (int i = 0; i < items.size(); i++) {
+            BatchTransferItem item = items.get(i);
+            if (item.getFromAccount().equals(item.getToAccount())) {
+                results[i] = BatchTransferItemResult.failed(i, item.getIdempotencyKey(), "BAD_REQUEST", "Cannot transfer to the same account");
+            } else if (item.getAmount() == null || item.getAmount().compareTo(BigDecimal.ZERO) <= 0) {
+                results[i] = BatchTransferItemResult.failed(i, item.getIdempotencyKey(), "BAD_REQUEST", "Amount must be positive");
+            } else {
+                pending.add(i);
+                commands.add(toCommand(user, item, item.getIdempotencyKey()));
+            }
+        }
+
+        int chunkSize = Math.max(1, batch.getChunkSize());
+        for (int start = 0; start < pending.size(); start += chunkSize) {
+            int end = Math.min(start + chunkSize, pending.size());
+            List<TransferCommand> chunk = commands.subList(start, end);
+            // A chunk that rolls back as a whole is settled item by item, so only the item at fault fails.
+            List<TransferOutcome> outcomes = ledgerEngine.isEnabled() ? settleEach(chunk) : commitTransferGroup(chunk);
+            for (int j = 0; j < chunk.size(); j++) {
+                int index = pending.get(start + j);
+                results[index] = toItemResult(index, chunk.get(j).idempotencyKey(), outcomes.get(j));
+            }
+        }
+
+        List<BatchTransferItemResult> resultList = List.of(results);
+        int failed = (int) resultList.stream().filter(r -> r.getStatus() == BatchTransferItemResult.Status.FAILED).count();
+        return new BatchTransferResponse(resultList.size(), resultList.size() - failed, failed, resultList);
+    }
+
+    // Each transfer in its own transaction. Used where a shared transaction rolled back, and with the ledger
+    // engine, whose balances live in memory so the row-locking group path does not apply.
+    private List<TransferOutcome> settleEach(List<TransferCommand> commands) {
+        List<TransferOutcome> outcomes = new ArrayList<>(commands.size());
+        for (TransferCommand command : commands) {
+            try {
+                outcomes.add(TransferOutcome.completed(transactionTemplate.execute(status -> executeTransfer(command))));
+            } catch (RuntimeException ex) {
+                outcomes.add(TransferOutcome.failed(ex));
+            }
+        }
+        return outcomes;
+    }
+
+    private BatchTransferItemResult toItemResult(int index, String key, TransferOutcome outcome) {
+        if (outcome.error() == null) {
+            return outcome.replayed()
+                    ? BatchTransferItemResult.replayed(index, key, outcome.reference())
+                    : BatchTransferItemResult.completed(index, key, outcome.reference());
+        }
+        String code = outcome.error() instanceof SecurityException ? "FORBIDDEN"
+                : outcome.error() instanceof IllegalArgumentException ? "BAD_REQUEST"
+                : outcome.error() instanceof ConcurrencyFailureException ? "CONFLICT"
+                : "INTERNAL_ERROR";
+        return BatchTransferItemResult.failed(index, key, code, outcome.error().getMessage());
     }
 
     @Transactional
@@ -168,21 +602,8 @@ public class TransactionService {
             throw new IllegalArgumentException("minAmount must be less than or equal to maxAmount");
         }
 
-        Instant start = null;
-        Instant end = null;
-        try {
-            if (startDate != null && !startDate.isBlank()) {
-                start = LocalDate.parse(startDate).atStartOfDay().toInstant(ZoneOffset.UTC);
-            }
-            if (endDate != null && !endDate.isBlank()) {
-                // inclusive end-of-day
-                end = LocalDate.parse(endDate).plusDays(1).atStartOfDay().toInstant(ZoneOffset.UTC);
-            }
-        } catch (DateTimeParseException e) {
-            throw new IllegalArgumentException("Invalid date format, expected YYYY-MM-DD");
-        }
-        final Instant startFinal = start;
-        final Instant endFinal = end;
+        final Instant startFinal = parseStartDate(startDate);
+        final Instant endFinal = parseEndDate(endDate);
 
         return txRepository.findByFromAccount_UserOrToAccount_User(user, user)
                 .stream()
@@ -275,10 +696,26 @@ public class TransactionService {
             }
         }
 
+        // Opening and closing balances come from the ledger: one indexed lookup per account and period edge.
+        Instant periodStart = parseStartDate(startDate);
+        Instant periodEnd = parseEndDate(endDate);
+        BigDecimal openingBalance = BigDecimal.ZERO;
+        BigDecimal closingBalance = BigDecimal.ZERO;
+        for (String account : scopeAccounts) {
+            if (periodStart != null) {
+                openingBalance = openingBalance.add(ledgerService.balanceBefore(account, periodStart));
+            }
+            closingBalance = closingBalance.add(periodEnd != null
+                    ? ledgerService.balanceBefore(account, periodEnd)
+                    : ledgerService.ledgerBalance(account));
+        }
+
         return TransactionSummaryResponse.builder()
                 .scopeAccountNumber(scopedAccount)
                 .startDate(startDate)
                 .endDate(endDate)
+                .openingBalance(openingBalance)
+                .closingBalance(closingBalance)
                 .transactionCount(transactions.size())
                 .internalTransferCount(internalTransferCount)
                 .totalCredits(totalCredits)
@@ -320,6 +757,25 @@ public class TransactionService {
         return csv.toString();
     }
 
+    private Instant parseStartDate(String startDate) {
+        try {
+            return startDate == null || startDate.isBlank() ? null
+                    : LocalDate.parse(startDate).atStartOfDay().toInstant(ZoneOffset.UTC);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid date format, expected YYYY-MM-DD");
+        }
+    }
+
+    // Exclusive bound: the start of the day after endDate, so endDate itself is included.
+    private Instant parseEndDate(String endDate) {
+        try {
+            return endDate == null || endDate.isBlank() ? null
+                    : LocalDate.parse(endDate).plusDays(1).atStartOfDay().toInstant(ZoneOffset.UTC);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid date format, expected YYYY-MM-DD");
+        }
+    }
+
     private Comparator<TransactionResponse> buildComparator(String sort) {
         if (sort == null || sort.isBlank()) return null;
         String[] parts = sort.split(",");
@@ -0,0 +1,8 @@
+package com.novabank.core.service;
+
+import com.novabank.core.dto.transaction.TransferRequest;
+import com.novabank.core.model.User;
+
+// A transfer ready to be applied: idempotency key already normalized and, when present, its payload hash computed.
+record TransferCommand(User user, TransferRequest request, String idempotencyKey, String requestHash) {
+}
@@ -0,0 +1,133 @@
+package com.novabank.core.service;
+
+import com.novabank.core.config.TransactionProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Single committer thread that coalesces concurrently submitted transfers into shared database transactions.
+ * A group closes when it holds {@code maxBatchSize} transfers or {@code maxWaitMicros} have passed since its first one.
+ */
+final class TransferGroupCommitter {
+    private static final Logger log = LoggerFactory.getLogger(TransferGroupCommitter.class);
+
+    private final BlockingQueue<Pending> queue;
+    private final int maxBatchSize;
+    private final long maxWaitNanos;
+    private final Function<List<TransferCommand>, List<TransferOutcome>> groupApplier;
+    private final DistributionSummary batchSizes;
+    private final Timer queueWait;
+    private final Counter rejected;
+    private final Thread committer;
+    private volatile boolean running = true;
+
+    TransferGroupCommitter(TransactionProperties.GroupCommit config,
+                           MeterRegistry meterRegistry,
+                           Function<List<TransferCommand>, List<TransferOutcome>> groupApplier) {
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, config.getQueueCapacity()));
+        this.maxBatchSize = Math.max(1, config.getMaxBatchSize());
+        this.maxWaitNanos = TimeUnit.MICROSECONDS.toNanos(Math.max(0, config.getMaxWaitMicros()));
+        this.groupApplier = groupApplier;
+        this.batchSizes = DistributionSummary.builder("novabank.transfer.group_commit.batch_size")
+                .description("Transfers committed per shared transaction")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.queueWait = Timer.builder("novabank.transfer.group_commit.queue_wait")
+                .description("Time a transfer waits in the group-commit queue")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.rejected = meterRegistry.counter("novabank.transfer.group_commit.rejected");
+        meterRegistry.gaugeCollectionSize("novabank.transfer.group_commit.queue_depth", List.of(), queue);
+        this.committer = new Thread(this::run, "transfer-group-committer");
+        this.committer.setDaemon(true);
+        this.committer.start();
+    }
+
+    /**
+     * Queues a transfer for the next group. Returns {@code null} when the queue is full or shutting down,
+     * in which case the caller should apply the transfer itself.
+     */
+    CompletableFuture<TransferOutcome> offer(TransferCommand command) {
+        Pending pending = new Pending(command, System.nanoTime(), new CompletableFuture<>());
+        if (!running || !queue.offer(pending)) {
+            rejected.increment();
+            return null;
+        }
+        return pending.future();
+    }
+
+    void shutdown() {
+        running = false;
+        try {
+            committer.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        Pending leftover;
+        while ((leftover = queue.poll()) != null) {
+            leftover.future().complete(TransferOutcome.failed(new IllegalStateException("Transfer service is shutting down")));
+        }
+    }
+
+    private void run() {
+        List<Pending> group = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Pending first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                group.add(first);
+                long deadline = first.enqueuedAt() + maxWaitNanos;
+                while (group.size() < maxBatchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    Pending next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    group.add(next);
+                }
+                commit(group);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                group.clear();
+            }
+        }
+    }
+
+    private void commit(List<Pending> group) {
+        long dequeuedAt = System.nanoTime();
+        List<TransferCommand> commands = new ArrayList<>(group.size());
+        for (Pending pending : group) {
+            queueWait.record(dequeuedAt - pending.enqueuedAt(), TimeUnit.NANOSECONDS);
+            commands.add(pending.command());
+        }
+        batchSizes.record(group.size());
+        try {
+            List<TransferOutcome> outcomes = groupApplier.apply(commands);
+            for (int i = 0; i < group.size(); i++) {
+                group.get(i).future().complete(outcomes.get(i));
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Group commit of {} transfers failed: {}", group.size(), ex.getMessage());
+            group.forEach(p -> p.future().complete(TransferOutcome.failed(ex)));
+        }
+    }
+
+    private record Pending(TransferCommand command, long enqueuedAt, CompletableFuture<TransferOutcome> future) {
+    }
+}
@@ -0,0 +1,24 @@
+package com.novabank.core.service;
+
+// Result of applying one TransferCommand: either a reference (fresh or replayed) or the business error it failed with.
+record TransferOutcome(String reference, boolean replayed, RuntimeException error) {
+
+    static TransferOutcome completed(String reference) {
+        return new TransferOutcome(reference, false, null);
+    }
+
+    static TransferOutcome replayed(String reference) {
+        return new TransferOutcome(reference, true, null);
+    }
+
+    static TransferOutcome failed(RuntimeException error) {
+        return new TransferOutcome(null, false, error);
+    }
+
+    String referenceOrThrow() {
+        if (error != null) {
+            throw error;
+        }
+        return reference;
+    }
+}
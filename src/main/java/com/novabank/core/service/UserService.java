@@ -3,17 +3,28 @@ package com.novabank.core.service;
 import com.novabank.core.dto.auth.LoginRequest;
 import com.novabank.core.dto.auth.RegisterRequest;
 import com.novabank.core.dto.auth.AuthResponse;
+import com.novabank.core.event.UserSecurityChanged;
+import com.novabank.core.exception.TooManyRequestsException;
 import com.novabank.core.model.User;
 import com.novabank.core.repository.UserRepository;
+import com.novabank.core.security.CustomUserDetailsService;
 import com.novabank.core.security.JwtService;
+import com.novabank.core.security.TokenRevocationList;
+import com.novabank.core.security.VerifiedToken;
+import io.jsonwebtoken.JwtException;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.InternalAuthenticationServiceException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
 @Service
 @RequiredArgsConstructor
 public class UserService {
@@ -24,6 +35,9 @@ public class UserService {
     private final AuthenticationManager authenticationManager;
     private final AuditService auditService;
     private final FraudService fraudService;
+    private final CustomUserDetailsService userDetailsService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TokenRevocationList tokenRevocationList;
 
     @Transactional
     public AuthResponse register(RegisterRequest request) {
@@ -55,11 +69,56 @@ public class UserService {
             fraudService.logFailedLogin(request.getUsername());
             auditService.log(request.getUsername(), "LOGIN_FAILED", null, null, "Bad credentials");
             throw ex;
+        } catch (InternalAuthenticationServiceException ex) {
+            // The provider wraps whatever the user lookup throws, including a full hashing pool.
+            if (ex.getCause() instanceof TooManyRequestsException tooMany) {
+                throw tooMany;
+            }
+            throw ex;
         }
-        User user = userRepository.findByUsername(request.getUsername())
-                .orElseThrow(() -> new IllegalArgumentException("User not found"));
+        // Served from the cache the authentication manager just filled.
+        User user = (User) userDetailsService.loadUserByUsername(request.getUsername());
         auditService.log(user.getUsername(), "LOGIN", null, null, "User logged in");
         String token = jwtService.generateToken(user);
         return new AuthResponse(token);
     }
+
+    /**
+     * Invalidates every token issued to the user so far. Token issue times have whole-second precision, so the
+     * cut-off is rounded up to the next second: a token from the same second is revoked too.
+     */
+    @Transactional
+    public Instant revokeTokens(User actor, String username) {
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new IllegalArgumentException("User not found"));
+        Instant notBefore = Instant.now().plusSeconds(1).truncatedTo(ChronoUnit.SECONDS);
+        user.setTokensNotBefore(notBefore);
+        userRepository.save(user);
+        auditService.log(actor.getUsername(), "TOKENS_REVOKE", null, null, "Tokens revoked for " + username);
+        eventPublisher.publishEvent(new UserSecurityChanged(user.getId(), user.getUsername()));
+        return notBefore;
+    }
+
+    /** Revokes the token the caller is using; other sessions of the same user stay valid. */
+    public void logout(User user, String token) {
+        VerifiedToken verified;
+        try {
+            verified = jwtService.verify(token);
+        } catch (JwtException ex) {
+            throw new IllegalArgumentException("Invalid token");
+        }
+        if (verified.tokenId() == null) {
+            throw new IllegalArgumentException("Token cannot be revoked on its own; revoke all of the user's tokens instead");
+        }
+        tokenRevocationList.revoke(verified.tokenId(), user.getUsername(), verified.expiresAt());
+        auditService.log(user.getUsername(), "LOGOUT", null, null, "Token revoked on logout");
+    }
+
+    /** Revokes one token by id. Its expiry is unknown here, so it is kept on the list for a full token lifetime. */
+    public Instant revokeToken(User actor, String tokenId) {
+        Instant expiresAt = Instant.now().plus(jwtService.tokenLifetime());
+        tokenRevocationList.revoke(tokenId, null, expiresAt);
+        auditService.log(actor.getUsername(), "TOKEN_REVOKE", null, null, "Token " + tokenId + " revoked");
+        return expiresAt;
+    }
 }
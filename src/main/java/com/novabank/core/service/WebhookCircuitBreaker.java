@@ -0,0 +1,168 @@
+package com.novabank.core.service;
+
+import com.novabank.core.config.WebhookProperties;
+
+import java.time.Instant;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Circuit breaker and bulkhead for one webhook endpoint. The breaker judges the last {@code window-size}
+ * calls: once at least {@code minimum-calls} are recorded and either the failure rate or the slow-call rate
+ * reaches its threshold, it opens and refuses calls for {@code open-duration-ms}. It then lets
+ * {@code half-open-calls} trial calls through and closes only if all of them succeed in time. The bulkhead
+ * caps concurrent deliveries to the endpoint at {@code max-concurrent}.
+ */
+final class WebhookCircuitBreaker {
+
+    enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final String endpoint;
+    private final WebhookProperties.CircuitBreaker config;
+    private final long slowCallNanos;
+    private final Semaphore bulkhead;
+
+    // Ring buffer of the most recent outcomes while closed.
+    private final boolean[] failedCalls;
+    private final boolean[] slowCalls;
+    private int next;
+    private int recorded;
+    private int failures;
+    private int slow;
+
+    private State state = State.CLOSED;
+    private Instant openUntil = Instant.EPOCH;
+    private int trialsStarted;
+    private int trialsSucceeded;
+
+    WebhookCircuitBreaker(String endpoint, WebhookProperties.CircuitBreaker config) {
+        this.endpoint = endpoint;
+        this.config = config;
+        this.slowCallNanos = TimeUnit.MILLISECONDS.toNanos(config.getSlowCallDurationMs());
+        this.bulkhead = new Semaphore(Math.max(1, config.getMaxConcurrent()));
+        int window = Math.max(1, config.getWindowSize());
+        this.failedCalls = new boolean[window];
+        this.slowCalls = new boolean[window];
+    }
+
+    String endpoint() {
+        return endpoint;
+    }
+
+    /**
+     * Takes a bulkhead slot and asks the breaker for permission. Returns {@code false} when the call must not
+     * be made now; otherwise the caller must report the outcome through {@link #onResult}.
+     */
+    boolean tryAcquire(Instant now) {
+        if (!bulkhead.tryAcquire()) {
+            return false;
+        }
+        if (permit(now)) {
+            return true;
+        }
+        bulkhead.release();
+        return false;
+    }
+
+    void onResult(boolean success, long durationNanos, Instant now) {
+        try {
+            record(success, durationNanos, now);
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    /** Gives back a permission that was granted but never used for a call. */
+    void abandon() {
+        synchronized (this) {
+            if (state == State.HALF_OPEN && trialsStarted > 0) {
+                trialsStarted--;
+            }
+        }
+        bulkhead.release();
+    }
+
+    /** When a call refused by {@link #tryAcquire} is worth trying again. */
+    synchronized Instant retryAt(Instant now) {
+        return state == State.OPEN && openUntil.isAfter(now) ? openUntil : now;
+    }
+
+    synchronized State state() {
+        return state;
+    }
+
+    synchronized double failureRate() {
+        return recorded == 0 ? 0 : 100.0 * failures / recorded;
+    }
+
+    synchronized double slowCallRate() {
+        return recorded == 0 ? 0 : 100.0 * slow / recorded;
+    }
+
+    int availableConcurrentCalls() {
+        return bulkhead.availablePermits();
+    }
+
+    private synchronized boolean permit(Instant now) {
+        if (state == State.OPEN) {
+            if (now.isBefore(openUntil)) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+            trialsStarted = 0;
+            trialsSucceeded = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (trialsStarted >= Math.max(1, config.getHalfOpenCalls())) {
+                return false;
+            }
+            trialsStarted++;
+        }
+        return true;
+    }
+
+    private synchronized void record(boolean success, long durationNanos, Instant now) {
+        boolean isSlow = durationNanos >= slowCallNanos;
+        if (state == State.HALF_OPEN) {
+            if (!success || isSlow) {
+                open(now);
+            } else if (++trialsSucceeded >= Math.max(1, config.getHalfOpenCalls())) {
+                close();
+            }
+            return;
+        }
+        if (state == State.OPEN) {
+            // A call admitted before the breaker opened; it no longer changes anything.
+            return;
+        }
+        if (recorded == failedCalls.length) {
+            failures -= failedCalls[next] ? 1 : 0;
+            slow -= slowCalls[next] ? 1 : 0;
+        } else {
+            recorded++;
+        }
+        failedCalls[next] = !success;
+        slowCalls[next] = isSlow;
+        failures += success ? 0 : 1;
+        slow += isSlow ? 1 : 0;
+        next = (next + 1) % failedCalls.length;
+
+        if (recorded >= Math.max(1, config.getMinimumCalls())
+                && (failureRate() >= config.getFailureRateThreshold() || slowCallRate() >= config.getSlowCallRateThreshold())) {
+            open(now);
+        }
+    }
+
+    private void open(Instant now) {
+        state = State.OPEN;
+        openUntil = now.plusMillis(config.getOpenDurationMs());
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        next = 0;
+        recorded = 0;
+        failures = 0;
+        slow = 0;
+    }
+}
@@ -0,0 +1,278 @@
+package com.novabank.core.service;
+
+import com.novabank.core.config.WebhookProperties;
+import com.novabank.core.model.OutboxEvent;
+import com.novabank.core.repository.OutboxEventRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Delivers outbox events in the background, with one worker per subscriber. Each round claims a batch of the
+ * subscriber's due events in a short transaction (SKIP LOCKED, then a lease via {@code nextAttemptAt}), sends
+ * them concurrently with no transaction open, and records the outcomes in a second transaction. Failures are
+ * retried with exponential backoff until {@code max-attempts}, after which the event is marked DEAD until an
+ * admin replays it. Events for an endpoint whose circuit is open are left pending until the circuit lets calls
+ * through again. With {@code app.notifications.webhook.batching} enabled, events are sent as JSON arrays
+ * instead of one per POST.
+ */
+@Service
+@RequiredArgsConstructor
+public class WebhookDispatcher {
+    private static final Logger log = LoggerFactory.getLogger(WebhookDispatcher.class);
+
+    private final WebhookProperties webhookProperties;
+    private final WebhookService webhookService;
+    private final OutboxEventRepository outboxEventRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final WebhookSubscriptions webhookSubscriptions;
+
+    private final List<ScheduledExecutorService> workers = new ArrayList<>();
+
+    private record Attempt(List<OutboxEvent> events, CompletableFuture<Void> result) {
+    }
+
+    @PostConstruct
+    void start() {
+        if (!webhookProperties.isEnabled()) {
+            return;
+        }
+        long interval = Math.max(1, webhookProperties.getOutbox().getPollIntervalMs());
+        // One worker per subscriber, so a slow receiver only delays its own events.
+        for (WebhookSubscriptions.Subscription subscriber : webhookSubscriptions.all()) {
+            ScheduledExecutorService worker = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "webhook-dispatcher-" + subscriber.name());
+                t.setDaemon(true);
+                return t;
+            });
+            worker.scheduleWithFixedDelay(() -> dispatchQuietly(subscriber), interval, interval, TimeUnit.MILLISECONDS);
+            workers.add(worker);
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        workers.forEach(ExecutorService::shutdownNow);
+    }
+
+    /** Runs one delivery round for every subscriber and returns the number of events delivered. */
+    public int dispatchDue() {
+        int delivered = 0;
+        for (WebhookSubscriptions.Subscription subscriber : webhookSubscriptions.all()) {
+            delivered += dispatchDue(subscriber);
+        }
+        return delivered;
+    }
+
+    private int dispatchDue(WebhookSubscriptions.Subscription subscriber) {
+        WebhookProperties.Outbox config = webhookProperties.getOutbox();
+        transactionTemplate.executeWithoutResult(status -> refreshQueue(subscriber));
+        List<List<OutboxEvent>> chunks = transactionTemplate.execute(status -> claim(subscriber.name(), Instant.now()));
+        if (chunks == null || chunks.isEmpty()) {
+            return 0;
+        }
+
+        // Send every chunk concurrently on the shared client, then collect the outcomes.
+        List<Attempt> attempts = new ArrayList<>(chunks.size());
+        List<OutboxEvent> deferred = new ArrayList<>();
+        for (List<OutboxEvent> chunk : chunks) {
+            try {
+                CompletableFuture<Void> result = !webhookProperties.getBatching().isEnabled()
+                        ? webhookService.deliverAsync(chunk.get(0))
+                        : webhookService.deliverBatchAsync(chunk);
+                if (result == null) {
+                    // Circuit open or bulkhead full: not an attempt, just wait for the endpoint.
+                    Instant retryAt = webhookService.retryAt(chunk.get(0));
+                    chunk.forEach(event -> event.setNextAttemptAt(retryAt));
+                    deferred.addAll(chunk);
+                } else {
+                    attempts.add(new Attempt(chunk, result));
+                }
+            } catch (InterruptedException ex) {
+                // The lease makes the unsent rest of the round due again later.
+                Thread.currentThread().interrupt();
+                break;
+            } catch (RuntimeException ex) {
+                attempts.add(new Attempt(chunk, CompletableFuture.failedFuture(ex)));
+            }
+        }
+
+        int delivered = 0;
+        List<OutboxEvent> finished = new ArrayList<>(deferred);
+        for (Attempt attempt : attempts) {
+            Throwable failure = null;
+            try {
+                attempt.result().join();
+            } catch (CompletionException | CancellationException ex) {
+                failure = ex.getCause() == null ? ex : ex.getCause();
+            }
+            for (OutboxEvent event : attempt.events()) {
+                event.setAttempts(event.getAttempts() + 1);
+                if (failure == null) {
+                    event.setStatus(OutboxEvent.Status.DELIVERED);
+                    event.setDeliveredAt(Instant.now());
+                    event.setLastError(null);
+                    delivered++;
+                } else {
+                    recordFailure(event, failure, config);
+                }
+                finished.add(event);
+            }
+        }
+        transactionTemplate.executeWithoutResult(status -> outboxEventRepository.saveAll(finished));
+        webhookSubscriptions.completed(subscriber,
+                (int) finished.stream().filter(e -> e.getStatus() != OutboxEvent.Status.PENDING).count());
+        return delivered;
+    }
+
+    /**
+     * Claims due events and splits them into deliveries: one event each, or with batching enabled, chunks of
+     * up to {@code max-batch-size} in which each account's events stay together and in the order they were
+     * recorded. A batching round only claims once a full batch is due or the oldest due event has waited
+     * {@code max-linger-ms}.
+     */
+    private List<List<OutboxEvent>> claim(String subscriber, Instant now) {
+        WebhookProperties.Outbox config = webhookProperties.getOutbox();
+        WebhookProperties.Batching batching = webhookProperties.getBatching();
+        if (!batching.isEnabled()) {
+            List<OutboxEvent> due = outboxEventRepository.findDueForUpdate(subscriber, now,
+                    PageRequest.of(0, Math.max(1, config.getBatchSize())));
+            due.forEach(e -> e.setNextAttemptAt(now.plusMillis(config.getLeaseMs())));
+            return due.stream().map(List::of).toList();
+        }
+
+        int maxBatchSize = Math.max(1, batching.getMaxBatchSize());
+        List<OutboxEvent> due = inAccountOrder(subscriber, outboxEventRepository.findDueForUpdate(subscriber, now,
+                PageRequest.of(0, Math.max(config.getBatchSize(), maxBatchSize))));
+        if (due.isEmpty()) {
+            return List.of();
+        }
+        Instant oldest = due.stream().map(OutboxEvent::getCreatedAt).min(Comparator.naturalOrder()).orElse(now);
+        if (due.size() < maxBatchSize && oldest.plusMillis(batching.getMaxLingerMs()).isAfter(now)) {
+            return List.of();
+        }
+
+        // Keep each account's events in one chunk; what does not fit waits for the next round unclaimed.
+        Map<Object, List<OutboxEvent>> byAccount = new LinkedHashMap<>();
+        for (OutboxEvent event : due) {
+            Object key = event.getOrderingKey() == null ? event.getId() : event.getOrderingKey();
+            byAccount.computeIfAbsent(key, k -> new ArrayList<>()).add(event);
+        }
+        List<List<OutboxEvent>> chunks = new ArrayList<>();
+        List<OutboxEvent> chunk = new ArrayList<>();
+        for (List<OutboxEvent> group : byAccount.values()) {
+            List<OutboxEvent> events = group.size() > maxBatchSize ? group.subList(0, maxBatchSize) : group;
+            if (chunk.size() + events.size() > maxBatchSize) {
+                chunks.add(chunk);
+                chunk = new ArrayList<>();
+            }
+            chunk.addAll(events);
+        }
+        chunks.add(chunk);
+        chunks.forEach(c -> c.forEach(e -> e.setNextAttemptAt(now.plusMillis(config.getLeaseMs()))));
+        return chunks;
+    }
+
+    /**
+     * Orders due events as recorded and drops those of any account whose oldest pending event is not among
+     * them (still backing off, or leased by another dispatcher), so an account's events never overtake
+     * each other. Recording order is createdAt with the id as tie-breaker; each node draws its own block of
+     * pooled ids, so ids alone do not follow it.
+     */
+    private List<OutboxEvent> inAccountOrder(String subscriber, List<OutboxEvent> due) {
+        Set<String> keys = due.stream().map(OutboxEvent::getOrderingKey).filter(Objects::nonNull).collect(Collectors.toSet());
+        Set<String> ready = new HashSet<>();
+        if (!keys.isEmpty()) {
+            Set<Long> heads = new HashSet<>(outboxEventRepository.findOldestPendingIds(subscriber, keys));
+            due.stream().filter(e -> heads.contains(e.getId())).forEach(e -> ready.add(e.getOrderingKey()));
+        }
+        return due.stream()
+                .filter(e -> e.getOrderingKey() == null || ready.contains(e.getOrderingKey()))
+                .sorted(Comparator.comparing(OutboxEvent::getCreatedAt).thenComparing(OutboxEvent::getId))
+                .toList();
+    }
+
+    /**
+     * Moves parked events back to PENDING, oldest first, as far as the subscriber's queue has room, and
+     * refreshes the queue counts used for overflow decisions and lag metrics.
+     */
+    private void refreshQueue(WebhookSubscriptions.Subscription subscriber) {
+        String name = subscriber.name();
+        long pending = outboxEventRepository.countBySubscriberAndStatus(name, OutboxEvent.Status.PENDING);
+        long parked = outboxEventRepository.countBySubscriberAndStatus(name, OutboxEvent.Status.PARKED);
+        long room = Math.max(1, subscriber.config().getQueueCapacity()) - pending;
+        if (parked > 0 && room > 0) {
+            int batch = (int) Math.min(room, Math.max(1, webhookProperties.getOutbox().getBatchSize()));
+            List<OutboxEvent> resumed = outboxEventRepository.findBySubscriberAndStatusOrderByCreatedAtAscIdAsc(name,
+                    OutboxEvent.Status.PARKED, PageRequest.of(0, batch));
+            Instant now = Instant.now();
+            resumed.forEach(e -> {
+                e.setStatus(OutboxEvent.Status.PENDING);
+                e.setNextAttemptAt(now);
+            });
+            pending += resumed.size();
+            parked -= resumed.size();
+        }
+        webhookSubscriptions.refresh(subscriber, pending, parked, outboxEventRepository.findOldestPendingCreatedAt(name));
+    }
+
+    /** Puts a dead event back in the queue with a fresh attempt budget. */
+    @Transactional
+    public OutboxEvent replay(Long id) {
+        OutboxEvent event = outboxEventRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Outbox event not found"));
+        if (event.getStatus() != OutboxEvent.Status.DEAD) {
+            throw new IllegalArgumentException("Only dead events can be replayed");
+        }
+        event.setStatus(OutboxEvent.Status.PENDING);
+        event.setAttempts(0);
+        event.setNextAttemptAt(Instant.now());
+        event.setLastError(null);
+        return outboxEventRepository.save(event);
+    }
+
+    private void recordFailure(OutboxEvent event, Throwable ex, WebhookProperties.Outbox config) {
+        String message = ex.getMessage() == null ? ex.getClass().getSimpleName() : ex.getMessage();
+        event.setLastError(message.length() > 255 ? message.substring(0, 255) : message);
+        if (event.getAttempts() >= config.getMaxAttempts()) {
+            event.setStatus(OutboxEvent.Status.DEAD);
+            log.warn("Webhook event {} ({}) is dead after {} attempts: {}", event.getId(), event.getEventType(),
+                    event.getAttempts(), message);
+            return;
+        }
+        long backoff = config.getInitialBackoffMs() << Math.min(event.getAttempts() - 1, 30);
+        event.setNextAttemptAt(Instant.now().plusMillis(Math.min(backoff, config.getMaxBackoffMs())));
+    }
+
+    private void dispatchQuietly(WebhookSubscriptions.Subscription subscriber) {
+        try {
+            dispatchDue(subscriber);
+        } catch (RuntimeException ex) {
+            log.error("Webhook dispatch to {} failed: {}", subscriber.name(), ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.novabank.core.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Reports the circuit breaker of every webhook endpoint under {@code /actuator/health}. The application stays
+ * UP while a receiver is down, because events are kept in the outbox until the circuit closes again.
+ */
+@Component
+@RequiredArgsConstructor
+public class WebhookHealthIndicator implements HealthIndicator {
+    private final WebhookService webhookService;
+
+    @Override
+    public Health health() {
+        Health.Builder health = Health.up();
+        for (WebhookCircuitBreaker breaker : webhookService.circuitBreakers()) {
+            Map<String, Object> details = new LinkedHashMap<>();
+            details.put("state", breaker.state());
+            details.put("failureRate", breaker.failureRate());
+            details.put("slowCallRate", breaker.slowCallRate());
+            details.put("availableConcurrentCalls", breaker.availableConcurrentCalls());
+            health.withDetail(breaker.endpoint(), details);
+        }
+        return health.build();
+    }
+}
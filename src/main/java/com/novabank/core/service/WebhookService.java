@@ -1,36 +1,112 @@
 package com.novabank.core.service;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.novabank.core.config.WebhookProperties;
+import com.novabank.core.model.OutboxEvent;
+import com.novabank.core.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Service
 @RequiredArgsConstructor
 public class WebhookService {
     private static final Logger log = LoggerFactory.getLogger(WebhookService.class);
+    private static final int MAX_RETAINED_BUFFER_BYTES = 1 << 20;
 
     private final WebhookProperties webhookProperties;
     private final ObjectMapper objectMapper;
+    private final OutboxEventRepository outboxEventRepository;
+    private final MeterRegistry meterRegistry;
+    private final WebhookSubscriptions webhookSubscriptions;
 
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Map<String, WebhookCircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
+    // Batches are serialized into a per-thread buffer that is reused unless a batch made it unusually large.
+    private final ThreadLocal<ByteArrayOutputStream> batchBuffer = ThreadLocal.withInitial(() -> new ByteArrayOutputStream(8192));
+    private ExecutorService httpExecutor;
+    private HttpClient httpClient;
+    private Semaphore inFlightPermits;
+    private Timer delivered;
+    private Timer failed;
+
+    /**
+     * One client for the lifetime of the application, so connections (and TLS sessions) to the receiver are
+     * pooled and kept alive across events instead of being set up for every delivery.
+     */
+    @PostConstruct
+    void start() {
+        AtomicInteger threadIds = new AtomicInteger();
+        httpExecutor = Executors.newFixedThreadPool(Math.max(1, webhookProperties.getClientThreads()), r -> {
+            Thread t = new Thread(r, "webhook-http-" + threadIds.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(Duration.ofMillis(webhookProperties.getConnectTimeoutMs()))
+                .executor(httpExecutor)
+                .build();
+        inFlightPermits = new Semaphore(Math.max(1, webhookProperties.getMaxInFlight()));
+        meterRegistry.gauge("novabank.webhook.in_flight", inFlight);
+        delivered = deliveryTimer("success");
+        failed = deliveryTimer("failure");
+    }
+
+    @PreDestroy
+    void stop() {
+        httpExecutor.shutdownNow();
+    }
+
+    /**
+     * Records the event in the outbox, once for every subscriber whose filter accepts its type, as part of the
+     * caller's transaction. Nothing is sent here; the {@link WebhookDispatcher} delivers each copy once the
+     * transaction has committed. A subscriber whose queue is full gets the event parked or not at all,
+     * depending on its overflow policy.
+     */
+    @Transactional
     public void notifyEvent(String eventType, Map<String, Object> payload) {
         if (!webhookProperties.isEnabled()) {
             return;
         }
-        String url = webhookProperties.getUrl();
-        if (url == null || url.isBlank()) {
-            log.warn("Webhook is enabled but no URL is configured. Skipping event {}", eventType);
+        if (webhookSubscriptions.all().isEmpty()) {
+            log.warn("Webhook is enabled but no URL or subscriber is configured. Skipping event {}", eventType);
+            return;
+        }
+        List<WebhookSubscriptions.Subscription> subscribers = webhookSubscriptions.matching(eventType);
+        if (subscribers.isEmpty()) {
             return;
         }
 
@@ -38,30 +114,156 @@ public class WebhookService {
         envelope.put("eventType", eventType);
         envelope.put("occurredAt", Instant.now().toString());
         envelope.put("payload", payload);
-
+        String json;
         try {
-            String body = objectMapper.writeValueAsString(envelope);
-            HttpClient client = HttpClient.newBuilder()
-                    .connectTimeout(Duration.ofMillis(webhookProperties.getConnectTimeoutMs()))
-                    .build();
-
-            HttpRequest.Builder reqBuilder = HttpRequest.newBuilder()
-                    .uri(URI.create(url))
-                    .timeout(Duration.ofMillis(webhookProperties.getReadTimeoutMs()))
-                    .header("Content-Type", "application/json")
-                    .POST(HttpRequest.BodyPublishers.ofString(body));
-
-            String apiKey = webhookProperties.getApiKey();
-            if (apiKey != null && !apiKey.isBlank()) {
-                reqBuilder.header("X-Api-Key", apiKey);
+            json = objectMapper.writeValueAsString(envelope);
+        } catch (JsonProcessingException ex) {
+            log.warn("Webhook payload for event {} could not be serialized: {}", eventType, ex.getMessage());
+            return;
+        }
+        Object account = payload.containsKey("accountNumber") ? payload.get("accountNumber") : payload.get("fromAccount");
+
+        List<OutboxEvent> events = new ArrayList<>(subscribers.size());
+        for (WebhookSubscriptions.Subscription subscriber : subscribers) {
+            boolean park = subscriber.overflowing();
+            if (park && subscriber.config().getOverflow() == WebhookProperties.OverflowPolicy.DROP) {
+                meterRegistry.counter("novabank.webhook.subscriber.dropped", "subscriber", subscriber.name()).increment();
+                log.debug("Dropping event {} for subscriber {}: queue is full", eventType, subscriber.name());
+                continue;
             }
+            OutboxEvent event = new OutboxEvent();
+            event.setSubscriber(subscriber.name());
+            event.setEventType(eventType);
+            event.setOrderingKey(account == null ? null : account.toString());
+            event.setPayload(json);
+            event.setStatus(park ? OutboxEvent.Status.PARKED : OutboxEvent.Status.PENDING);
+            event.setNextAttemptAt(Instant.now());
+            events.add(event);
+            webhookSubscriptions.recorded(subscriber, park);
+        }
+        outboxEventRepository.saveAll(events);
+    }
 
-            HttpResponse<Void> response = client.send(reqBuilder.build(), HttpResponse.BodyHandlers.discarding());
-            if (response.statusCode() >= 400) {
-                log.warn("Webhook call failed with status {} for event {}", response.statusCode(), eventType);
+    /**
+     * Starts sending one recorded event. Returns {@code null} without sending when the endpoint's circuit is
+     * open or its bulkhead is full; the caller should park the event until {@link #retryAt}. Otherwise blocks
+     * only while {@code max-in-flight} deliveries are already outstanding, and the returned future fails when
+     * the receiver cannot be reached or rejects the event.
+     */
+    CompletableFuture<Void> deliverAsync(OutboxEvent event) throws InterruptedException {
+        return send(subscription(event), HttpRequest.BodyPublishers.ofString(event.getPayload()));
+    }
+
+    /**
+     * Like {@link #deliverAsync}, for several events of one subscriber sent as one JSON array in the given
+     * order.
+     */
+    CompletableFuture<Void> deliverBatchAsync(List<OutboxEvent> events) throws InterruptedException {
+        WebhookSubscriptions.Subscription subscriber = subscription(events.get(0));
+        ByteArrayOutputStream buffer = batchBuffer.get();
+        buffer.reset();
+        try (JsonGenerator json = objectMapper.getFactory().createGenerator(buffer)) {
+            json.writeStartArray();
+            for (OutboxEvent event : events) {
+                json.writeRawValue(event.getPayload());
             }
-        } catch (Exception ex) {
-            log.warn("Webhook call failed for event {}: {}", eventType, ex.getMessage());
+            json.writeEndArray();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        byte[] body = buffer.toByteArray();
+        if (buffer.size() > MAX_RETAINED_BUFFER_BYTES) {
+            batchBuffer.remove();
         }
+        return send(subscriber, HttpRequest.BodyPublishers.ofByteArray(body));
+    }
+
+    private CompletableFuture<Void> send(WebhookSubscriptions.Subscription subscriber, HttpRequest.BodyPublisher body)
+            throws InterruptedException {
+        String url = subscriber.url();
+        HttpRequest.Builder reqBuilder = HttpRequest.newBuilder()
+                .uri(URI.create(url))
+                .timeout(Duration.ofMillis(webhookProperties.getReadTimeoutMs()))
+                .header("Content-Type", "application/json")
+                .POST(body);
+
+        String apiKey = subscriber.apiKey();
+        if (apiKey != null && !apiKey.isBlank()) {
+            reqBuilder.header("X-Api-Key", apiKey);
+        }
+        HttpRequest request = reqBuilder.build();
+
+        WebhookCircuitBreaker breaker = circuitBreaker(url);
+        if (!breaker.tryAcquire(Instant.now())) {
+            return null;
+        }
+        try {
+            inFlightPermits.acquire();
+        } catch (InterruptedException ex) {
+            breaker.abandon();
+            throw ex;
+        }
+        inFlight.incrementAndGet();
+        long started = System.nanoTime();
+        CompletableFuture<HttpResponse<Void>> sent;
+        try {
+            sent = httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding());
+        } catch (RuntimeException ex) {
+            finished(breaker, started, false);
+            throw ex;
+        }
+        return sent.handle((response, error) -> {
+            boolean ok = error == null && response.statusCode() < 400;
+            finished(breaker, started, ok);
+            if (error != null) {
+                throw error instanceof CompletionException ce ? ce : new CompletionException(error);
+            }
+            if (!ok) {
+                throw new CompletionException(new IOException("Receiver answered with status " + response.statusCode()));
+            }
+            return null;
+        });
+    }
+
+    /** When an event that {@link #deliverAsync} declined should be tried again. */
+    Instant retryAt(OutboxEvent event) {
+        return circuitBreaker(subscription(event).url()).retryAt(Instant.now());
+    }
+
+    private WebhookSubscriptions.Subscription subscription(OutboxEvent event) {
+        WebhookSubscriptions.Subscription subscriber = webhookSubscriptions.get(event.getSubscriber());
+        if (subscriber == null) {
+            throw new IllegalStateException("Webhook subscriber " + event.getSubscriber() + " is not configured");
+        }
+        return subscriber;
+    }
+
+    Collection<WebhookCircuitBreaker> circuitBreakers() {
+        return circuitBreakers.values();
+    }
+
+    private WebhookCircuitBreaker circuitBreaker(String url) {
+        return circuitBreakers.computeIfAbsent(url, endpoint -> {
+            WebhookCircuitBreaker breaker = new WebhookCircuitBreaker(endpoint, webhookProperties.getCircuitBreaker());
+            meterRegistry.gauge("novabank.webhook.circuit.state", Tags.of("endpoint", endpoint), breaker,
+                    b -> b.state().ordinal());
+            return breaker;
+        });
+    }
+
+    private void finished(WebhookCircuitBreaker breaker, long started, boolean ok) {
+        long elapsed = System.nanoTime() - started;
+        (ok ? delivered : failed).record(elapsed, TimeUnit.NANOSECONDS);
+        breaker.onResult(ok, elapsed, Instant.now());
+        inFlight.decrementAndGet();
+        inFlightPermits.release();
+    }
+
+    private Timer deliveryTimer(String outcome) {
+        return Timer.builder("novabank.webhook.delivery")
+                .description("Webhook delivery latency by outcome")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
     }
 }
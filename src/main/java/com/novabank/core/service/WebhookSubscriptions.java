@@ -0,0 +1,148 @@
+package com.novabank.core.service;
+
+import com.novabank.core.config.WebhookProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The webhook subscribers, with the queue state of each: how many of its outbox events are pending or parked
+ * and how old the oldest pending one is. The counts are refreshed by the subscriber's dispatcher worker and
+ * bumped as events are recorded, so overflow decisions take no query on the business transaction.
+ */
+@Component
+@RequiredArgsConstructor
+public class WebhookSubscriptions {
+    public static final String DEFAULT_SUBSCRIBER = "default";
+
+    private final WebhookProperties webhookProperties;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, Subscription> subscriptions = new LinkedHashMap<>();
+
+    static final class Subscription {
+        private final WebhookProperties.Subscriber config;
+        private final AtomicLong pending = new AtomicLong();
+        private final AtomicLong parked = new AtomicLong();
+        private volatile Instant oldestPending;
+
+        private Subscription(WebhookProperties.Subscriber config) {
+            this.config = config;
+        }
+
+        String name() {
+            return config.getName();
+        }
+
+        String url() {
+            return config.getUrl();
+        }
+
+        String apiKey() {
+            return config.getApiKey();
+        }
+
+        WebhookProperties.Subscriber config() {
+            return config;
+        }
+
+        boolean accepts(String eventType) {
+            return config.getEventTypes().isEmpty() || config.getEventTypes().contains(eventType);
+        }
+
+        /** Whether a new event should be held back: the queue is full, or earlier events are already parked. */
+        boolean overflowing() {
+            return pending.get() >= Math.max(1, config.getQueueCapacity()) || parked.get() > 0;
+        }
+
+        long pending() {
+            return pending.get();
+        }
+
+        long parked() {
+            return parked.get();
+        }
+
+        double lagSeconds() {
+            Instant oldest = oldestPending;
+            return oldest == null ? 0 : Math.max(0, Instant.now().toEpochMilli() - oldest.toEpochMilli()) / 1000.0;
+        }
+    }
+
+    @PostConstruct
+    void register() {
+        String url = webhookProperties.getUrl();
+        if (url != null && !url.isBlank()) {
+            WebhookProperties.Subscriber legacy = new WebhookProperties.Subscriber();
+            legacy.setName(DEFAULT_SUBSCRIBER);
+            legacy.setUrl(url);
+            legacy.setApiKey(webhookProperties.getApiKey());
+            add(legacy);
+        }
+        webhookProperties.getSubscribers().forEach(this::add);
+    }
+
+    List<Subscription> all() {
+        return new ArrayList<>(subscriptions.values());
+    }
+
+    /** The subscription with the given name, or {@code null} if it is no longer configured. */
+    Subscription get(String name) {
+        return subscriptions.get(name);
+    }
+
+    List<Subscription> matching(String eventType) {
+        return subscriptions.values().stream().filter(s -> s.accepts(eventType)).toList();
+    }
+
+    void recorded(Subscription subscription, boolean parked) {
+        (parked ? subscription.parked : subscription.pending).incrementAndGet();
+    }
+
+    /** Events that left the pending queue: delivered, or given up on. */
+    void completed(Subscription subscription, int events) {
+        subscription.pending.updateAndGet(n -> Math.max(0, n - events));
+    }
+
+    void refresh(Subscription subscription, long pending, long parked, Instant oldestPending) {
+        subscription.pending.set(pending);
+        subscription.parked.set(parked);
+        subscription.oldestPending = oldestPending;
+    }
+
+    private void add(WebhookProperties.Subscriber config) {
+        if (config.getName() == null || config.getName().isBlank()) {
+            throw new IllegalStateException("Every webhook subscriber needs a name");
+        }
+        if (config.getUrl() == null || config.getUrl().isBlank()) {
+            throw new IllegalStateException("Webhook subscriber " + config.getName() + " has no URL");
+        }
+        if (subscriptions.containsKey(config.getName())) {
+            throw new IllegalStateException("Duplicate webhook subscriber " + config.getName());
+        }
+        Subscription subscription = new Subscription(config);
+        subscriptions.put(config.getName(), subscription);
+        Gauge.builder("novabank.webhook.subscriber.pending", subscription, Subscription::pending)
+                .description("Outbox events waiting for delivery to the subscriber")
+                .tag("subscriber", config.getName())
+                .register(meterRegistry);
+        Gauge.builder("novabank.webhook.subscriber.parked", subscription, Subscription::parked)
+                .description("Events held back because the subscriber's queue was full")
+                .tag("subscriber", config.getName())
+                .register(meterRegistry);
+        Gauge.builder("novabank.webhook.subscriber.lag", subscription, Subscription::lagSeconds)
+                .description("Age in seconds of the subscriber's oldest pending event")
+                .tag("subscriber", config.getName())
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+}
@@ -4,7 +4,9 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.novabank.core.dto.auth.LoginRequest;
 import com.novabank.core.dto.auth.RegisterRequest;
+import com.novabank.core.model.AuditLog;
 import com.novabank.core.model.Role;
+import com.novabank.core.repository.AuditLogRepository;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -14,6 +16,8 @@ import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 
+import java.util.List;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
@@ -34,6 +38,8 @@ class AdminAccountManagementTests {
     private MockMvc mockMvc;
     @Autowired
     private ObjectMapper objectMapper;
+    @Autowired
+    private AuditLogRepository auditLogRepository;
 
     private String registerAndLoginCustomer(String username) throws Exception {
         RegisterRequest rr = new RegisterRequest();
@@ -57,6 +63,14 @@ class AdminAccountManagementTests {
         return objectMapper.readTree(res.getResponse().getContentAsString()).get("token").asText();
     }
 
+    private List<String> statusAuditActions(String accountNumber) {
+        return auditLogRepository.findAll().stream()
+                .filter(a -> accountNumber.equals(a.getAccountNumber()))
+                .map(AuditLog::getAction)
+                .filter(action -> action.equals("ACCOUNT_FREEZE") || action.equals("ACCOUNT_ACTIVATE"))
+                .toList();
+    }
+
     private String loginAdmin() throws Exception {
         LoginRequest lr = new LoginRequest();
         lr.setUsername("admin");
@@ -98,6 +112,44 @@ class AdminAccountManagementTests {
         assertThat(error.get("message").asText()).contains("inactive");
     }
 
+    @Test
+    void freezeAndReactivateAreBothAuditedAfterCommit() throws Exception {
+        String username = "statusaudit_" + System.nanoTime();
+        String customerToken = registerAndLoginCustomer(username);
+        String adminToken = loginAdmin();
+
+        MvcResult created = mockMvc.perform(post("/api/accounts")
+                        .header("Authorization", "Bearer " + customerToken))
+                .andExpect(status().isOk())
+                .andReturn();
+        String accountNumber = objectMapper.readTree(created.getResponse().getContentAsString()).get("accountNumber").asText();
+
+        mockMvc.perform(patch("/api/admin/accounts/{accountNumber}/status", accountNumber)
+                        .header("Authorization", "Bearer " + adminToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"active\":false,\"reason\":\"chargeback review\"}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(patch("/api/admin/accounts/{accountNumber}/status", accountNumber)
+                        .header("Authorization", "Bearer " + adminToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"active\":true}"))
+                .andExpect(status().isOk());
+
+        // The audit rows are written by the async event listener, not by the request thread.
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (statusAuditActions(accountNumber).size() < 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(statusAuditActions(accountNumber)).containsExactlyInAnyOrder("ACCOUNT_FREEZE", "ACCOUNT_ACTIVATE");
+        assertThat(auditLogRepository.findAll())
+                .filteredOn(a -> accountNumber.equals(a.getAccountNumber()) && "ACCOUNT_FREEZE".equals(a.getAction()))
+                .singleElement()
+                .satisfies(a -> {
+                    assertThat(a.getActor()).isEqualTo("admin");
+                    assertThat(a.getDetails()).contains("inactive").contains("chargeback review");
+                });
+    }
+
     @Test
     void adminCanListAccountsWithFilters() throws Exception {
         String username = "adminlist_" + System.nanoTime();
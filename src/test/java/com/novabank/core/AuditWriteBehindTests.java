@@ -0,0 +1,88 @@
+package com.novabank.core;
+
+import com.novabank.core.model.AuditLog;
+import com.novabank.core.repository.AuditLogRepository;
+import com.novabank.core.service.AuditService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:testauditwritebehind;DB_CLOSE_DELAY=-1;MODE=PostgreSQL",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "app.audit.write-behind.enabled=true",
+        "app.audit.write-behind.queue-capacity=3",
+        "app.audit.write-behind.batch-size=2",
+        // Flushes are driven by the tests.
+        "app.audit.write-behind.flush-interval-ms=3600000"
+})
+class AuditWriteBehindTests {
+
+    @Autowired
+    private AuditService auditService;
+    @Autowired
+    private AuditLogRepository auditLogRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    void drain() {
+        auditService.flush();
+    }
+
+    private List<AuditLog> entriesBy(String actor) {
+        return auditLogRepository.findAll().stream().filter(a -> a.getActor().equals(actor)).toList();
+    }
+
+    @Test
+    void entriesAreWrittenByTheFlushWithTheirOriginalTimestamp() {
+        String actor = "audit_" + System.nanoTime();
+        Instant before = Instant.now();
+        auditService.log(actor, "LOGIN", null, null, "User logged in");
+        auditService.log(actor, "LOGIN", null, null, "User logged in");
+        auditService.log(actor, "LOGIN", null, null, "User logged in");
+        assertThat(entriesBy(actor)).isEmpty();
+
+        assertThat(auditService.flush()).isEqualTo(3);
+        List<AuditLog> written = entriesBy(actor);
+        assertThat(written).hasSize(3);
+        assertThat(written).allMatch(a -> !a.getCreatedAt().isBefore(before) && a.getId() != null);
+    }
+
+    @Test
+    void aFullQueueFallsBackToSynchronousWrites() {
+        String actor = "audit_" + System.nanoTime();
+        for (int i = 0; i < 4; i++) {
+            auditService.log(actor, "LOGIN", null, null, "User logged in " + i);
+        }
+        assertThat(entriesBy(actor)).extracting(AuditLog::getDetails).containsExactly("User logged in 3");
+
+        auditService.flush();
+        assertThat(entriesBy(actor)).hasSize(4);
+    }
+
+    @Test
+    void entriesFromARolledBackTransactionAreNeverQueued() {
+        String actor = "audit_" + System.nanoTime();
+        transactionTemplate.executeWithoutResult(status -> {
+            auditService.log(actor, "ACCOUNT_CREATE", null, null, "Account created");
+            status.setRollbackOnly();
+        });
+        transactionTemplate.executeWithoutResult(status ->
+                auditService.log(actor, "ACCOUNT_FREEZE", null, null, "Account frozen"));
+
+        auditService.flush();
+        assertThat(entriesBy(actor)).extracting(AuditLog::getAction).containsExactly("ACCOUNT_FREEZE");
+    }
+}
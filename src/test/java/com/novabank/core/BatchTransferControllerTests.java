@@ -0,0 +1,220 @@
+package com.novabank.core;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.novabank.core.dto.auth.LoginRequest;
+import com.novabank.core.dto.auth.RegisterRequest;
+import com.novabank.core.dto.transaction.BatchTransferItem;
+import com.novabank.core.dto.transaction.BatchTransferItemResult;
+import com.novabank.core.dto.transaction.BatchTransferRequest;
+import com.novabank.core.dto.transaction.BatchTransferResponse;
+import com.novabank.core.dto.transaction.DepositWithdrawRequest;
+import com.novabank.core.model.Role;
+import com.novabank.core.model.User;
+import com.novabank.core.repository.AccountRepository;
+import com.novabank.core.repository.TransferIdempotencyRecordRepository;
+import com.novabank.core.repository.UserRepository;
+import com.novabank.core.service.AccountService;
+import com.novabank.core.service.TransactionService;
+import com.novabank.core.service.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.reset;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:testbatchtransfer;DB_CLOSE_DELAY=-1;MODE=PostgreSQL",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class BatchTransferControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private String registerAndLoginCustomer(String username) throws Exception {
+        RegisterRequest rr = new RegisterRequest();
+        rr.setUsername(username);
+        rr.setEmail(username + "@example.com");
+        rr.setPassword("password123");
+        rr.setRole(Role.CUSTOMER);
+        mockMvc.perform(post("/api/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(rr)))
+                .andExpect(status().isOk());
+
+        LoginRequest lr = new LoginRequest();
+        lr.setUsername(username);
+        lr.setPassword("password123");
+        MvcResult res = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(lr)))
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper.readTree(res.getResponse().getContentAsString()).get("token").asText();
+    }
+
+    private String createAccount(String token) throws Exception {
+        MvcResult created = mockMvc.perform(post("/api/accounts")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper.readTree(created.getResponse().getContentAsString()).get("accountNumber").asText();
+    }
+
+    private BatchTransferItem item(String from, String to, String amount, String key) {
+        BatchTransferItem item = new BatchTransferItem();
+        item.setFromAccount(from);
+        item.setToAccount(to);
+        item.setAmount(new BigDecimal(amount));
+        item.setIdempotencyKey(key);
+        return item;
+    }
+
+    private JsonNode postBatch(String token, BatchTransferRequest request) throws Exception {
+        MvcResult res = mockMvc.perform(post("/api/transactions/transfers/batch")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper.readTree(res.getResponse().getContentAsString());
+    }
+
+    private BigDecimal balanceOf(String token, String accountNumber) throws Exception {
+        MvcResult accounts = mockMvc.perform(get("/api/accounts")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andReturn();
+        for (JsonNode node : objectMapper.readTree(accounts.getResponse().getContentAsString())) {
+            if (accountNumber.equals(node.get("accountNumber").asText())) {
+                return node.get("balance").decimalValue();
+            }
+        }
+        throw new AssertionError("Account not listed: " + accountNumber);
+    }
+
+    @Test
+    void batchAppliesItemsIndependentlyAndReplaysKeyedItems() throws Exception {
+        String username = "batch_" + System.nanoTime();
+        String token = registerAndLoginCustomer(username);
+        String from = createAccount(token);
+        String to = createAccount(token);
+
+        DepositWithdrawRequest dep = new DepositWithdrawRequest();
+        dep.setAccountNumber(from);
+        dep.setAmount(new BigDecimal("100.00"));
+        dep.setNote("seed");
+        mockMvc.perform(post("/api/accounts/deposit")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dep)))
+                .andExpect(status().isOk());
+
+        BatchTransferRequest batch = new BatchTransferRequest();
+        batch.setTransfers(List.of(
+                item(from, to, "30.00", "pay-1"),
+                item(from, to, "500.00", "pay-2"),
+                item(to, from, "10.00", null),
+                item(from, to, "20.00", "pay-3")
+        ));
+
+        JsonNode first = postBatch(token, batch);
+        assertThat(first.get("total").asInt()).isEqualTo(4);
+        assertThat(first.get("succeeded").asInt()).isEqualTo(3);
+        JsonNode results = first.get("results");
+        assertThat(results.get(0).get("status").asText()).isEqualTo("COMPLETED");
+        assertThat(results.get(1).get("status").asText()).isEqualTo("FAILED");
+        assertThat(results.get(1).get("errorMessage").asText()).contains("Insufficient");
+        assertThat(results.get(2).get("status").asText()).isEqualTo("COMPLETED");
+        assertThat(results.get(3).get("status").asText()).isEqualTo("COMPLETED");
+        assertThat(balanceOf(token, from)).isEqualByComparingTo("60.00");
+        assertThat(balanceOf(token, to)).isEqualByComparingTo("40.00");
+
+        batch.setTransfers(List.of(item(from, to, "30.00", "pay-1"), item(from, to, "25.00", "pay-3")));
+        JsonNode retry = postBatch(token, batch);
+        assertThat(retry.get("results").get(0).get("status").asText()).isEqualTo("REPLAYED");
+        assertThat(retry.get("results").get(0).get("reference").asText())
+                .isEqualTo(results.get(0).get("reference").asText());
+        assertThat(retry.get("results").get(1).get("status").asText()).isEqualTo("FAILED");
+        assertThat(balanceOf(token, from)).isEqualByComparingTo("60.00");
+    }
+
+    // The chunk's key lookup misses a key that another request commits before the chunk does.
+    @Nested
+    @TestPropertySource(properties = "spring.datasource.url=jdbc:h2:mem:testbatchtransfer_keyrace;DB_CLOSE_DELAY=-1;MODE=PostgreSQL")
+    class KeyRace {
+        @Autowired
+        private UserService userService;
+        @Autowired
+        private UserRepository userRepository;
+        @Autowired
+        private AccountService accountService;
+        @Autowired
+        private AccountRepository accountRepository;
+        @Autowired
+        private TransactionService transactionService;
+        @SpyBean
+        private TransferIdempotencyRecordRepository idempotencyRecordRepository;
+
+        @AfterEach
+        void restoreLookups() {
+            reset(idempotencyRecordRepository);
+        }
+
+        @Test
+        void onlyTheCollidingItemIsAffectedWhenAChunkRollsBack() {
+            String unique = "race_" + System.nanoTime();
+            RegisterRequest rr = new RegisterRequest();
+            rr.setUsername(unique);
+            rr.setEmail(unique + "@example.com");
+            rr.setPassword("password123");
+            rr.setRole(Role.CUSTOMER);
+            userService.register(rr);
+            User user = userRepository.findByUsername(unique).orElseThrow();
+            String from = accountService.createAccount(user).getAccountNumber();
+            String to = accountService.createAccount(user).getAccountNumber();
+            accountService.deposit(user, from, new BigDecimal("100.00"), "seed");
+            String earlier = transactionService.transferBatch(user, List.of(item(from, to, "10.00", "shared")))
+                    .getResults().get(0).getReference();
+
+            doReturn(List.of()).when(idempotencyRecordRepository).findByActorUsernameAndIdempotencyKeyIn(any(), anyCollection());
+            BatchTransferResponse response = transactionService.transferBatch(user, List.of(
+                    item(from, to, "10.00", "shared"),
+                    item(from, to, "5.00", "fresh"),
+                    item(to, from, "1.00", null)));
+
+            List<BatchTransferItemResult> results = response.getResults();
+            assertThat(results).extracting(BatchTransferItemResult::getStatus).containsExactly(
+                    BatchTransferItemResult.Status.REPLAYED,
+                    BatchTransferItemResult.Status.COMPLETED,
+                    BatchTransferItemResult.Status.COMPLETED);
+            assertThat(results.get(0).getReference()).isEqualTo(earlier);
+            assertThat(accountRepository.findByAccountNumber(from).orElseThrow().getBalance()).isEqualByComparingTo("86.00");
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.novabank.core;
+
+import com.novabank.core.config.AsyncConfig;
+import com.novabank.core.dto.auth.RegisterRequest;
+import com.novabank.core.model.AuditLog;
+import com.novabank.core.model.FraudLog;
+import com.novabank.core.model.Role;
+import com.novabank.core.model.User;
+import com.novabank.core.repository.AuditLogRepository;
+import com.novabank.core.repository.FraudLogRepository;
+import com.novabank.core.repository.UserRepository;
+import com.novabank.core.service.AccountService;
+import com.novabank.core.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:testdomainevents;DB_CLOSE_DELAY=-1;MODE=PostgreSQL",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "app.events.threads=1",
+        "app.events.queue-capacity=1"
+})
+class DomainEventExecutorTests {
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private AccountService accountService;
+    @Autowired
+    private AuditLogRepository auditLogRepository;
+    @Autowired
+    private FraudLogRepository fraudLogRepository;
+    @Autowired
+    @Qualifier(AsyncConfig.DOMAIN_EVENT_EXECUTOR)
+    private ThreadPoolTaskExecutor domainEventExecutor;
+
+    private User bootstrapUser() {
+        String unique = "ivy_" + System.nanoTime();
+        RegisterRequest rr = new RegisterRequest();
+        rr.setUsername(unique);
+        rr.setEmail(unique + "@example.com");
+        rr.setPassword("password123");
+        rr.setRole(Role.CUSTOMER);
+        userService.register(rr);
+        return userRepository.findByUsername(unique).orElseThrow();
+    }
+
+    @Test
+    void handlersRunOnThePublishingThreadStillWriteWhenTheExecutorIsFull() throws Exception {
+        User user = bootstrapUser();
+        String account = accountService.createAccount(user).getAccountNumber();
+
+        // One worker busy and one task queued: the next event handler is run by the caller, inside afterCommit.
+        CountDownLatch release = new CountDownLatch(1);
+        Runnable blocker = () -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        domainEventExecutor.execute(blocker);
+        domainEventExecutor.execute(blocker);
+        try {
+            accountService.deposit(user, account, new BigDecimal("10000.00"), "large");
+
+            assertThat(auditLogRepository.findAll())
+                    .filteredOn(a -> account.equals(a.getAccountNumber()))
+                    .extracting(AuditLog::getAction)
+                    .contains("DEPOSIT");
+            assertThat(fraudLogRepository.findAll())
+                    .filteredOn(f -> account.equals(f.getAccountNumber()))
+                    .extracting(FraudLog::getEventType)
+                    .containsExactly("LARGE_DEPOSIT");
+        } finally {
+            release.countDown();
+        }
+    }
+}
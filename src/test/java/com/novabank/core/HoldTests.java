@@ -0,0 +1,227 @@
+package com.novabank.core;
+
+import com.novabank.core.config.TransactionProperties;
+import com.novabank.core.dto.account.HoldRequest;
+import com.novabank.core.dto.account.HoldResponse;
+import com.novabank.core.dto.auth.RegisterRequest;
+import com.novabank.core.model.AccountHold;
+import com.novabank.core.model.AuditLog;
+import com.novabank.core.model.Role;
+import com.novabank.core.model.User;
+import com.novabank.core.repository.AccountHoldRepository;
+import com.novabank.core.repository.AccountRepository;
+import com.novabank.core.repository.AuditLogRepository;
+import com.novabank.core.repository.UserRepository;
+import com.novabank.core.service.AccountService;
+import com.novabank.core.service.HoldService;
+import com.novabank.core.service.LedgerService;
+import com.novabank.core.service.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:testholds;DB_CLOSE_DELAY=-1;MODE=PostgreSQL",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class HoldTests {
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private AccountService accountService;
+    @Autowired
+    private HoldService holdService;
+    @Autowired
+    private AccountHoldRepository holdRepository;
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private LedgerService ledgerService;
+    @Autowired
+    private TransactionProperties transactionProperties;
+    @Autowired
+    private AuditLogRepository auditLogRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final TransactionProperties.LockMode defaultLockMode = new TransactionProperties().getLockMode();
+
+    @AfterEach
+    void restoreLockMode() {
+        transactionProperties.setLockMode(defaultLockMode);
+    }
+
+    private User bootstrapUser() {
+        return bootstrapUser(userService, userRepository);
+    }
+
+    private static User bootstrapUser(UserService userService, UserRepository userRepository) {
+        String unique = "heidi_" + System.nanoTime();
+        RegisterRequest rr = new RegisterRequest();
+        rr.setUsername(unique);
+        rr.setEmail(unique + "@example.com");
+        rr.setPassword("password123");
+        rr.setRole(Role.CUSTOMER);
+        userService.register(rr);
+        return userRepository.findByUsername(unique).orElseThrow();
+    }
+
+    private HoldRequest holdRequest(String amount, String toAccount) {
+        HoldRequest request = new HoldRequest();
+        request.setAmount(new BigDecimal(amount));
+        request.setToAccount(toAccount);
+        return request;
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = TransactionProperties.LockMode.class, names = {"PESSIMISTIC", "ATOMIC"})
+    void heldFundsAreUnavailableUntilCaptured(TransactionProperties.LockMode lockMode) {
+        transactionProperties.setLockMode(lockMode);
+        User user = bootstrapUser();
+        String a = accountService.createAccount(user).getAccountNumber();
+        String b = accountService.createAccount(user).getAccountNumber();
+        accountService.deposit(user, a, new BigDecimal("100.00"), "seed");
+
+        HoldResponse hold = holdService.placeHold(user, a, holdRequest("60.00", b));
+        assertThat(hold.getStatus()).isEqualTo(AccountHold.Status.ACTIVE);
+        assertThatThrownBy(() -> accountService.withdraw(user, a, new BigDecimal("50.00"), "too much"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Insufficient funds");
+        accountService.withdraw(user, a, new BigDecimal("40.00"), "rest");
+        assertThatThrownBy(() -> holdService.placeHold(user, a, holdRequest("0.01", null)))
+                .hasMessage("Insufficient funds");
+
+        HoldResponse captured = holdService.capture(user, a, hold.getReference(), new BigDecimal("25.00"));
+        assertThat(captured.getStatus()).isEqualTo(AccountHold.Status.CAPTURED);
+        assertThat(captured.getTransactionReference()).isNotNull();
+        assertThatThrownBy(() -> holdService.release(user, a, hold.getReference()))
+                .hasMessage("Hold is no longer active");
+
+        assertThat(accountRepository.findByAccountNumber(a).orElseThrow().getBalance()).isEqualByComparingTo("35.00");
+        assertThat(accountRepository.findByAccountNumber(a).orElseThrow().getHeldAmount()).isEqualByComparingTo("0.00");
+        assertThat(accountRepository.findByAccountNumber(b).orElseThrow().getBalance()).isEqualByComparingTo("25.00");
+        assertThat(ledgerService.reconcile(a).isConsistent()).isTrue();
+        assertThat(ledgerService.reconcile(b).isConsistent()).isTrue();
+    }
+
+    @Test
+    void expiredHoldsAreReleased() {
+        User user = bootstrapUser();
+        String a = accountService.createAccount(user).getAccountNumber();
+        accountService.deposit(user, a, new BigDecimal("80.00"), "seed");
+        HoldResponse hold = holdService.placeHold(user, a, holdRequest("80.00", null));
+        assertThat(holdService.listActiveHolds(user, a)).extracting(HoldResponse::getReference).containsExactly(hold.getReference());
+
+        AccountHold stored = holdRepository.findByReference(hold.getReference()).orElseThrow();
+        stored.setExpiresAt(Instant.now().minusSeconds(1));
+        holdRepository.save(stored);
+        assertThatThrownBy(() -> holdService.capture(user, a, hold.getReference(), null))
+                .hasMessage("Hold has expired");
+
+        assertThat(holdService.expireDueHolds()).isGreaterThanOrEqualTo(1);
+        assertThat(holdRepository.findByReference(hold.getReference()).orElseThrow().getStatus())
+                .isEqualTo(AccountHold.Status.EXPIRED);
+        assertThat(holdService.listActiveHolds(user, a)).isEmpty();
+        accountService.withdraw(user, a, new BigDecimal("80.00"), "all");
+        assertThat(accountRepository.findByAccountNumber(a).orElseThrow().getBalance()).isEqualByComparingTo("0.00");
+    }
+
+    @Test
+    void aReleaseThatFindsTheHeldAmountOutOfStepIsRolledBack() {
+        User user = bootstrapUser();
+        String a = accountService.createAccount(user).getAccountNumber();
+        accountService.deposit(user, a, new BigDecimal("60.00"), "seed");
+        HoldResponse hold = holdService.placeHold(user, a, holdRequest("60.00", null));
+        // Something outside the hold service already gave back part of the held amount.
+        transactionTemplate.executeWithoutResult(status ->
+                accountRepository.releaseHold(a, new BigDecimal("30.00"), Instant.now()));
+
+        assertThatThrownBy(() -> holdService.release(user, a, hold.getReference()))
+                .isInstanceOf(ConcurrencyFailureException.class);
+        assertThat(holdRepository.findByReference(hold.getReference()).orElseThrow().getStatus())
+                .isEqualTo(AccountHold.Status.ACTIVE);
+        assertThat(accountRepository.findByAccountNumber(a).orElseThrow().getHeldAmount()).isEqualByComparingTo("30.00");
+    }
+
+    @Test
+    void holdChangesAreAuditedAfterCommit() throws InterruptedException {
+        User user = bootstrapUser();
+        String a = accountService.createAccount(user).getAccountNumber();
+        accountService.deposit(user, a, new BigDecimal("20.00"), "seed");
+        HoldResponse hold = holdService.placeHold(user, a, holdRequest("20.00", null));
+        holdService.release(user, a, hold.getReference());
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (holdAuditActions(hold.getReference()).size() < 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(holdAuditActions(hold.getReference())).containsExactlyInAnyOrder("HOLD_PLACE", "HOLD_RELEASE");
+    }
+
+    private List<String> holdAuditActions(String holdReference) {
+        return auditLogRepository.findAll().stream()
+                .filter(entry -> holdReference.equals(entry.getReference()))
+                .map(AuditLog::getAction)
+                .toList();
+    }
+
+    // Holds left over from before the engine was switched on stay put; the engine owns the balances now.
+    @Nested
+    @TestPropertySource(properties = {
+            "spring.datasource.url=jdbc:h2:mem:testholds_engine;DB_CLOSE_DELAY=-1;MODE=PostgreSQL",
+            "app.transactions.engine.enabled=true"
+    })
+    class WithLedgerEngine {
+        @Autowired
+        private UserService userService;
+        @Autowired
+        private UserRepository userRepository;
+        @Autowired
+        private AccountService accountService;
+        @Autowired
+        private HoldService holdService;
+        @Autowired
+        private AccountHoldRepository holdRepository;
+        @Autowired
+        private AccountRepository accountRepository;
+
+        @Test
+        void expiryLeavesHoldsAloneWhileTheEngineIsEnabled() {
+            User user = bootstrapUser(userService, userRepository);
+            String a = accountService.createAccount(user).getAccountNumber();
+            assertThatThrownBy(() -> holdService.placeHold(user, a, holdRequest("1.00", null)))
+                    .hasMessage("Holds are not available while the ledger engine is enabled");
+
+            AccountHold stale = new AccountHold();
+            stale.setAccount(accountRepository.findByAccountNumber(a).orElseThrow());
+            stale.setAccountNumber(a);
+            stale.setAmount(new BigDecimal("5.00"));
+            stale.setExpiresAt(Instant.now().minusSeconds(1));
+            String reference = holdRepository.save(stale).getReference();
+
+            assertThat(holdService.expireDueHolds()).isZero();
+            assertThat(holdRepository.findByReference(reference).orElseThrow().getStatus())
+                    .isEqualTo(AccountHold.Status.ACTIVE);
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.novabank.core;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.novabank.core.dto.account.AccountResponse;
+import com.novabank.core.dto.auth.LoginRequest;
+import com.novabank.core.dto.auth.RegisterRequest;
+import com.novabank.core.dto.transaction.TransferRequest;
+import com.novabank.core.model.Role;
+import com.novabank.core.model.User;
+import com.novabank.core.repository.AccountBalanceBucketRepository;
+import com.novabank.core.repository.UserRepository;
+import com.novabank.core.service.AccountService;
+import com.novabank.core.service.HotAccountService;
+import com.novabank.core.service.LedgerService;
+import com.novabank.core.service.TransactionService;
+import com.novabank.core.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:testhotaccounts;DB_CLOSE_DELAY=-1;MODE=PostgreSQL;LOCK_TIMEOUT=10000",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class HotAccountTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private AccountService accountService;
+    @Autowired
+    private TransactionService transactionService;
+    @Autowired
+    private AccountBalanceBucketRepository bucketRepository;
+    @Autowired
+    private LedgerService ledgerService;
+    @Autowired
+    private HotAccountService hotAccountService;
+
+    private User bootstrapUser() {
+        String unique = "frank_" + System.nanoTime();
+        RegisterRequest rr = new RegisterRequest();
+        rr.setUsername(unique);
+        rr.setEmail(unique + "@example.com");
+        rr.setPassword("password123");
+        rr.setRole(Role.CUSTOMER);
+        userService.register(rr);
+        return userRepository.findByUsername(unique).orElseThrow();
+    }
+
+    private String loginAdmin() throws Exception {
+        LoginRequest lr = new LoginRequest();
+        lr.setUsername("admin");
+        lr.setPassword("admin12345");
+        MvcResult res = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(lr)))
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper.readTree(res.getResponse().getContentAsString()).get("token").asText();
+    }
+
+    private BigDecimal balanceOf(User user, String accountNumber) {
+        return accountService.listAccounts(user).stream()
+                .filter(a -> a.getAccountNumber().equals(accountNumber))
+                .map(AccountResponse::getBalance)
+                .findFirst()
+                .orElseThrow();
+    }
+
+    @Test
+    void hotAccountSpreadsCreditsAndSweepsOnDebit() throws Exception {
+        User merchant = bootstrapUser();
+        User payer = bootstrapUser();
+        String collection = accountService.createAccount(merchant).getAccountNumber();
+        String payout = accountService.createAccount(merchant).getAccountNumber();
+        String source = accountService.createAccount(payer).getAccountNumber();
+        accountService.deposit(payer, source, new BigDecimal("1000.00"), "seed");
+        String adminToken = loginAdmin();
+
+        mockMvc.perform(patch("/api/admin/accounts/{accountNumber}/hot", collection)
+                        .header("Authorization", "Bearer " + adminToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"hot\":true,\"buckets\":4}"))
+                .andExpect(status().isOk());
+
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < 200; i++) {
+                futures.add(pool.submit(() -> {
+                    TransferRequest tr = new TransferRequest();
+                    tr.setFromAccount(source);
+                    tr.setToAccount(collection);
+                    tr.setAmount(new BigDecimal("2.00"));
+                    try {
+                        transactionService.transfer(payer, tr);
+                    } catch (Throwable t) {
+                        failures.add(t);
+                    }
+                }));
+            }
+            for (Future<?> f : futures) {
+                f.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertThat(failures).isEmpty();
+        assertThat(bucketRepository.sumBalance(collection)).isEqualByComparingTo("400.00");
+        assertThat(balanceOf(merchant, collection)).isEqualByComparingTo("400.00");
+
+        // The account row itself is empty, so this debit must sweep the buckets first.
+        TransferRequest sweep = new TransferRequest();
+        sweep.setFromAccount(collection);
+        sweep.setToAccount(payout);
+        sweep.setAmount(new BigDecimal("150.00"));
+        transactionService.transfer(merchant, sweep);
+        assertThat(bucketRepository.sumBalance(collection)).isEqualByComparingTo("0.00");
+        assertThat(balanceOf(merchant, collection)).isEqualByComparingTo("250.00");
+        assertThat(balanceOf(merchant, payout)).isEqualByComparingTo("150.00");
+
+        accountService.deposit(merchant, collection, new BigDecimal("10.00"), "top-up");
+        MvcResult cold = mockMvc.perform(patch("/api/admin/accounts/{accountNumber}/hot", collection)
+                        .header("Authorization", "Bearer " + adminToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"hot\":false}"))
+                .andExpect(status().isOk())
+                .andReturn();
+        JsonNode body = objectMapper.readTree(cold.getResponse().getContentAsString());
+        assertThat(body.get("balance").decimalValue()).isEqualByComparingTo("260.00");
+        assertThat(bucketRepository.sumBalance(collection)).isEqualByComparingTo("0.00");
+        assertThat(ledgerService.reconcile(collection).isConsistent()).isTrue();
+        assertThat(ledgerService.reconcile(source).isConsistent()).isTrue();
+    }
+
+    @Test
+    void creditsRacingAColdSwitchAreNeverStrandedInBuckets() throws Exception {
+        User merchant = bootstrapUser();
+        User admin = userRepository.findByUsername("admin").orElseThrow();
+        String collection = accountService.createAccount(merchant).getAccountNumber();
+        hotAccountService.updateHotMode(admin, collection, true, 4);
+
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        List<Future<?>> futures = new ArrayList<>();
+        CountDownLatch started = new CountDownLatch(20);
+        try {
+            for (int i = 0; i < 200; i++) {
+                futures.add(pool.submit(() -> {
+                    started.countDown();
+                    try {
+                        accountService.deposit(merchant, collection, new BigDecimal("1.00"), "racing");
+                    } catch (Throwable t) {
+                        failures.add(t);
+                    }
+                }));
+            }
+            // Flip the account cold and hot again while deposits are still landing on its buckets.
+            started.await(10, TimeUnit.SECONDS);
+            for (int i = 0; i < 3; i++) {
+                hotAccountService.updateHotMode(admin, collection, false, null);
+                hotAccountService.updateHotMode(admin, collection, true, 4);
+            }
+            hotAccountService.updateHotMode(admin, collection, false, null);
+            for (Future<?> f : futures) {
+                f.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertThat(failures).isEmpty();
+        // Cold now, so reads skip the buckets: every credit must have reached the row or been swept into it.
+        assertThat(bucketRepository.sumBalance(collection)).isEqualByComparingTo("0.00");
+        assertThat(balanceOf(merchant, collection)).isEqualByComparingTo("200.00");
+        assertThat(ledgerService.reconcile(collection).isConsistent()).isTrue();
+    }
+}
@@ -0,0 +1,111 @@
+package com.novabank.core;
+
+import com.novabank.core.dto.auth.RegisterRequest;
+import com.novabank.core.dto.transaction.TransferRequest;
+import com.novabank.core.model.Role;
+import com.novabank.core.model.User;
+import com.novabank.core.repository.TransactionRecordRepository;
+import com.novabank.core.repository.TransferIdempotencyRecordRepository;
+import com.novabank.core.repository.UserRepository;
+import com.novabank.core.service.AccountService;
+import com.novabank.core.service.TransactionService;
+import com.novabank.core.service.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:testidemcache;DB_CLOSE_DELAY=-1;MODE=PostgreSQL",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class IdempotencyCacheTests {
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private AccountService accountService;
+    @Autowired
+    private TransactionService transactionService;
+    @Autowired
+    private TransferIdempotencyRecordRepository idempotencyRecordRepository;
+    @Autowired
+    private TransactionRecordRepository txRepository;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private User bootstrapUser() {
+        String unique = "nina_" + System.nanoTime();
+        RegisterRequest rr = new RegisterRequest();
+        rr.setUsername(unique);
+        rr.setEmail(unique + "@example.com");
+        rr.setPassword("password123");
+        rr.setRole(Role.CUSTOMER);
+        userService.register(rr);
+        return userRepository.findByUsername(unique).orElseThrow();
+    }
+
+    private TransferRequest transfer(String from, String to, String amount) {
+        TransferRequest tr = new TransferRequest();
+        tr.setFromAccount(from);
+        tr.setToAccount(to);
+        tr.setAmount(new BigDecimal(amount));
+        return tr;
+    }
+
+    private double cache(String result) {
+        return meterRegistry.counter("novabank.idempotency.cache", "result", result).count();
+    }
+
+    @Test
+    void retriesAreAnsweredFromTheCacheWithoutTheTable() {
+        User user = bootstrapUser();
+        String a = accountService.createAccount(user).getAccountNumber();
+        String b = accountService.createAccount(user).getAccountNumber();
+        accountService.deposit(user, a, new BigDecimal("100.00"), "seed");
+
+        double missesBefore = cache("miss");
+        String reference = transactionService.transfer(user, transfer(a, b, "10.00"), "cache-key-1");
+        assertThat(cache("miss")).isEqualTo(missesBefore + 1);
+
+        // With the row gone, only the cache can still know the key.
+        idempotencyRecordRepository.deleteAll(idempotencyRecordRepository.findAll().stream()
+                .filter(r -> r.getActorUsername().equals(user.getUsername()))
+                .toList());
+        long transactionsBefore = txRepository.count();
+        double hitsBefore = cache("hit");
+
+        assertThat(transactionService.transfer(user, transfer(a, b, "10.00"), "cache-key-1")).isEqualTo(reference);
+        assertThat(cache("hit")).isEqualTo(hitsBefore + 1);
+        assertThat(txRepository.count()).isEqualTo(transactionsBefore);
+
+        assertThatThrownBy(() -> transactionService.transfer(user, transfer(a, b, "11.00"), "cache-key-1"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("different transfer payload");
+    }
+
+    @Test
+    void aFailedTransferIsNotCached() {
+        User user = bootstrapUser();
+        String a = accountService.createAccount(user).getAccountNumber();
+        String b = accountService.createAccount(user).getAccountNumber();
+
+        assertThatThrownBy(() -> transactionService.transfer(user, transfer(a, b, "10.00"), "cache-key-2"))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        accountService.deposit(user, a, new BigDecimal("100.00"), "seed");
+        String reference = transactionService.transfer(user, transfer(a, b, "10.00"), "cache-key-2");
+        assertThat(txRepository.findAll()).anyMatch(tx -> tx.getReference().equals(reference));
+    }
+}
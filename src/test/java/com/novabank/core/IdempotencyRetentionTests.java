@@ -0,0 +1,187 @@
+package com.novabank.core;
+
+import com.novabank.core.dto.auth.RegisterRequest;
+import com.novabank.core.dto.transaction.TransferRequest;
+import com.novabank.core.model.Role;
+import com.novabank.core.model.TransferIdempotencyRecord;
+import com.novabank.core.model.User;
+import com.novabank.core.repository.AccountRepository;
+import com.novabank.core.repository.TransferIdempotencyRecordRepository;
+import com.novabank.core.repository.UserRepository;
+import com.novabank.core.service.AccountService;
+import com.novabank.core.service.IdempotencyPurgeService;
+import com.novabank.core.service.TransactionService;
+import com.novabank.core.service.UserService;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:testidemretention;DB_CLOSE_DELAY=-1;MODE=PostgreSQL",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        // Keep the cache and the background job out of the way; the tests purge by hand.
+        "app.transactions.idempotency.cache-ttl-seconds=0",
+        "app.transactions.idempotency.purge-interval-ms=3600000",
+        "app.transactions.idempotency.purge-batch-size=2"
+})
+class IdempotencyRetentionTests {
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private AccountService accountService;
+    @Autowired
+    private TransactionService transactionService;
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private TransferIdempotencyRecordRepository idempotencyRecordRepository;
+    @Autowired
+    private IdempotencyPurgeService purgeService;
+
+    private User bootstrapUser() {
+        String unique = "oren_" + System.nanoTime();
+        RegisterRequest rr = new RegisterRequest();
+        rr.setUsername(unique);
+        rr.setEmail(unique + "@example.com");
+        rr.setPassword("password123");
+        rr.setRole(Role.CUSTOMER);
+        userService.register(rr);
+        return userRepository.findByUsername(unique).orElseThrow();
+    }
+
+    private TransferRequest transfer(String from, String to, String amount) {
+        TransferRequest tr = new TransferRequest();
+        tr.setFromAccount(from);
+        tr.setToAccount(to);
+        tr.setAmount(new BigDecimal(amount));
+        return tr;
+    }
+
+    private TransferIdempotencyRecord record(User user, String key) {
+        return idempotencyRecordRepository.findByActorUsernameAndIdempotencyKey(user.getUsername(), key).orElseThrow();
+    }
+
+    private void expire(User user, String key) {
+        TransferIdempotencyRecord record = record(user, key);
+        record.setExpiresAt(Instant.now().minusSeconds(1));
+        idempotencyRecordRepository.save(record);
+    }
+
+    @Test
+    void recordsExpireAfterTheRetentionWindow() {
+        User user = bootstrapUser();
+        String a = accountService.createAccount(user).getAccountNumber();
+        String b = accountService.createAccount(user).getAccountNumber();
+        accountService.deposit(user, a, new BigDecimal("100.00"), "seed");
+
+        transactionService.transfer(user, transfer(a, b, "1.00"), "retention-key-0");
+        TransferIdempotencyRecord record = record(user, "retention-key-0");
+        assertThat(record.getExpiresAt()).isAfter(record.getCreatedAt().plusSeconds(86000));
+    }
+
+    @Test
+    void anExpiredKeyBehavesLikeANewKey() {
+        User user = bootstrapUser();
+        String a = accountService.createAccount(user).getAccountNumber();
+        String b = accountService.createAccount(user).getAccountNumber();
+        accountService.deposit(user, a, new BigDecimal("100.00"), "seed");
+
+        String first = transactionService.transfer(user, transfer(a, b, "10.00"), "retention-key-1");
+        assertThat(transactionService.transfer(user, transfer(a, b, "10.00"), "retention-key-1")).isEqualTo(first);
+
+        expire(user, "retention-key-1");
+        // A different payload would be rejected while the key is live; once it has expired it is a fresh transfer.
+        String second = transactionService.transfer(user, transfer(a, b, "15.00"), "retention-key-1");
+        assertThat(second).isNotEqualTo(first);
+        assertThat(record(user, "retention-key-1").getTransferReference()).isEqualTo(second);
+        assertThat(accountRepository.findByAccountNumber(a).orElseThrow().getBalance()).isEqualByComparingTo("75.00");
+    }
+
+    @Test
+    void purgeDeletesOnlyExpiredRecordsInChunks() {
+        User user = bootstrapUser();
+        String a = accountService.createAccount(user).getAccountNumber();
+        String b = accountService.createAccount(user).getAccountNumber();
+        accountService.deposit(user, a, new BigDecimal("100.00"), "seed");
+
+        for (int i = 0; i < 5; i++) {
+            transactionService.transfer(user, transfer(a, b, "1.00"), "purge-key-" + i);
+        }
+        for (int i = 0; i < 3; i++) {
+            expire(user, "purge-key-" + i);
+        }
+
+        assertThat(purgeService.purgeExpiredRecords()).isEqualTo(3);
+        assertThat(idempotencyRecordRepository.findAll())
+                .filteredOn(r -> r.getActorUsername().equals(user.getUsername()))
+                .extracting(TransferIdempotencyRecord::getIdempotencyKey)
+                .containsExactlyInAnyOrder("purge-key-3", "purge-key-4");
+        assertThat(purgeService.purgeExpiredRecords()).isZero();
+    }
+
+    // The cache on, holding a single key, so a second key pushes the first one out and it is read back from the table.
+    @Nested
+    @TestPropertySource(properties = {
+            "spring.datasource.url=jdbc:h2:mem:testidemretention_cached;DB_CLOSE_DELAY=-1;MODE=PostgreSQL",
+            "app.transactions.idempotency.cache-ttl-seconds=300",
+            "app.transactions.idempotency.cache-max-entries=1"
+    })
+    class WithCache {
+        @Autowired
+        private UserService userService;
+        @Autowired
+        private UserRepository userRepository;
+        @Autowired
+        private AccountService accountService;
+        @Autowired
+        private TransactionService transactionService;
+        @Autowired
+        private TransferIdempotencyRecordRepository idempotencyRecordRepository;
+
+        @Test
+        void aCachedKeyIsNotReplayedPastItsRecordsExpiry() throws Exception {
+            String unique = "oren_" + System.nanoTime();
+            RegisterRequest rr = new RegisterRequest();
+            rr.setUsername(unique);
+            rr.setEmail(unique + "@example.com");
+            rr.setPassword("password123");
+            rr.setRole(Role.CUSTOMER);
+            userService.register(rr);
+            User user = userRepository.findByUsername(unique).orElseThrow();
+            String a = accountService.createAccount(user).getAccountNumber();
+            String b = accountService.createAccount(user).getAccountNumber();
+            accountService.deposit(user, a, new BigDecimal("100.00"), "seed");
+
+            String first = transactionService.transfer(user, transfer(a, b, "10.00"), "cached-key");
+            transactionService.transfer(user, transfer(a, b, "1.00"), "evicting-key");
+
+            // Near the end of its retention, the key is read back from the table and cached again.
+            TransferIdempotencyRecord record = idempotencyRecordRepository
+                    .findByActorUsernameAndIdempotencyKey(user.getUsername(), "cached-key").orElseThrow();
+            record.setExpiresAt(Instant.now().plusSeconds(1));
+            idempotencyRecordRepository.save(record);
+            assertThat(transactionService.transfer(user, transfer(a, b, "10.00"), "cached-key")).isEqualTo(first);
+            assertThatThrownBy(() -> transactionService.transfer(user, transfer(a, b, "15.00"), "cached-key"))
+                    .isInstanceOf(IllegalArgumentException.class);
+
+            Thread.sleep(1500);
+            // The cache entry ended with the record, so the key now starts a new transfer.
+            String second = transactionService.transfer(user, transfer(a, b, "15.00"), "cached-key");
+            assertThat(second).isNotEqualTo(first);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.novabank.core;
+
+import com.novabank.core.dto.auth.RegisterRequest;
+import com.novabank.core.dto.transaction.TransferRequest;
+import com.novabank.core.model.AuditLog;
+import com.novabank.core.model.Role;
+import com.novabank.core.model.User;
+import com.novabank.core.repository.AuditLogRepository;
+import com.novabank.core.repository.UserRepository;
+import com.novabank.core.service.AccountService;
+import com.novabank.core.service.TransactionService;
+import com.novabank.core.service.UserService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Measures insert throughput with and without JDBC batching, the way {@code HistoricalDataSeeder} writes rows
+ * (many saves in one transaction), and logs the rate of single transfers. Run it against PostgreSQL by
+ * overriding the datasource to get numbers that mean something; on H2 it mainly checks that batching happens.
+ */
+@SpringBootTest
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:testinsertbatching;DB_CLOSE_DELAY=-1;MODE=PostgreSQL",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class InsertBatchingBenchmarkTests {
+    private static final Logger log = LoggerFactory.getLogger(InsertBatchingBenchmarkTests.class);
+
+    private static final int ROWS = 2000;
+    private static final int TRANSFERS = 300;
+
+    @Autowired
+    private AuditLogRepository auditLogRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private AccountService accountService;
+    @Autowired
+    private TransactionService transactionService;
+
+    private long insertRows(int jdbcBatchSize, Statistics statistics) {
+        long statementsBefore = statistics.getPrepareStatementCount();
+        long started = System.nanoTime();
+        transactionTemplate.executeWithoutResult(status -> {
+            entityManager.unwrap(Session.class).setJdbcBatchSize(jdbcBatchSize);
+            Instant now = Instant.now();
+            for (int i = 0; i < ROWS; i++) {
+                AuditLog row = new AuditLog();
+                row.setActor("seed");
+                row.setAction("SEED_BENCHMARK");
+                row.setDetails("Row " + i);
+                row.setCreatedAt(now);
+                row.setUpdatedAt(now);
+                auditLogRepository.save(row);
+            }
+        });
+        long elapsedMs = Math.max(1, (System.nanoTime() - started) / 1_000_000);
+        long statements = statistics.getPrepareStatementCount() - statementsBefore;
+        log.info("Inserted {} rows with jdbc batch size {} in {} ms ({} rows/s, {} statements)",
+                ROWS, jdbcBatchSize, elapsedMs, ROWS * 1000L / elapsedMs, statements);
+        return statements;
+    }
+
+    @Test
+    void bulkInsertsAreBatchedAndTransferThroughputIsReported() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+
+        long unbatched = insertRows(1, statistics);
+        long batched = insertRows(50, statistics);
+        // One statement per row without batching; one per 50 rows plus a sequence call per 50 ids with it.
+        assertThat(unbatched).isGreaterThanOrEqualTo(ROWS);
+        assertThat(batched).isLessThan(ROWS / 10);
+
+        String unique = "mona_" + System.nanoTime();
+        RegisterRequest rr = new RegisterRequest();
+        rr.setUsername(unique);
+        rr.setEmail(unique + "@example.com");
+        rr.setPassword("password123");
+        rr.setRole(Role.CUSTOMER);
+        userService.register(rr);
+        User user = userRepository.findByUsername(unique).orElseThrow();
+        String from = accountService.createAccount(user).getAccountNumber();
+        String to = accountService.createAccount(user).getAccountNumber();
+        accountService.deposit(user, from, new BigDecimal("10000.00"), "seed");
+
+        long started = System.nanoTime();
+        for (int i = 0; i < TRANSFERS; i++) {
+            TransferRequest tr = new TransferRequest();
+            tr.setFromAccount(from);
+            tr.setToAccount(to);
+            tr.setAmount(new BigDecimal("1.00"));
+            transactionService.transfer(user, tr);
+        }
+        long elapsedMs = Math.max(1, (System.nanoTime() - started) / 1_000_000);
+        log.info("{} sequential transfers in {} ms ({} transfers/s)", TRANSFERS, elapsedMs, TRANSFERS * 1000L / elapsedMs);
+        assertThat(accountService.listAccounts(user))
+                .anyMatch(a -> a.getAccountNumber().equals(to) && a.getBalance().compareTo(new BigDecimal("300.00")) == 0);
+    }
+}
@@ -0,0 +1,147 @@
+package com.novabank.core;
+
+import com.novabank.core.dto.auth.RegisterRequest;
+import com.novabank.core.model.Role;
+import com.novabank.core.security.JwtAuthFilter;
+import com.novabank.core.security.JwtService;
+import com.novabank.core.security.VerifiedToken;
+import com.novabank.core.service.UserService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Compares token verification the way it used to be done (three parses, each decoding the secret and building
+ * a parser) with the single parse against the precomputed key, and logs the throughput of the whole filter.
+ * The numbers are only indicative on a shared build machine; the assertions check behaviour, not speed.
+ */
+@SpringBootTest
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:testjwtbench;DB_CLOSE_DELAY=-1;MODE=PostgreSQL",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class JwtAuthFilterBenchmarkTests {
+    private static final Logger log = LoggerFactory.getLogger(JwtAuthFilterBenchmarkTests.class);
+
+    private static final int WARMUP = 2000;
+    private static final int ITERATIONS = 20000;
+
+    @Autowired
+    private JwtService jwtService;
+    @Autowired
+    private JwtAuthFilter jwtAuthFilter;
+    @Autowired
+    private UserService userService;
+
+    @Value("${security.jwt.secret}")
+    private String secret;
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private String registerAndGetToken() {
+        String unique = "pia_" + System.nanoTime();
+        RegisterRequest rr = new RegisterRequest();
+        rr.setUsername(unique);
+        rr.setEmail(unique + "@example.com");
+        rr.setPassword("password123");
+        rr.setRole(Role.CUSTOMER);
+        return userService.register(rr).getToken();
+    }
+
+    // The previous JwtService: extractUsername, then isTokenValid parsing again for the subject and the expiry.
+    private String legacyVerify(String token) {
+        String username = legacyClaims(token).getSubject();
+        boolean valid = username.equals(legacyClaims(token).getSubject())
+                && !legacyClaims(token).getExpiration().before(new Date());
+        return valid ? username : null;
+    }
+
+    private Claims legacyClaims(String token) {
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret)))
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+
+    private long opsPerSecond(int iterations, Runnable op) {
+        for (int i = 0; i < WARMUP; i++) {
+            op.run();
+        }
+        long started = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            op.run();
+        }
+        return iterations * 1_000_000_000L / Math.max(1, System.nanoTime() - started);
+    }
+
+    private Authentication filter(String token) {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/accounts");
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+        try {
+            jwtAuthFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        } catch (Exception ex) {
+            throw new IllegalStateException(ex);
+        }
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    @Test
+    void oneParseReturnsEverythingTheFilterNeeds() {
+        String token = registerAndGetToken();
+        VerifiedToken verified = jwtService.verify(token);
+        assertThat(verified.username()).isEqualTo(legacyVerify(token));
+        assertThat(verified.role()).isEqualTo("ROLE_CUSTOMER");
+        assertThat(verified.expiresAt()).isInTheFuture();
+
+        String forged = Jwts.builder()
+                .setSubject(verified.username())
+                .setExpiration(Date.from(verified.expiresAt()))
+                .signWith(Keys.hmacShaKeyFor(new byte[32]), SignatureAlgorithm.HS256)
+                .compact();
+        assertThatThrownBy(() -> jwtService.verify(forged)).isInstanceOf(JwtException.class);
+        assertThatThrownBy(() -> jwtService.verify("")).isInstanceOf(JwtException.class);
+        assertThat(filter(forged)).isNull();
+        assertThat(filter(token).getName()).isEqualTo(verified.username());
+    }
+
+    @Test
+    void verificationThroughputBeforeAndAfter() {
+        String token = registerAndGetToken();
+
+        long before = opsPerSecond(ITERATIONS, () -> legacyVerify(token));
+        long after = opsPerSecond(ITERATIONS, () -> jwtService.verify(token));
+        long filtered = opsPerSecond(ITERATIONS / 10, () -> filter(token));
+        log.info("Token verification: {} ops/s with three parses and a fresh key, {} ops/s with one parse; "
+                + "JwtAuthFilter end to end: {} requests/s", before, after, filtered);
+        assertThat(filter(token)).isNotNull();
+    }
+}
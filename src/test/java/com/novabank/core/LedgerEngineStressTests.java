@@ -0,0 +1,447 @@
+package com.novabank.core;
+
+import com.novabank.core.dto.account.AccountResponse;
+import com.novabank.core.dto.auth.RegisterRequest;
+import com.novabank.core.dto.transaction.TransferRequest;
+import com.novabank.core.exception.TooManyRequestsException;
+import com.novabank.core.model.Role;
+import com.novabank.core.model.TransactionRecord;
+import com.novabank.core.model.User;
+import com.novabank.core.repository.AccountRepository;
+import com.novabank.core.repository.LedgerDeadLetterRepository;
+import com.novabank.core.repository.TransactionRecordRepository;
+import com.novabank.core.repository.UserRepository;
+import com.novabank.core.service.AccountService;
+import com.novabank.core.service.LedgerEngine;
+import com.novabank.core.service.LedgerService;
+import com.novabank.core.service.TransactionService;
+import com.novabank.core.service.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.reset;
+
+@SpringBootTest
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:testledgerengine;DB_CLOSE_DELAY=-1;MODE=PostgreSQL;LOCK_TIMEOUT=10000",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "app.transactions.engine.enabled=true",
+        "app.transactions.engine.shards=4",
+        "app.transactions.engine.flush-interval-ms=10"
+})
+class LedgerEngineStressTests {
+    private static final Logger log = LoggerFactory.getLogger(LedgerEngineStressTests.class);
+
+    private static final int THREADS = 8;
+    private static final int ACCOUNTS = 6;
+    private static final int TRANSFERS = 4000;
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private AccountService accountService;
+    @Autowired
+    private TransactionService transactionService;
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private TransactionRecordRepository txRepository;
+    @Autowired
+    private LedgerService ledgerService;
+    @Autowired
+    private LedgerEngine ledgerEngine;
+    @Autowired
+    private LedgerDeadLetterRepository deadLetterRepository;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // Transfers per second of the engine run, compared against the JPA path in JpaPath below.
+    private static volatile double engineRate;
+
+    private User bootstrapUser() {
+        return bootstrapUser(userService, userRepository);
+    }
+
+    private static User bootstrapUser(UserService userService, UserRepository userRepository) {
+        String unique = "erin_" + System.nanoTime();
+        RegisterRequest rr = new RegisterRequest();
+        rr.setUsername(unique);
+        rr.setEmail(unique + "@example.com");
+        rr.setPassword("password123");
+        rr.setRole(Role.CUSTOMER);
+        userService.register(rr);
+        return userRepository.findByUsername(unique).orElseThrow();
+    }
+
+    private static List<String> seedAccounts(AccountService accountService, User user) {
+        List<String> accounts = new ArrayList<>();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            String number = accountService.createAccount(user).getAccountNumber();
+            accountService.deposit(user, number, new BigDecimal("1000.00"), "seed");
+            accounts.add(number);
+        }
+        return accounts;
+    }
+
+    // The shared workload: TRANSFERS transfers of 1.00 across the accounts from THREADS threads. Returns tx/s.
+    private static double runTransfers(TransactionService transactionService, User user, List<String> accounts)
+            throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        List<Future<?>> futures = new ArrayList<>();
+        double seconds;
+        try {
+            for (int i = 0; i < TRANSFERS; i++) {
+                String from = accounts.get(i % ACCOUNTS);
+                String to = accounts.get((i * 7 + 1) % ACCOUNTS);
+                if (from.equals(to)) {
+                    to = accounts.get((i + 1) % ACCOUNTS);
+                }
+                String target = to;
+                futures.add(pool.submit(() -> {
+                    TransferRequest tr = new TransferRequest();
+                    tr.setFromAccount(from);
+                    tr.setToAccount(target);
+                    tr.setAmount(new BigDecimal("1.00"));
+                    try {
+                        start.await();
+                        transactionService.transfer(user, tr);
+                    } catch (Throwable t) {
+                        failures.add(t);
+                    }
+                }));
+            }
+            long began = System.nanoTime();
+            start.countDown();
+            for (Future<?> f : futures) {
+                f.get(60, TimeUnit.SECONDS);
+            }
+            seconds = (System.nanoTime() - began) / 1e9;
+        } finally {
+            pool.shutdownNow();
+        }
+        assertThat(failures).isEmpty();
+        return TRANSFERS / seconds;
+    }
+
+    @Test
+    void concurrentTransfersConserveMoneyAndReachTheDatabase() throws Exception {
+        User user = bootstrapUser();
+        List<String> accounts = seedAccounts(accountService, user);
+        long recordsBefore = txRepository.count();
+
+        engineRate = runTransfers(transactionService, user, accounts);
+        log.info("Ledger engine: {} transfers at {} tx/s", TRANSFERS, Math.round(engineRate));
+
+        BigDecimal total = accountService.listAccounts(user).stream()
+                .map(AccountResponse::getBalance)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        assertThat(total).isEqualByComparingTo("6000.00");
+
+        // The flusher catches up asynchronously; the rows must converge on the in-memory balances.
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (txRepository.count() < recordsBefore + TRANSFERS && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(txRepository.count()).isEqualTo(recordsBefore + TRANSFERS);
+        for (AccountResponse response : accountService.listAccounts(user)) {
+            assertThat(accountRepository.findByAccountNumber(response.getAccountNumber()).orElseThrow().getBalance())
+                    .isEqualByComparingTo(response.getBalance());
+            assertThat(ledgerService.reconcile(response.getAccountNumber()).isConsistent()).isTrue();
+        }
+    }
+
+    @Test
+    void rejectedTransferReleasesItsReservation() {
+        User user = bootstrapUser();
+        String a = accountService.createAccount(user).getAccountNumber();
+        String b = accountService.createAccount(user).getAccountNumber();
+        accountService.deposit(user, a, new BigDecimal("50.00"), "seed");
+
+        TransferRequest tooMuch = new TransferRequest();
+        tooMuch.setFromAccount(a);
+        tooMuch.setToAccount(b);
+        tooMuch.setAmount(new BigDecimal("80.00"));
+        assertThatThrownBy(() -> transactionService.transfer(user, tooMuch))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Insufficient funds");
+
+        TransferRequest missing = new TransferRequest();
+        missing.setFromAccount(a);
+        missing.setToAccount("0000-0000-0000");
+        missing.setAmount(new BigDecimal("50.00"));
+        assertThatThrownBy(() -> transactionService.transfer(user, missing))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("To account not found");
+
+        TransferRequest all = new TransferRequest();
+        all.setFromAccount(a);
+        all.setToAccount(b);
+        all.setAmount(new BigDecimal("50.00"));
+        transactionService.transfer(user, all);
+        assertThat(accountService.listAccounts(user))
+                .extracting(AccountResponse::getBalance)
+                .usingComparatorForType(BigDecimal::compareTo, BigDecimal.class)
+                .containsExactlyInAnyOrder(new BigDecimal("0.00"), new BigDecimal("50.00"));
+    }
+
+    @Test
+    void aPostingThatCannotBePersistedIsDeadLetteredWithoutBlockingTheRest() throws Exception {
+        User user = bootstrapUser();
+        String a = accountService.createAccount(user).getAccountNumber();
+        String b = accountService.createAccount(user).getAccountNumber();
+        long seeded = txRepository.count() + 1;
+        accountService.deposit(user, a, new BigDecimal("100.00"), "seed");
+        awaitRecords(seeded);
+        String takenReference = txRepository.findAll(PageRequest.of(0, 1)).getContent().get(0).getReference();
+        double deadLettersBefore = meterRegistry.counter("novabank.ledger.dead_letters").count();
+
+        // Reusing a reference that is already in the transactions table fails every time it is written.
+        TransferRequest tr = new TransferRequest();
+        tr.setFromAccount(a);
+        tr.setToAccount(b);
+        tr.setAmount(new BigDecimal("10.00"));
+        ledgerEngine.transfer(user, tr, takenReference);
+        long recordsBefore = txRepository.count();
+        accountService.deposit(user, b, new BigDecimal("5.00"), "behind the bad posting");
+
+        awaitRecords(recordsBefore + 1);
+        assertThat(deadLetterRepository.findByReference(takenReference)).hasValueSatisfying(row -> {
+            assertThat(row.getType()).isEqualTo(TransactionRecord.Type.TRANSFER);
+            assertThat(row.getFromAccount()).isEqualTo(a);
+            assertThat(row.getAmount()).isEqualByComparingTo("10.00");
+        });
+        assertThat(meterRegistry.counter("novabank.ledger.dead_letters").count()).isEqualTo(deadLettersBefore + 1);
+        assertThat(meterRegistry.get("novabank.ledger.pending_postings").gauge().value()).isZero();
+    }
+
+    @Test
+    void aKeyedTransferWhoseCallerRollsBackIsNotPostedAgainOnRetry() {
+        User user = bootstrapUser();
+        String a = accountService.createAccount(user).getAccountNumber();
+        String b = accountService.createAccount(user).getAccountNumber();
+        accountService.deposit(user, a, new BigDecimal("30.00"), "seed");
+        TransferRequest tr = new TransferRequest();
+        tr.setFromAccount(a);
+        tr.setToAccount(b);
+        tr.setAmount(new BigDecimal("20.00"));
+
+        // The engine applies the transfer, then the surrounding transaction fails to commit.
+        String[] posted = new String[1];
+        assertThatThrownBy(() -> transactionTemplate.executeWithoutResult(status -> {
+            posted[0] = transactionService.transfer(user, tr, "rollback-after-post");
+            throw new IllegalStateException("commit failed");
+        })).hasMessage("commit failed");
+
+        assertThat(transactionService.transfer(user, tr, "rollback-after-post")).isEqualTo(posted[0]);
+        assertThat(ledgerEngine.balanceOf(a)).hasValueSatisfying(balance -> assertThat(balance).isEqualByComparingTo("10.00"));
+        assertThat(ledgerEngine.balanceOf(b)).hasValueSatisfying(balance -> assertThat(balance).isEqualByComparingTo("20.00"));
+
+        // A transfer the engine refuses gives its key back.
+        assertThatThrownBy(() -> transactionService.transfer(user, tr, "refused-first"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Insufficient funds");
+        accountService.deposit(user, a, new BigDecimal("10.00"), "top up");
+        String reference = transactionService.transfer(user, tr, "refused-first");
+        assertThat(reference).isNotEqualTo(posted[0]);
+        assertThat(ledgerEngine.balanceOf(a)).hasValueSatisfying(balance -> assertThat(balance).isEqualByComparingTo("0.00"));
+    }
+
+    private void awaitRecords(long expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (txRepository.count() < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(txRepository.count()).isEqualTo(expected);
+    }
+
+    @Nested
+    @TestPropertySource(properties = {
+            "spring.datasource.url=jdbc:h2:mem:testledgerengine_backpressure;DB_CLOSE_DELAY=-1;MODE=PostgreSQL;LOCK_TIMEOUT=10000",
+            "app.transactions.engine.max-pending-postings=3",
+            // Never flushes during the test, so the queue stays full.
+            "app.transactions.engine.flush-interval-ms=3600000"
+    })
+    class Backpressure {
+        @Autowired
+        private UserService userService;
+        @Autowired
+        private UserRepository userRepository;
+        @Autowired
+        private AccountService accountService;
+
+        @Test
+        void newPostingsAreRefusedWhileTheQueueIsFull() {
+            String unique = "gus_" + System.nanoTime();
+            RegisterRequest rr = new RegisterRequest();
+            rr.setUsername(unique);
+            rr.setEmail(unique + "@example.com");
+            rr.setPassword("password123");
+            rr.setRole(Role.CUSTOMER);
+            userService.register(rr);
+            User user = userRepository.findByUsername(unique).orElseThrow();
+            String account = accountService.createAccount(user).getAccountNumber();
+
+            for (int i = 0; i < 3; i++) {
+                accountService.deposit(user, account, new BigDecimal("1.00"), "fill");
+            }
+            assertThatThrownBy(() -> accountService.deposit(user, account, new BigDecimal("1.00"), "overflow"))
+                    .isInstanceOf(TooManyRequestsException.class);
+            // The refused deposit was never applied.
+            assertThat(accountService.listAccounts(user))
+                    .extracting(AccountResponse::getBalance)
+                    .usingComparatorForType(BigDecimal::compareTo, BigDecimal.class)
+                    .containsExactly(new BigDecimal("3.00"));
+        }
+    }
+
+    // The dead-letter table fails once, and while it does the shards refill the queue behind the flusher.
+    @Nested
+    @TestPropertySource(properties = {
+            "spring.datasource.url=jdbc:h2:mem:testledgerengine_deadletter;DB_CLOSE_DELAY=-1;MODE=PostgreSQL;LOCK_TIMEOUT=10000",
+            "app.transactions.engine.max-pending-postings=2",
+            "app.transactions.engine.flush-attempts=1"
+    })
+    class DeadLetterOutage {
+        @Autowired
+        private UserService userService;
+        @Autowired
+        private UserRepository userRepository;
+        @Autowired
+        private AccountService accountService;
+        @Autowired
+        private LedgerEngine ledgerEngine;
+        @Autowired
+        private TransactionRecordRepository txRepository;
+        @Autowired
+        private MeterRegistry meterRegistry;
+        @SpyBean
+        private LedgerDeadLetterRepository deadLetterRepository;
+
+        @AfterEach
+        void restoreDeadLetters() {
+            reset(deadLetterRepository);
+        }
+
+        private void awaitRecords(long expected) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + 10_000;
+            while (txRepository.count() < expected && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+            assertThat(txRepository.count()).isEqualTo(expected);
+        }
+
+        @Test
+        void postingsHeldBackByAFailingDeadLetterAreKeptWhileTheQueueRefills() throws Exception {
+            User user = bootstrapUser(userService, userRepository);
+            String a = accountService.createAccount(user).getAccountNumber();
+            String b = accountService.createAccount(user).getAccountNumber();
+            long seeded = txRepository.count() + 1;
+            accountService.deposit(user, a, new BigDecimal("100.00"), "seed");
+            awaitRecords(seeded);
+            String takenReference = txRepository.findAll(PageRequest.of(0, 1)).getContent().get(0).getReference();
+
+            CountDownLatch refilled = new CountDownLatch(1);
+            doAnswer(invocation -> {
+                // The flusher has drained the bad posting; fill the queue to capacity before failing.
+                if (refilled.getCount() > 0) {
+                    accountService.deposit(user, b, new BigDecimal("1.00"), "behind the outage");
+                    accountService.deposit(user, b, new BigDecimal("2.00"), "behind the outage");
+                    refilled.countDown();
+                }
+                throw new DataAccessResourceFailureException("dead-letter table unavailable");
+            }).when(deadLetterRepository).save(any());
+
+            TransferRequest tr = new TransferRequest();
+            tr.setFromAccount(a);
+            tr.setToAccount(b);
+            tr.setAmount(new BigDecimal("10.00"));
+            ledgerEngine.transfer(user, tr, takenReference);
+            assertThat(refilled.await(10, TimeUnit.SECONDS)).isTrue();
+            reset(deadLetterRepository);
+
+            awaitRecords(seeded + 2);
+            long deadline = System.currentTimeMillis() + 10_000;
+            while (deadLetterRepository.findByReference(takenReference).isEmpty() && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+            assertThat(deadLetterRepository.findByReference(takenReference)).hasValueSatisfying(row ->
+                    assertThat(row.getAmount()).isEqualByComparingTo("10.00"));
+            assertThat(meterRegistry.get("novabank.ledger.pending_postings").gauge().value()).isZero();
+        }
+    }
+
+    // The same workload with the engine off, through the default JPA path (conditional single-row UPDATEs).
+    @Nested
+    @TestPropertySource(properties = {
+            "spring.datasource.url=jdbc:h2:mem:testledgerengine_jpa;DB_CLOSE_DELAY=-1;MODE=PostgreSQL;LOCK_TIMEOUT=10000",
+            "app.transactions.engine.enabled=false"
+    })
+    class JpaPath {
+        @Autowired
+        private UserService userService;
+        @Autowired
+        private UserRepository userRepository;
+        @Autowired
+        private AccountService accountService;
+        @Autowired
+        private TransactionService transactionService;
+        @Autowired
+        private LedgerService ledgerService;
+
+        @Test
+        void sameWorkloadWithoutTheEngine() throws Exception {
+            User user = bootstrapUser(userService, userRepository);
+            List<String> accounts = seedAccounts(accountService, user);
+
+            double jpaRate = runTransfers(transactionService, user, accounts);
+            if (engineRate > 0) {
+                log.info("JPA path: {} transfers at {} tx/s; ledger engine: {} tx/s ({}x)", TRANSFERS,
+                        Math.round(jpaRate), Math.round(engineRate), Math.round(engineRate / jpaRate * 10) / 10.0);
+            } else {
+                log.info("JPA path: {} transfers at {} tx/s (engine run skipped)", TRANSFERS, Math.round(jpaRate));
+            }
+
+            BigDecimal total = accountService.listAccounts(user).stream()
+                    .map(AccountResponse::getBalance)
+                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+            assertThat(total).isEqualByComparingTo("6000.00");
+            for (String account : accounts) {
+                assertThat(ledgerService.reconcile(account).isConsistent()).isTrue();
+            }
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.novabank.core;
+
+import com.novabank.core.config.TransactionProperties;
+import com.novabank.core.dto.auth.RegisterRequest;
+import com.novabank.core.dto.transaction.TransactionSummaryResponse;
+import com.novabank.core.dto.transaction.TransferRequest;
+import com.novabank.core.model.Account;
+import com.novabank.core.model.LedgerEntry;
+import com.novabank.core.model.Role;
+import com.novabank.core.model.TransactionRecord;
+import com.novabank.core.model.User;
+import com.novabank.core.repository.AccountRepository;
+import com.novabank.core.repository.LedgerEntryRepository;
+import com.novabank.core.repository.TransactionRecordRepository;
+import com.novabank.core.repository.UserRepository;
+import com.novabank.core.service.AccountService;
+import com.novabank.core.service.LedgerService;
+import com.novabank.core.service.TransactionService;
+import com.novabank.core.service.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:testledgerentries;DB_CLOSE_DELAY=-1;MODE=PostgreSQL",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class LedgerEntryTests {
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private AccountService accountService;
+    @Autowired
+    private TransactionService transactionService;
+    @Autowired
+    private LedgerService ledgerService;
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+    @Autowired
+    private TransactionProperties transactionProperties;
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private TransactionRecordRepository txRepository;
+
+    private final TransactionProperties.LockMode defaultLockMode = new TransactionProperties().getLockMode();
+
+    @AfterEach
+    void restoreLockMode() {
+        transactionProperties.setLockMode(defaultLockMode);
+    }
+
+    private User bootstrapUser() {
+        String unique = "grace_" + System.nanoTime();
+        RegisterRequest rr = new RegisterRequest();
+        rr.setUsername(unique);
+        rr.setEmail(unique + "@example.com");
+        rr.setPassword("password123");
+        rr.setRole(Role.CUSTOMER);
+        userService.register(rr);
+        return userRepository.findByUsername(unique).orElseThrow();
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = TransactionProperties.LockMode.class, names = {"PESSIMISTIC", "ATOMIC"})
+    void everyPostingWritesBalancedEntriesWithRunningBalances(TransactionProperties.LockMode lockMode) {
+        transactionProperties.setLockMode(lockMode);
+        User user = bootstrapUser();
+        String a = accountService.createAccount(user).getAccountNumber();
+        String b = accountService.createAccount(user).getAccountNumber();
+        String dateBefore = LocalDate.now(ZoneOffset.UTC).minusDays(1).toString();
+        String today = LocalDate.now(ZoneOffset.UTC).toString();
+
+        accountService.deposit(user, a, new BigDecimal("100.00"), "seed");
+        accountService.withdraw(user, a, new BigDecimal("30.00"), "cash");
+        TransferRequest tr = new TransferRequest();
+        tr.setFromAccount(a);
+        tr.setToAccount(b);
+        tr.setAmount(new BigDecimal("25.00"));
+        String reference = transactionService.transfer(user, tr);
+
+        List<LedgerEntry> transfer = ledgerEntryRepository.findByReferenceOrderById(reference);
+        assertThat(transfer).extracting(LedgerEntry::getDirection)
+                .containsExactly(LedgerEntry.Direction.DEBIT, LedgerEntry.Direction.CREDIT);
+        assertThat(transfer.get(0).getAccountNumber()).isEqualTo(a);
+        assertThat(transfer.get(0).getSequence()).isEqualTo(3L);
+        assertThat(transfer.get(0).getBalanceAfter()).isEqualByComparingTo("45.00");
+        assertThat(transfer.get(1).getAccountNumber()).isEqualTo(b);
+        assertThat(transfer.get(1).getSequence()).isEqualTo(1L);
+        assertThat(transfer.get(1).getBalanceAfter()).isEqualByComparingTo("25.00");
+
+        assertThat(ledgerService.reconcile(a).isConsistent()).isTrue();
+        assertThat(ledgerService.reconcile(b).isConsistent()).isTrue();
+        assertThat(ledgerService.ledgerBalance(a)).isEqualByComparingTo("45.00");
+
+        TransactionSummaryResponse summary = transactionService.summarizeUserTransactions(user, dateBefore, today, a);
+        assertThat(summary.getOpeningBalance()).isEqualByComparingTo("0.00");
+        assertThat(summary.getClosingBalance()).isEqualByComparingTo("45.00");
+        TransactionSummaryResponse tomorrow = transactionService.summarizeUserTransactions(
+                user, LocalDate.now(ZoneOffset.UTC).plusDays(1).toString(), null, null);
+        assertThat(tomorrow.getOpeningBalance()).isEqualByComparingTo("70.00");
+        assertThat(tomorrow.getClosingBalance()).isEqualByComparingTo("70.00");
+    }
+
+    // A balance written before ledger_entries existed: the row and its transaction, but no entries.
+    private String legacyAccount(User user, String balance, Instant occurredAt) {
+        String number = accountService.createAccount(user).getAccountNumber();
+        Account account = accountRepository.findByAccountNumber(number).orElseThrow();
+        account.setBalance(new BigDecimal(balance));
+        accountRepository.save(account);
+        TransactionRecord tx = new TransactionRecord();
+        tx.setType(TransactionRecord.Type.DEPOSIT);
+        tx.setToAccount(account);
+        tx.setAmount(new BigDecimal(balance));
+        tx.setOccurredAt(occurredAt);
+        txRepository.save(tx);
+        return number;
+    }
+
+    @Test
+    void balancesFromBeforeTheLedgerGetAnOpeningEntry() {
+        User user = bootstrapUser();
+        Instant tenDaysAgo = Instant.now().minus(Duration.ofDays(10));
+        String untouched = legacyAccount(user, "500.00", tenDaysAgo);
+        String postedSince = legacyAccount(user, "300.00", tenDaysAgo);
+        Instant beforeDeposit = Instant.now();
+        accountService.deposit(user, postedSince, new BigDecimal("50.00"), "after the ledger");
+
+        assertThat(ledgerService.ledgerBalance(untouched)).isEqualByComparingTo("0.00");
+        assertThat(ledgerService.reconcile(untouched).isConsistent()).isFalse();
+
+        assertThat(ledgerService.openLegacyBalances()).isGreaterThanOrEqualTo(2);
+        assertThat(ledgerService.openLegacyBalances()).isZero();
+
+        assertThat(ledgerService.reconcile(untouched).isConsistent()).isTrue();
+        assertThat(ledgerService.ledgerBalance(untouched)).isEqualByComparingTo("500.00");
+        assertThat(ledgerService.balanceBefore(untouched, tenDaysAgo.plusSeconds(1))).isEqualByComparingTo("500.00");
+        assertThat(ledgerService.balanceBefore(untouched, tenDaysAgo.minusSeconds(1))).isEqualByComparingTo("0.00");
+
+        assertThat(ledgerService.reconcile(postedSince).isConsistent()).isTrue();
+        assertThat(ledgerService.ledgerBalance(postedSince)).isEqualByComparingTo("350.00");
+        assertThat(ledgerService.balanceBefore(postedSince, beforeDeposit)).isEqualByComparingTo("300.00");
+
+        // New postings continue from the opening balance.
+        accountService.deposit(user, untouched, new BigDecimal("20.00"), "first posting");
+        assertThat(ledgerService.reconcile(untouched).isConsistent()).isTrue();
+        TransactionSummaryResponse summary = transactionService.summarizeUserTransactions(user,
+                LocalDate.now(ZoneOffset.UTC).minusDays(5).toString(), LocalDate.now(ZoneOffset.UTC).toString(), untouched);
+        assertThat(summary.getOpeningBalance()).isEqualByComparingTo("500.00");
+        assertThat(summary.getClosingBalance()).isEqualByComparingTo("520.00");
+    }
+}
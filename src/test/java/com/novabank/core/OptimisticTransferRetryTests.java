@@ -0,0 +1,111 @@
+package com.novabank.core;
+
+import com.novabank.core.dto.account.AccountResponse;
+import com.novabank.core.dto.auth.RegisterRequest;
+import com.novabank.core.dto.transaction.TransferRequest;
+import com.novabank.core.model.Role;
+import com.novabank.core.model.User;
+import com.novabank.core.repository.UserRepository;
+import com.novabank.core.service.AccountService;
+import com.novabank.core.service.TransactionService;
+import com.novabank.core.service.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:testoptimisticretry;DB_CLOSE_DELAY=-1;MODE=PostgreSQL;LOCK_TIMEOUT=10000",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "app.transactions.lock-mode=OPTIMISTIC",
+        "app.transactions.retry.max-attempts=100"
+})
+class OptimisticTransferRetryTests {
+
+    private static final int THREADS = 8;
+    private static final int TRANSFERS = 200;
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private AccountService accountService;
+    @Autowired
+    private TransactionService transactionService;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private User bootstrapUser() {
+        String unique = "dave_" + System.nanoTime();
+        RegisterRequest rr = new RegisterRequest();
+        rr.setUsername(unique);
+        rr.setEmail(unique + "@example.com");
+        rr.setPassword("password123");
+        rr.setRole(Role.CUSTOMER);
+        userService.register(rr);
+        return userRepository.findByUsername(unique).orElseThrow();
+    }
+
+    @Test
+    void conflictingTransfersAreRetriedAndConserveMoney() throws Exception {
+        User user = bootstrapUser();
+        String a = accountService.createAccount(user).getAccountNumber();
+        String b = accountService.createAccount(user).getAccountNumber();
+        accountService.deposit(user, a, new BigDecimal("1000.00"), "seed");
+        accountService.deposit(user, b, new BigDecimal("1000.00"), "seed");
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < TRANSFERS; i++) {
+                boolean forward = i % 2 == 0;
+                futures.add(pool.submit(() -> {
+                    TransferRequest tr = new TransferRequest();
+                    tr.setFromAccount(forward ? a : b);
+                    tr.setToAccount(forward ? b : a);
+                    tr.setAmount(new BigDecimal("1.00"));
+                    try {
+                        start.await();
+                        transactionService.transfer(user, tr);
+                    } catch (Throwable t) {
+                        failures.add(t);
+                    }
+                }));
+            }
+            start.countDown();
+            for (Future<?> f : futures) {
+                f.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(failures).isEmpty();
+        BigDecimal total = accountService.listAccounts(user).stream()
+                .map(AccountResponse::getBalance)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        assertThat(total).isEqualByComparingTo("2000.00");
+        assertThat(meterRegistry.find("novabank.optimistic.retries").counter()).isNotNull();
+        assertThat(meterRegistry.find("novabank.optimistic.retry.exhausted").counter()).isNull();
+    }
+}
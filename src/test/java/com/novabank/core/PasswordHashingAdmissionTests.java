@@ -0,0 +1,115 @@
+package com.novabank.core;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.novabank.core.dto.auth.LoginRequest;
+import com.novabank.core.dto.auth.RegisterRequest;
+import com.novabank.core.model.Role;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:testpasswordhashing;DB_CLOSE_DELAY=-1;MODE=PostgreSQL",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "security.password-hashing.threads=1",
+        "security.password-hashing.queue-capacity=1",
+        "security.password-hashing.max-wait-ms=30000"
+})
+class PasswordHashingAdmissionTests {
+
+    private static final int CONCURRENT_LOGINS = 20;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private MockHttpServletResponse login(String username) throws Exception {
+        LoginRequest lr = new LoginRequest();
+        lr.setUsername(username);
+        lr.setPassword("password123");
+        return mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(lr)))
+                .andReturn()
+                .getResponse();
+    }
+
+    @Test
+    void aLoginBurstBeyondThePoolIsShedWith429() throws Exception {
+        String username = "uma_" + System.nanoTime();
+        RegisterRequest rr = new RegisterRequest();
+        rr.setUsername(username);
+        rr.setEmail(username + "@example.com");
+        rr.setPassword("password123");
+        rr.setRole(Role.CUSTOMER);
+        mockMvc.perform(post("/api/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(rr)))
+                .andExpect(status().isOk());
+        // One login on its own goes through untouched.
+        assertThat(login(username).getStatus()).isEqualTo(200);
+
+        double rejectedBefore = meterRegistry.counter("novabank.password.hash.rejected", "reason", "queue_full").count();
+        ExecutorService clients = Executors.newFixedThreadPool(CONCURRENT_LOGINS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<MockHttpServletResponse>> futures = new ArrayList<>();
+            for (int i = 0; i < CONCURRENT_LOGINS; i++) {
+                futures.add(clients.submit(() -> {
+                    start.await();
+                    return login(username);
+                }));
+            }
+            start.countDown();
+
+            int ok = 0;
+            int shed = 0;
+            for (Future<MockHttpServletResponse> future : futures) {
+                MockHttpServletResponse response = future.get();
+                if (response.getStatus() == 200) {
+                    ok++;
+                } else {
+                    assertThat(response.getStatus()).isEqualTo(429);
+                    assertThat(response.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+                    shed++;
+                }
+            }
+            // One thread and one queue slot: a few logins are served, the rest are refused straight away.
+            assertThat(ok).isPositive();
+            assertThat(shed).isPositive();
+            assertThat(meterRegistry.counter("novabank.password.hash.rejected", "reason", "queue_full").count())
+                    .isEqualTo(rejectedBefore + shed);
+        } finally {
+            clients.shutdownNow();
+        }
+
+        assertThat(meterRegistry.get("novabank.password.hash.queue_depth").gauge().value()).isZero();
+        assertThat(meterRegistry.get("novabank.password.hash").tag("operation", "matches").timer().count())
+                .isGreaterThan(1);
+    }
+}
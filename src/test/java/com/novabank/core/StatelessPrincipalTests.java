@@ -0,0 +1,117 @@
+package com.novabank.core;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.novabank.core.dto.auth.LoginRequest;
+import com.novabank.core.dto.auth.RegisterRequest;
+import com.novabank.core.model.Role;
+import com.novabank.core.model.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:teststatelessprincipal;DB_CLOSE_DELAY=-1;MODE=PostgreSQL",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "security.jwt.principal-source=claims"
+})
+class StatelessPrincipalTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private void register(String username) throws Exception {
+        RegisterRequest rr = new RegisterRequest();
+        rr.setUsername(username);
+        rr.setEmail(username + "@example.com");
+        rr.setPassword("password123");
+        rr.setRole(Role.CUSTOMER);
+        mockMvc.perform(post("/api/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(rr)))
+                .andExpect(status().isOk());
+    }
+
+    private String login(String username, String password) throws Exception {
+        LoginRequest lr = new LoginRequest();
+        lr.setUsername(username);
+        lr.setPassword(password);
+        MvcResult res = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(lr)))
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper.readTree(res.getResponse().getContentAsString()).get("token").asText();
+    }
+
+    @Test
+    void requestsAreAuthenticatedWithoutReadingTheUser() throws Exception {
+        String username = "quinn_" + System.nanoTime();
+        register(username);
+        String token = login(username, "password123");
+        // The first request reads the user's tokensNotBefore into the cache.
+        mockMvc.perform(get("/api/accounts").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        long userLoads = statistics.getEntityStatistics(User.class.getName()).getLoadCount();
+        for (int i = 0; i < 5; i++) {
+            mockMvc.perform(get("/api/accounts").header("Authorization", "Bearer " + token))
+                    .andExpect(status().isOk());
+        }
+        assertThat(statistics.getEntityStatistics(User.class.getName()).getLoadCount()).isEqualTo(userLoads);
+
+        // The claims principal still works where the service needs the user's id.
+        mockMvc.perform(post("/api/accounts").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void revokedTokensAreRejected() throws Exception {
+        String username = "rhea_" + System.nanoTime();
+        register(username);
+        String token = login(username, "password123");
+        mockMvc.perform(get("/api/accounts").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+
+        MvcResult revoked = mockMvc.perform(post("/api/admin/users/{username}/revoke-tokens", username)
+                        .header("Authorization", "Bearer " + login("admin", "admin12345")))
+                .andExpect(status().isOk())
+                .andReturn();
+        Instant notBefore = Instant.parse(objectMapper.readTree(revoked.getResponse().getContentAsString())
+                .get("tokensNotBefore").asText());
+
+        mockMvc.perform(get("/api/accounts").header("Authorization", "Bearer " + token))
+                .andExpect(status().isForbidden());
+
+        // Tokens carry whole-second issue times; one issued once the cut-off has passed is accepted.
+        Thread.sleep(Math.max(0, Duration.between(Instant.now(), notBefore).toMillis()) + 50);
+        String fresh = login(username, "password123");
+        mockMvc.perform(get("/api/accounts").header("Authorization", "Bearer " + fresh))
+                .andExpect(status().isOk());
+    }
+}
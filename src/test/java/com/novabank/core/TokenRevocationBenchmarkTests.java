@@ -0,0 +1,87 @@
+package com.novabank.core;
+
+import com.novabank.core.security.TokenRevocationList;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.lang.management.ManagementFactory;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Measures the revocation check {@code JwtAuthFilter} makes on every request. Tokens that were never revoked
+ * must be answered by the Bloom filter alone, without allocating; the test fails if they allocate, and logs
+ * the time per lookup for revoked and non-revoked ids.
+ */
+@SpringBootTest
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:testrevocationbench;DB_CLOSE_DELAY=-1;MODE=PostgreSQL",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "security.revocation.sweep-interval-ms=3600000"
+})
+class TokenRevocationBenchmarkTests {
+    private static final Logger log = LoggerFactory.getLogger(TokenRevocationBenchmarkTests.class);
+
+    private static final int REVOKED = 2000;
+    private static final int LOOKUPS = 1_000_000;
+
+    @Autowired
+    private TokenRevocationList revocationList;
+
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getCurrentThreadAllocatedBytes();
+    }
+
+    private long lookups(String[] ids) {
+        long found = 0;
+        for (int i = 0; i < LOOKUPS; i++) {
+            if (revocationList.isRevoked(ids[i % ids.length])) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    @Test
+    void nonRevokedLookupsAllocateNothing() {
+        String[] revoked = new String[REVOKED];
+        Instant expiresAt = Instant.now().plusSeconds(3600);
+        for (int i = 0; i < REVOKED; i++) {
+            revoked[i] = UUID.randomUUID().toString();
+            revocationList.revoke(revoked[i], "bench", expiresAt);
+        }
+        String[] live = new String[4096];
+        for (int i = 0; i < live.length; i++) {
+            live[i] = UUID.randomUUID().toString();
+        }
+        // Warm up so the measured loops run compiled code.
+        lookups(live);
+        lookups(revoked);
+
+        long allocatedBefore = allocatedBytes();
+        long started = System.nanoTime();
+        long liveFound = lookups(live);
+        long liveNanos = System.nanoTime() - started;
+        long allocated = allocatedBytes() - allocatedBefore;
+
+        started = System.nanoTime();
+        long hits = lookups(revoked);
+        long revokedNanos = System.nanoTime() - started;
+
+        log.info("Revocation check: {} ns/lookup for live tokens ({} bytes allocated over {} lookups), "
+                        + "{} ns/lookup for revoked ones",
+                (double) liveNanos / LOOKUPS, allocated, LOOKUPS, (double) revokedNanos / LOOKUPS);
+        assertThat(liveFound).isZero();
+        assertThat(hits).isEqualTo(LOOKUPS);
+        // Even a single 16-byte object per lookup would show up as megabytes here.
+        assertThat(allocated).isLessThan(64 * 1024);
+    }
+}
@@ -0,0 +1,127 @@
+package com.novabank.core;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.novabank.core.dto.auth.LoginRequest;
+import com.novabank.core.dto.auth.RegisterRequest;
+import com.novabank.core.model.RevokedToken;
+import com.novabank.core.model.Role;
+import com.novabank.core.repository.RevokedTokenRepository;
+import com.novabank.core.security.JwtService;
+import com.novabank.core.security.TokenRevocationList;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:testrevocation;DB_CLOSE_DELAY=-1;MODE=PostgreSQL",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        // The tests sweep by hand.
+        "security.revocation.sweep-interval-ms=3600000"
+})
+class TokenRevocationTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private JwtService jwtService;
+    @Autowired
+    private TokenRevocationList revocationList;
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    private void register(String username) throws Exception {
+        RegisterRequest rr = new RegisterRequest();
+        rr.setUsername(username);
+        rr.setEmail(username + "@example.com");
+        rr.setPassword("password123");
+        rr.setRole(Role.CUSTOMER);
+        mockMvc.perform(post("/api/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(rr)))
+                .andExpect(status().isOk());
+    }
+
+    private String login(String username, String password) throws Exception {
+        LoginRequest lr = new LoginRequest();
+        lr.setUsername(username);
+        lr.setPassword(password);
+        MvcResult res = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(lr)))
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper.readTree(res.getResponse().getContentAsString()).get("token").asText();
+    }
+
+    @Test
+    void logoutRevokesOnlyTheTokenInUse() throws Exception {
+        String username = "uma_" + System.nanoTime();
+        register(username);
+        String phone = login(username, "password123");
+        String laptop = login(username, "password123");
+
+        mockMvc.perform(post("/api/auth/logout").header("Authorization", "Bearer " + phone))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/accounts").header("Authorization", "Bearer " + phone))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/accounts").header("Authorization", "Bearer " + laptop))
+                .andExpect(status().isOk());
+        assertThat(revokedTokenRepository.existsByTokenId(jwtService.verify(phone).tokenId())).isTrue();
+    }
+
+    @Test
+    void adminCanRevokeATokenById() throws Exception {
+        String username = "vera_" + System.nanoTime();
+        register(username);
+        String token = login(username, "password123");
+
+        mockMvc.perform(post("/api/admin/tokens/{tokenId}/revoke", jwtService.verify(token).tokenId())
+                        .header("Authorization", "Bearer " + login("admin", "admin12345")))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/accounts").header("Authorization", "Bearer " + token))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void sweepPicksUpOtherInstancesAndForgetsExpiredTokens() {
+        // As if revoked by another instance: only the row exists.
+        String elsewhere = UUID.randomUUID().toString();
+        RevokedToken live = new RevokedToken();
+        live.setTokenId(elsewhere);
+        live.setExpiresAt(Instant.now().plusSeconds(3600));
+        revokedTokenRepository.save(live);
+
+        String expired = UUID.randomUUID().toString();
+        RevokedToken old = new RevokedToken();
+        old.setTokenId(expired);
+        old.setExpiresAt(Instant.now().minusSeconds(1));
+        revokedTokenRepository.save(old);
+
+        assertThat(revocationList.isRevoked(elsewhere)).isFalse();
+        assertThat(revocationList.sweep()).isGreaterThanOrEqualTo(1);
+        assertThat(revocationList.isRevoked(elsewhere)).isTrue();
+        assertThat(revocationList.isRevoked(expired)).isFalse();
+        assertThat(revokedTokenRepository.existsByTokenId(expired)).isFalse();
+        assertThat(revokedTokenRepository.existsByTokenId(elsewhere)).isTrue();
+    }
+}
@@ -1,21 +1,39 @@
 package com.novabank.core;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.novabank.core.dto.auth.LoginRequest;
 import com.novabank.core.dto.transaction.TransferRequest;
 import com.novabank.core.model.Role;
 import com.novabank.core.model.User;
+import com.novabank.core.repository.AccountRepository;
 import com.novabank.core.repository.UserRepository;
 import com.novabank.core.service.AccountService;
 import com.novabank.core.service.TransactionService;
 import com.novabank.core.service.UserService;
 import com.novabank.core.dto.auth.RegisterRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.MediaType;
 import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.math.BigDecimal;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.reset;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
 @TestPropertySource(properties = {
@@ -77,4 +95,72 @@ class TransactionEdgeTests {
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessageContaining("Insufficient");
     }
+
+    // The atomic debit matches no row although the account still passes every check, as when a concurrent
+    // posting changed it between the UPDATE and the re-read.
+    @Nested
+    @AutoConfigureMockMvc
+    @TestPropertySource(properties = {
+            "spring.datasource.url=jdbc:h2:mem:testdb2_race;DB_CLOSE_DELAY=-1;MODE=PostgreSQL",
+            "app.transactions.lock-mode=ATOMIC"
+    })
+    class LostRace {
+        @Autowired
+        private MockMvc mockMvc;
+        @Autowired
+        private ObjectMapper objectMapper;
+        @Autowired
+        private UserService userService;
+        @Autowired
+        private UserRepository userRepository;
+        @Autowired
+        private AccountService accountService;
+        @SpyBean
+        private AccountRepository accountRepository;
+
+        @AfterEach
+        void restoreRepository() {
+            reset(accountRepository);
+        }
+
+        @Test
+        void aTransferThatLosesItsConditionalUpdateIsAnsweredWith409() throws Exception {
+            String unique = "bob_" + System.nanoTime();
+            RegisterRequest rr = new RegisterRequest();
+            rr.setUsername(unique);
+            rr.setEmail(unique + "@example.com");
+            rr.setPassword("password123");
+            rr.setRole(Role.CUSTOMER);
+            userService.register(rr);
+            User user = userRepository.findByUsername(unique).orElseThrow();
+            String from = accountService.createAccount(user).getAccountNumber();
+            String to = accountService.createAccount(user).getAccountNumber();
+            accountService.deposit(user, from, new BigDecimal("50.00"), "seed");
+
+            LoginRequest lr = new LoginRequest();
+            lr.setUsername(unique);
+            lr.setPassword("password123");
+            MvcResult login = mockMvc.perform(post("/api/auth/login")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(lr)))
+                    .andExpect(status().isOk())
+                    .andReturn();
+            String token = objectMapper.readTree(login.getResponse().getContentAsString()).get("token").asText();
+
+            doReturn(0).when(accountRepository).debit(eq(from), any(), any(), any());
+            TransferRequest tr = new TransferRequest();
+            tr.setFromAccount(from);
+            tr.setToAccount(to);
+            tr.setAmount(new BigDecimal("20.00"));
+            mockMvc.perform(post("/api/transactions/transfer")
+                            .header("Authorization", "Bearer " + token)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(tr)))
+                    .andExpect(status().isConflict())
+                    .andExpect(jsonPath("$.code").value("CONFLICT"));
+
+            assertThat(accountRepository.findByAccountNumber(from).orElseThrow().getBalance()).isEqualByComparingTo("50.00");
+            assertThat(accountRepository.findByAccountNumber(to).orElseThrow().getBalance()).isEqualByComparingTo("0.00");
+        }
+    }
 }
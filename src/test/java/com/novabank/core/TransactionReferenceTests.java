@@ -0,0 +1,42 @@
+package com.novabank.core;
+
+import com.novabank.core.model.TransactionRecord;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TransactionReferenceTests {
+
+    @Test
+    void referencesAreVersion7UuidsInTheUsualFormat() {
+        String reference = TransactionRecord.newReference();
+        UUID parsed = UUID.fromString(reference);
+
+        assertThat(reference).hasSize(36).matches("[0-9a-f]{8}-[0-9a-f]{4}-7[0-9a-f]{3}-[89ab][0-9a-f]{3}-[0-9a-f]{12}");
+        assertThat(parsed.version()).isEqualTo(7);
+        assertThat(parsed.variant()).isEqualTo(2);
+        long millis = parsed.getMostSignificantBits() >>> 16;
+        assertThat(millis).isBetween(System.currentTimeMillis() - 60_000, System.currentTimeMillis());
+    }
+
+    @Test
+    void laterReferencesSortAfterEarlierOnesAndDoNotCollide() throws InterruptedException {
+        List<String> references = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            references.add(TransactionRecord.newReference());
+            Thread.sleep(2);
+        }
+        assertThat(references).isSorted();
+
+        HashSet<String> many = new HashSet<>();
+        for (int i = 0; i < 100_000; i++) {
+            many.add(TransactionRecord.newReference());
+        }
+        assertThat(many).hasSize(100_000);
+    }
+}
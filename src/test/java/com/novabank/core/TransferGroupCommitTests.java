@@ -0,0 +1,142 @@
+package com.novabank.core;
+
+import com.novabank.core.dto.account.AccountResponse;
+import com.novabank.core.dto.auth.RegisterRequest;
+import com.novabank.core.dto.transaction.TransferRequest;
+import com.novabank.core.model.Role;
+import com.novabank.core.model.User;
+import com.novabank.core.repository.UserRepository;
+import com.novabank.core.service.AccountService;
+import com.novabank.core.service.TransactionService;
+import com.novabank.core.service.UserService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:testgroupcommit;DB_CLOSE_DELAY=-1;MODE=PostgreSQL;LOCK_TIMEOUT=10000",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "app.transactions.group-commit.enabled=true",
+        "app.transactions.group-commit.max-wait-micros=2000"
+})
+class TransferGroupCommitTests {
+
+    private static final int THREADS = 16;
+    private static final int TRANSFERS = 1000;
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private AccountService accountService;
+    @Autowired
+    private TransactionService transactionService;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private User bootstrapUser() {
+        String unique = "erin_" + System.nanoTime();
+        RegisterRequest rr = new RegisterRequest();
+        rr.setUsername(unique);
+        rr.setEmail(unique + "@example.com");
+        rr.setPassword("password123");
+        rr.setRole(Role.CUSTOMER);
+        userService.register(rr);
+        return userRepository.findByUsername(unique).orElseThrow();
+    }
+
+    @Test
+    void concurrentTransfersShareCommitsAndConserveMoney() throws Exception {
+        User user = bootstrapUser();
+        String a = accountService.createAccount(user).getAccountNumber();
+        String b = accountService.createAccount(user).getAccountNumber();
+        accountService.deposit(user, a, new BigDecimal("1000.00"), "seed");
+        accountService.deposit(user, b, new BigDecimal("1000.00"), "seed");
+
+        DistributionSummary batchSizes = meterRegistry.get("novabank.transfer.group_commit.batch_size").summary();
+        double groupedBefore = batchSizes.totalAmount();
+        long waitsBefore = meterRegistry.get("novabank.transfer.group_commit.queue_wait").timer().count();
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < TRANSFERS; i++) {
+                boolean forward = i % 2 == 0;
+                futures.add(pool.submit(() -> {
+                    TransferRequest tr = new TransferRequest();
+                    tr.setFromAccount(forward ? a : b);
+                    tr.setToAccount(forward ? b : a);
+                    tr.setAmount(new BigDecimal("1.00"));
+                    try {
+                        start.await();
+                        transactionService.transfer(user, tr);
+                    } catch (Throwable t) {
+                        failures.add(t);
+                    }
+                }));
+            }
+            start.countDown();
+            for (Future<?> f : futures) {
+                f.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(failures).isEmpty();
+        BigDecimal total = accountService.listAccounts(user).stream()
+                .map(AccountResponse::getBalance)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        assertThat(total).isEqualByComparingTo("2000.00");
+        assertThat(batchSizes.totalAmount() - groupedBefore).isEqualTo(TRANSFERS + 0.0);
+        assertThat(batchSizes.max()).isGreaterThan(1.0);
+        assertThat(meterRegistry.get("novabank.transfer.group_commit.queue_wait").timer().count() - waitsBefore)
+                .isEqualTo(TRANSFERS);
+    }
+
+    @Test
+    void groupedTransfersReportTheirOwnErrorsAndReplays() {
+        User user = bootstrapUser();
+        String a = accountService.createAccount(user).getAccountNumber();
+        String b = accountService.createAccount(user).getAccountNumber();
+        accountService.deposit(user, a, new BigDecimal("50.00"), "seed");
+
+        TransferRequest tr = new TransferRequest();
+        tr.setFromAccount(a);
+        tr.setToAccount(b);
+        tr.setAmount(new BigDecimal("20.00"));
+        String reference = transactionService.transfer(user, tr, "group-key-1");
+        assertThat(transactionService.transfer(user, tr, "group-key-1")).isEqualTo(reference);
+
+        TransferRequest tooMuch = new TransferRequest();
+        tooMuch.setFromAccount(a);
+        tooMuch.setToAccount(b);
+        tooMuch.setAmount(new BigDecimal("500.00"));
+        assertThatThrownBy(() -> transactionService.transfer(user, tooMuch))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Insufficient");
+    }
+}
@@ -0,0 +1,138 @@
+package com.novabank.core;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.novabank.core.dto.auth.LoginRequest;
+import com.novabank.core.dto.auth.RegisterRequest;
+import com.novabank.core.event.UserSecurityChanged;
+import com.novabank.core.model.Role;
+import com.novabank.core.model.User;
+import com.novabank.core.repository.UserRepository;
+import com.novabank.core.security.CustomUserDetailsService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:testusercache;DB_CLOSE_DELAY=-1;MODE=PostgreSQL",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "security.jwt.principal-source=database"
+})
+class UserDetailsCacheTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private String registerAndLogin(String username) throws Exception {
+        RegisterRequest rr = new RegisterRequest();
+        rr.setUsername(username);
+        rr.setEmail(username + "@example.com");
+        rr.setPassword("password123");
+        rr.setRole(Role.CUSTOMER);
+        mockMvc.perform(post("/api/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(rr)))
+                .andExpect(status().isOk());
+        return login(username, "password123");
+    }
+
+    private String login(String username, String password) throws Exception {
+        LoginRequest lr = new LoginRequest();
+        lr.setUsername(username);
+        lr.setPassword(password);
+        MvcResult res = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(lr)))
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper.readTree(res.getResponse().getContentAsString()).get("token").asText();
+    }
+
+    private double cache(String result) {
+        return meterRegistry.counter("novabank.user_details.cache", "result", result).count();
+    }
+
+    @Test
+    void pollingWithATokenReadsTheUserOnce() throws Exception {
+        String token = registerAndLogin("sami_" + System.nanoTime());
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        long userLoads = statistics.getEntityStatistics(User.class.getName()).getLoadCount();
+        double hitsBefore = cache("hit");
+        for (int i = 0; i < 5; i++) {
+            mockMvc.perform(get("/api/accounts").header("Authorization", "Bearer " + token))
+                    .andExpect(status().isOk());
+        }
+        // Login already cached the user, so none of the polls goes to the users table.
+        assertThat(statistics.getEntityStatistics(User.class.getName()).getLoadCount()).isEqualTo(userLoads);
+        assertThat(cache("hit")).isEqualTo(hitsBefore + 5);
+        assertThat(meterRegistry.get("novabank.user_details.cache.hit_ratio").gauge().value()).isPositive();
+    }
+
+    @Test
+    void revokingTokensEvictsTheCachedUser() throws Exception {
+        String username = "tara_" + System.nanoTime();
+        String token = registerAndLogin(username);
+        mockMvc.perform(get("/api/accounts").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+
+        double invalidatedBefore = meterRegistry.counter("novabank.user_details.cache.evictions", "cause", "invalidated").count();
+        mockMvc.perform(post("/api/admin/users/{username}/revoke-tokens", username)
+                        .header("Authorization", "Bearer " + login("admin", "admin12345")))
+                .andExpect(status().isOk());
+
+        assertThat(meterRegistry.counter("novabank.user_details.cache.evictions", "cause", "invalidated").count())
+                .isEqualTo(invalidatedBefore + 1);
+        // Without the eviction the cached copy would still carry no cut-off and accept the token.
+        mockMvc.perform(get("/api/accounts").header("Authorization", "Bearer " + token))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void aLookupRacingAnEvictionDoesNotCacheWhatItRead() {
+        UserRepository users = mock(UserRepository.class);
+        CustomUserDetailsService service = new CustomUserDetailsService(users, new SimpleMeterRegistry(), 60, 100);
+        User stale = new User();
+        stale.setUsername("race");
+        // The row is read, then a token revocation commits and evicts before the lookup can cache it.
+        when(users.findByUsername("race")).thenAnswer(invocation -> {
+            service.on(new UserSecurityChanged(1L, "race"));
+            return Optional.of(stale);
+        });
+
+        assertThat(service.loadUserByUsername("race")).isSameAs(stale);
+        service.loadUserByUsername("race");
+        verify(users, times(2)).findByUsername("race");
+    }
+}
@@ -0,0 +1,158 @@
+package com.novabank.core;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.novabank.core.dto.auth.RegisterRequest;
+import com.novabank.core.model.OutboxEvent;
+import com.novabank.core.model.Role;
+import com.novabank.core.model.User;
+import com.novabank.core.repository.OutboxEventRepository;
+import com.novabank.core.repository.UserRepository;
+import com.novabank.core.service.AccountService;
+import com.novabank.core.service.UserService;
+import com.novabank.core.service.WebhookDispatcher;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:testwebhookbatching;DB_CLOSE_DELAY=-1;MODE=PostgreSQL",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "app.notifications.webhook.enabled=true",
+        "app.notifications.webhook.outbox.poll-interval-ms=3600000",
+        "app.notifications.webhook.batching.enabled=true",
+        "app.notifications.webhook.batching.max-batch-size=3",
+        // Only a full batch triggers a send in this test.
+        "app.notifications.webhook.batching.max-linger-ms=3600000"
+})
+class WebhookBatchingTests {
+
+    private static final Queue<String> received = new ConcurrentLinkedQueue<>();
+    private static final HttpServer receiver = startReceiver();
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private AccountService accountService;
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+    @Autowired
+    private WebhookDispatcher webhookDispatcher;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private static HttpServer startReceiver() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.createContext("/hook", exchange -> {
+                received.add(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+                exchange.sendResponseHeaders(200, -1);
+                exchange.close();
+            });
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @DynamicPropertySource
+    static void webhookUrl(DynamicPropertyRegistry registry) {
+        registry.add("app.notifications.webhook.url",
+                () -> "http://localhost:" + receiver.getAddress().getPort() + "/hook");
+    }
+
+    @AfterAll
+    static void stopReceiver() {
+        receiver.stop(0);
+    }
+
+    @BeforeEach
+    void clearReceived() {
+        received.clear();
+    }
+
+    private User bootstrapUser() {
+        String unique = "kim_" + System.nanoTime();
+        RegisterRequest rr = new RegisterRequest();
+        rr.setUsername(unique);
+        rr.setEmail(unique + "@example.com");
+        rr.setPassword("password123");
+        rr.setRole(Role.CUSTOMER);
+        userService.register(rr);
+        return userRepository.findByUsername(unique).orElseThrow();
+    }
+
+    @Test
+    void eventsAreHeldUntilABatchIsFullAndSentAsOneArrayInAccountOrder() throws Exception {
+        User user = bootstrapUser();
+        String first = accountService.createAccount(user).getAccountNumber();
+        String second = accountService.createAccount(user).getAccountNumber();
+
+        accountService.updateAccountStatus(user, first, false, "first freeze");
+        accountService.updateAccountStatus(user, first, false, "second freeze");
+        assertThat(webhookDispatcher.dispatchDue()).isZero();
+        assertThat(received).isEmpty();
+
+        accountService.updateAccountStatus(user, second, false, "other account");
+        assertThat(webhookDispatcher.dispatchDue()).isEqualTo(3);
+
+        assertThat(received).hasSize(1);
+        JsonNode batch = objectMapper.readTree(received.peek());
+        assertThat(batch.isArray()).isTrue();
+        List<String> reasons = batch.findValuesAsText("reason");
+        assertThat(reasons).containsExactly("first freeze", "second freeze", "other account");
+        assertThat(outboxEventRepository.findAll())
+                .allMatch(e -> e.getStatus() == OutboxEvent.Status.DELIVERED);
+    }
+
+    @Test
+    void anAccountsEventsFollowRecordingTimeNotIdOrder() throws Exception {
+        User user = bootstrapUser();
+        String first = accountService.createAccount(user).getAccountNumber();
+        String second = accountService.createAccount(user).getAccountNumber();
+
+        accountService.updateAccountStatus(user, first, false, "this node");
+        OutboxEvent local = outboxEventRepository.findAll().stream()
+                .filter(e -> e.getPayload().contains("this node"))
+                .findFirst()
+                .orElseThrow();
+        // Another node recorded an earlier event for the same account, but its id block is higher.
+        OutboxEvent remote = new OutboxEvent();
+        remote.setSubscriber(local.getSubscriber());
+        remote.setEventType(local.getEventType());
+        remote.setOrderingKey(local.getOrderingKey());
+        remote.setPayload(local.getPayload().replace("this node", "other node"));
+        remote.setNextAttemptAt(Instant.now());
+        remote.setCreatedAt(local.getCreatedAt().minusSeconds(1));
+        remote = outboxEventRepository.save(remote);
+        assertThat(remote.getId()).isGreaterThan(local.getId());
+
+        accountService.updateAccountStatus(user, second, false, "other account");
+        assertThat(webhookDispatcher.dispatchDue()).isEqualTo(3);
+
+        JsonNode batch = objectMapper.readTree(received.peek());
+        assertThat(batch.findValuesAsText("reason")).containsExactly("other node", "this node", "other account");
+    }
+}
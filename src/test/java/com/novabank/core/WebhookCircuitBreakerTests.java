@@ -0,0 +1,140 @@
+package com.novabank.core;
+
+import com.novabank.core.dto.auth.RegisterRequest;
+import com.novabank.core.model.OutboxEvent;
+import com.novabank.core.model.Role;
+import com.novabank.core.model.User;
+import com.novabank.core.repository.OutboxEventRepository;
+import com.novabank.core.repository.UserRepository;
+import com.novabank.core.service.AccountService;
+import com.novabank.core.service.UserService;
+import com.novabank.core.service.WebhookDispatcher;
+import com.novabank.core.service.WebhookHealthIndicator;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:testwebhookbreaker;DB_CLOSE_DELAY=-1;MODE=PostgreSQL",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "app.notifications.webhook.enabled=true",
+        "app.notifications.webhook.outbox.poll-interval-ms=3600000",
+        "app.notifications.webhook.outbox.batch-size=1",
+        "app.notifications.webhook.outbox.max-attempts=1",
+        "app.notifications.webhook.circuit-breaker.window-size=2",
+        "app.notifications.webhook.circuit-breaker.minimum-calls=2",
+        "app.notifications.webhook.circuit-breaker.open-duration-ms=3600000"
+})
+class WebhookCircuitBreakerTests {
+
+    private static final AtomicInteger calls = new AtomicInteger();
+    private static final HttpServer receiver = startReceiver();
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private AccountService accountService;
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+    @Autowired
+    private WebhookDispatcher webhookDispatcher;
+    @Autowired
+    private WebhookHealthIndicator webhookHealthIndicator;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private static HttpServer startReceiver() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.createContext("/hook", exchange -> {
+                exchange.getRequestBody().readAllBytes();
+                calls.incrementAndGet();
+                exchange.sendResponseHeaders(503, -1);
+                exchange.close();
+            });
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @DynamicPropertySource
+    static void webhookUrl(DynamicPropertyRegistry registry) {
+        registry.add("app.notifications.webhook.url",
+                () -> "http://localhost:" + receiver.getAddress().getPort() + "/hook");
+    }
+
+    @AfterAll
+    static void stopReceiver() {
+        receiver.stop(0);
+    }
+
+    private String frozenAccount() {
+        String unique = "judy_" + System.nanoTime();
+        RegisterRequest rr = new RegisterRequest();
+        rr.setUsername(unique);
+        rr.setEmail(unique + "@example.com");
+        rr.setPassword("password123");
+        rr.setRole(Role.CUSTOMER);
+        userService.register(rr);
+        User user = userRepository.findByUsername(unique).orElseThrow();
+        String account = accountService.createAccount(user).getAccountNumber();
+        accountService.updateAccountStatus(user, account, false, "review");
+        return account;
+    }
+
+    private OutboxEvent outboxEventFor(String accountNumber) {
+        return outboxEventRepository.findAll().stream()
+                .filter(e -> e.getPayload().contains(accountNumber))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void failingEndpointOpensTheCircuitAndParksFurtherEvents() {
+        String first = frozenAccount();
+        String second = frozenAccount();
+        String third = frozenAccount();
+
+        webhookDispatcher.dispatchDue();
+        webhookDispatcher.dispatchDue();
+        assertThat(outboxEventFor(first).getStatus()).isEqualTo(OutboxEvent.Status.DEAD);
+        assertThat(outboxEventFor(second).getStatus()).isEqualTo(OutboxEvent.Status.DEAD);
+        assertThat(calls.get()).isEqualTo(2);
+
+        // The circuit is open now: the third event is not sent, and it is not charged an attempt.
+        assertThat(webhookDispatcher.dispatchDue()).isZero();
+        OutboxEvent parked = outboxEventFor(third);
+        assertThat(calls.get()).isEqualTo(2);
+        assertThat(parked.getStatus()).isEqualTo(OutboxEvent.Status.PENDING);
+        assertThat(parked.getAttempts()).isZero();
+        assertThat(parked.getNextAttemptAt()).isAfter(Instant.now().plusSeconds(60));
+
+        String endpoint = "http://localhost:" + receiver.getAddress().getPort() + "/hook";
+        Map<String, Object> details = (Map<String, Object>) webhookHealthIndicator.health().getDetails().get(endpoint);
+        assertThat(details.get("state")).hasToString("OPEN");
+        assertThat(meterRegistry.get("novabank.webhook.circuit.state").tag("endpoint", endpoint).gauge().value())
+                .isEqualTo(1.0);
+    }
+}
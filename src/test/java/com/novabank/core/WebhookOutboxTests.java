@@ -0,0 +1,180 @@
+package com.novabank.core;
+
+import com.novabank.core.dto.auth.RegisterRequest;
+import com.novabank.core.dto.transaction.TransferRequest;
+import com.novabank.core.model.OutboxEvent;
+import com.novabank.core.model.Role;
+import com.novabank.core.model.User;
+import com.novabank.core.repository.OutboxEventRepository;
+import com.novabank.core.repository.UserRepository;
+import com.novabank.core.service.AccountService;
+import com.novabank.core.service.TransactionService;
+import com.novabank.core.service.UserService;
+import com.novabank.core.service.WebhookDispatcher;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:testwebhookoutbox;DB_CLOSE_DELAY=-1;MODE=PostgreSQL",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "app.notifications.webhook.enabled=true",
+        // Rounds are driven by the tests, not the background poller.
+        "app.notifications.webhook.outbox.poll-interval-ms=3600000",
+        "app.notifications.webhook.outbox.max-attempts=2",
+        "app.notifications.webhook.outbox.initial-backoff-ms=0"
+})
+class WebhookOutboxTests {
+
+    private static final Queue<String> received = new ConcurrentLinkedQueue<>();
+    private static final AtomicInteger responseStatus = new AtomicInteger(200);
+    private static final HttpServer receiver = startReceiver();
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private AccountService accountService;
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+    @Autowired
+    private WebhookDispatcher webhookDispatcher;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private TransactionService transactionService;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private static HttpServer startReceiver() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.createContext("/hook", exchange -> {
+                received.add(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+                exchange.sendResponseHeaders(responseStatus.get(), -1);
+                exchange.close();
+            });
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @DynamicPropertySource
+    static void webhookUrl(DynamicPropertyRegistry registry) {
+        registry.add("app.notifications.webhook.url",
+                () -> "http://localhost:" + receiver.getAddress().getPort() + "/hook");
+    }
+
+    @AfterAll
+    static void stopReceiver() {
+        receiver.stop(0);
+    }
+
+    private User bootstrapUser() {
+        String unique = "ivan_" + System.nanoTime();
+        RegisterRequest rr = new RegisterRequest();
+        rr.setUsername(unique);
+        rr.setEmail(unique + "@example.com");
+        rr.setPassword("password123");
+        rr.setRole(Role.CUSTOMER);
+        userService.register(rr);
+        return userRepository.findByUsername(unique).orElseThrow();
+    }
+
+    private OutboxEvent outboxEventFor(String accountNumber) {
+        return outboxEventRepository.findAll().stream()
+                .filter(e -> e.getPayload().contains(accountNumber))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    @Test
+    void freezeIsRecordedInTheOutboxAndDeliveredByTheDispatcher() {
+        responseStatus.set(200);
+        User user = bootstrapUser();
+        String account = accountService.createAccount(user).getAccountNumber();
+
+        accountService.updateAccountStatus(user, account, false, "review");
+        assertThat(outboxEventFor(account).getStatus()).isEqualTo(OutboxEvent.Status.PENDING);
+        assertThat(received).noneMatch(body -> body.contains(account));
+
+        assertThat(webhookDispatcher.dispatchDue()).isGreaterThanOrEqualTo(1);
+        OutboxEvent delivered = outboxEventFor(account);
+        assertThat(delivered.getStatus()).isEqualTo(OutboxEvent.Status.DELIVERED);
+        assertThat(delivered.getAttempts()).isEqualTo(1);
+        assertThat(received).anyMatch(body -> body.contains("ACCOUNT_FROZEN") && body.contains(account));
+        assertThat(meterRegistry.get("novabank.webhook.delivery").tag("outcome", "success").timer().count())
+                .isGreaterThanOrEqualTo(1);
+        assertThat(meterRegistry.get("novabank.webhook.in_flight").gauge().value()).isZero();
+    }
+
+    @Test
+    void failingEventsGoDeadAndCanBeReplayed() {
+        User user = bootstrapUser();
+        String account = accountService.createAccount(user).getAccountNumber();
+        responseStatus.set(500);
+        accountService.updateAccountStatus(user, account, false, "review");
+
+        webhookDispatcher.dispatchDue();
+        assertThat(outboxEventFor(account).getStatus()).isEqualTo(OutboxEvent.Status.PENDING);
+        webhookDispatcher.dispatchDue();
+        OutboxEvent dead = outboxEventFor(account);
+        assertThat(dead.getStatus()).isEqualTo(OutboxEvent.Status.DEAD);
+        assertThat(dead.getLastError()).contains("500");
+
+        responseStatus.set(200);
+        webhookDispatcher.replay(dead.getId());
+        webhookDispatcher.dispatchDue();
+        assertThat(outboxEventFor(account).getStatus()).isEqualTo(OutboxEvent.Status.DELIVERED);
+    }
+
+    @Test
+    void aLargeTransferIsInTheOutboxAsSoonAsItCommitsAndNotIfItRollsBack() {
+        User user = bootstrapUser();
+        String from = accountService.createAccount(user).getAccountNumber();
+        String to = accountService.createAccount(user).getAccountNumber();
+        accountService.deposit(user, from, new BigDecimal("30000.00"), "seed");
+        TransferRequest tr = new TransferRequest();
+        tr.setFromAccount(from);
+        tr.setToAccount(to);
+        tr.setAmount(new BigDecimal("10000.00"));
+
+        String[] rolledBack = new String[1];
+        assertThatThrownBy(() -> transactionTemplate.executeWithoutResult(status -> {
+            rolledBack[0] = transactionService.transfer(user, tr);
+            throw new IllegalStateException("commit failed");
+        })).hasMessage("commit failed");
+        // No waiting for an async handler: the row is written before the transfer commits.
+        String reference = transactionService.transfer(user, tr);
+
+        assertThat(outboxEventRepository.findAll())
+                .filteredOn(e -> e.getEventType().equals("LARGE_TRANSFER"))
+                .extracting(OutboxEvent::getPayload)
+                .anyMatch(payload -> payload.contains(reference))
+                .noneMatch(payload -> payload.contains(rolledBack[0]));
+    }
+}
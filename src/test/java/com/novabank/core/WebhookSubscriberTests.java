@@ -0,0 +1,149 @@
+package com.novabank.core;
+
+import com.novabank.core.dto.auth.RegisterRequest;
+import com.novabank.core.model.OutboxEvent;
+import com.novabank.core.model.Role;
+import com.novabank.core.model.User;
+import com.novabank.core.repository.OutboxEventRepository;
+import com.novabank.core.repository.UserRepository;
+import com.novabank.core.service.AccountService;
+import com.novabank.core.service.UserService;
+import com.novabank.core.service.WebhookDispatcher;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:testwebhooksubscribers;DB_CLOSE_DELAY=-1;MODE=PostgreSQL",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "app.notifications.webhook.enabled=true",
+        "app.notifications.webhook.outbox.poll-interval-ms=3600000",
+        "app.notifications.webhook.subscribers[0].name=risk",
+        "app.notifications.webhook.subscribers[0].event-types=LARGE_TRANSFER",
+        "app.notifications.webhook.subscribers[1].name=crm",
+        "app.notifications.webhook.subscribers[1].event-types=ACCOUNT_FROZEN",
+        "app.notifications.webhook.subscribers[1].queue-capacity=1",
+        "app.notifications.webhook.subscribers[1].overflow=DROP",
+        "app.notifications.webhook.subscribers[2].name=archive",
+        "app.notifications.webhook.subscribers[2].queue-capacity=1",
+        "app.notifications.webhook.subscribers[2].overflow=PARK"
+})
+class WebhookSubscriberTests {
+
+    private record Received(String path, String body) {
+    }
+
+    private static final Queue<Received> received = new ConcurrentLinkedQueue<>();
+    private static final HttpServer receiver = startReceiver();
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private AccountService accountService;
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+    @Autowired
+    private WebhookDispatcher webhookDispatcher;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private static HttpServer startReceiver() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.createContext("/", exchange -> {
+                received.add(new Received(exchange.getRequestURI().getPath(),
+                        new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8)));
+                exchange.sendResponseHeaders(200, -1);
+                exchange.close();
+            });
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @DynamicPropertySource
+    static void subscriberUrls(DynamicPropertyRegistry registry) {
+        String base = "http://localhost:" + receiver.getAddress().getPort();
+        registry.add("app.notifications.webhook.subscribers[0].url", () -> base + "/risk");
+        registry.add("app.notifications.webhook.subscribers[1].url", () -> base + "/crm");
+        registry.add("app.notifications.webhook.subscribers[2].url", () -> base + "/archive");
+    }
+
+    @AfterAll
+    static void stopReceiver() {
+        receiver.stop(0);
+    }
+
+    private User bootstrapUser() {
+        String unique = "lena_" + System.nanoTime();
+        RegisterRequest rr = new RegisterRequest();
+        rr.setUsername(unique);
+        rr.setEmail(unique + "@example.com");
+        rr.setPassword("password123");
+        rr.setRole(Role.CUSTOMER);
+        userService.register(rr);
+        return userRepository.findByUsername(unique).orElseThrow();
+    }
+
+    private List<String> reasonsReceivedBy(String path, String accountNumber) {
+        return received.stream()
+                .filter(r -> r.path().equals(path) && r.body().contains(accountNumber))
+                .map(r -> r.body().contains("first") ? "first" : "second")
+                .toList();
+    }
+
+    @Test
+    void eachSubscriberGetsItsEventTypesAndAppliesItsOwnOverflowPolicy() {
+        User user = bootstrapUser();
+        String account = accountService.createAccount(user).getAccountNumber();
+        double droppedBefore = meterRegistry.counter("novabank.webhook.subscriber.dropped", "subscriber", "crm").count();
+
+        accountService.updateAccountStatus(user, account, false, "first freeze");
+        accountService.updateAccountStatus(user, account, false, "second freeze");
+
+        List<OutboxEvent> recorded = outboxEventRepository.findAll().stream()
+                .filter(e -> e.getPayload().contains(account))
+                .toList();
+        // risk does not take freezes; crm is full after one event and drops; archive parks the overflow.
+        assertThat(recorded).noneMatch(e -> e.getSubscriber().equals("risk"));
+        assertThat(recorded).filteredOn(e -> e.getSubscriber().equals("crm")).hasSize(1);
+        assertThat(recorded).filteredOn(e -> e.getSubscriber().equals("archive"))
+                .extracting(OutboxEvent::getStatus)
+                .containsExactlyInAnyOrder(OutboxEvent.Status.PENDING, OutboxEvent.Status.PARKED);
+        assertThat(meterRegistry.counter("novabank.webhook.subscriber.dropped", "subscriber", "crm").count())
+                .isEqualTo(droppedBefore + 1);
+
+        webhookDispatcher.dispatchDue();
+        assertThat(reasonsReceivedBy("/crm", account)).containsExactly("first");
+        assertThat(reasonsReceivedBy("/archive", account)).containsExactly("first");
+
+        // The parked event is released once the archive queue has room again.
+        webhookDispatcher.dispatchDue();
+        assertThat(reasonsReceivedBy("/archive", account)).containsExactly("first", "second");
+        assertThat(reasonsReceivedBy("/risk", account)).isEmpty();
+        assertThat(meterRegistry.get("novabank.webhook.subscriber.parked").tag("subscriber", "archive").gauge().value())
+                .isZero();
+    }
+}
@@ -25,8 +25,8 @@ import java.util.Map;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.anyMap;
 import static org.mockito.ArgumentMatchers.eq;
-import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -125,7 +125,8 @@ class WebhookTriggerIntegrationTests {
                         .content(objectMapper.writeValueAsString(tr)))
                 .andExpect(status().isOk());
 
-        verify(webhookService, atLeastOnce()).notifyEvent(eq("LARGE_TRANSFER"), anyMap());
+        // Webhooks are sent after commit on the domain event executor.
+        verify(webhookService, timeout(5000).atLeastOnce()).notifyEvent(eq("LARGE_TRANSFER"), anyMap());
     }
 
     @Test
@@ -142,7 +143,7 @@ class WebhookTriggerIntegrationTests {
                 .andExpect(status().isOk());
 
         ArgumentCaptor<Map<String, Object>> payloadCaptor = ArgumentCaptor.forClass(Map.class);
-        verify(webhookService).notifyEvent(eq("ACCOUNT_FROZEN"), payloadCaptor.capture());
+        verify(webhookService, timeout(5000)).notifyEvent(eq("ACCOUNT_FROZEN"), payloadCaptor.capture());
         assertThat(payloadCaptor.getValue().get("accountNumber")).isEqualTo(accountNumber);
     }
 }